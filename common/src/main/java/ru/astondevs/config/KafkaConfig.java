@@ -1,6 +1,7 @@
 package ru.astondevs.config;
 
 import jakarta.annotation.PostConstruct;
+import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -11,11 +12,40 @@ import org.springframework.stereotype.Component;
 @Component
 @ConfigurationProperties(prefix = "spring.kafka.topics")
 public class KafkaConfig {
-    private String userAdd;
-    private String userDelete;
+    /**
+     * Топик событий пользователей: создание и удаление идут в одном топике с ключом email,
+     * а операция передаётся в {@link ru.astondevs.dto.UserEventDto#operation()}. Поэтому события
+     * одного пользователя читаются строго в порядке отправки, в том числе удаление после создания.
+     */
+    private String userEvents;
+    private String userCacheInvalidation;
+
+    /**
+     * Прежние топики userAdd-topic и userDelete-topic, в которые события писались до перехода на userEvents.
+     * Уведомления дочитывают их той же группой потребителей, поэтому продолжают с сохранённых смещений.
+     * Удаляется вместе со слушателем после того, как отставание группы по этим топикам станет нулевым.
+     */
+    private List<String> legacyUserEvents;
+
+    /**
+     * Число разделов топика userEvents: предел параллельной обработки событий.
+     */
+    private int partitions = 6;
+
+    /**
+     * Число реплик каждого раздела топика userEvents.
+     */
+    private short replicationFactor = 1;
+
+    /**
+     * Число потоков-потребителей топика userEvents в одном экземпляре; больше, чем partitions,
+     * не имеет смысла. Слушатели читают это значение из бина, поэтому значение по умолчанию одно.
+     */
+    private int concurrency = 3;
 
     @PostConstruct
     public void logConfig() {
-        System.out.println("KafkaConfig initialized with userAdd: " + userAdd + ", userDelete: " + userDelete);
+        System.out.println("KafkaConfig initialized with userEvents: " + userEvents
+                + ", userCacheInvalidation: " + userCacheInvalidation);
     }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package ru.astondevs.config;
+
+import java.time.Duration;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Профиль пропускной способности продюсера: набор {@link KafkaThroughputProfile} и отдельные
+ * переопределения его значений. Применяется к фабрике продюсеров поверх spring.kafka.producer.
+ * Пакетные отправки идут через отдельный продюсер с набором {@link #bulkProfile}: задержка linger.ms
+ * окупается на пачках, но добавлялась бы к каждой одиночной отправке, ответ на которую ждёт клиент.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "spring.kafka.throughput")
+public class KafkaThroughputConfig {
+    private KafkaThroughputProfile profile = KafkaThroughputProfile.DEFAULT;
+
+    /**
+     * Набор продюсера пакетных отправок: пакетных запросов и ретранслятора outbox.
+     * Переопределения ниже к нему не применяются.
+     */
+    private KafkaThroughputProfile bulkProfile = KafkaThroughputProfile.THROUGHPUT;
+
+    /**
+     * Сколько продюсер ждёт наполнения пачки перед отправкой (linger.ms).
+     */
+    private Duration linger;
+
+    /**
+     * Наибольший размер пачки на раздел (batch.size).
+     */
+    private DataSize batchSize;
+
+    /**
+     * Сжатие пачек: none, gzip, snappy, lz4 или zstd (compression.type).
+     */
+    private String compression;
+
+    /**
+     * Идемпотентная запись без дубликатов при повторных отправках (enable.idempotence); требует acks=all.
+     */
+    private Boolean idempotence;
+
+    /**
+     * Сколько реплик должно подтвердить запись: 0, 1 или all (acks).
+     */
+    private String acks;
+
+    /**
+     * Настройки продюсера: значения набора с применёнными переопределениями.
+     *
+     * @throws IllegalArgumentException Если идемпотентность включена при acks, отличном от all.
+     */
+    public Map<String, Object> producerConfigs() {
+        Map<String, Object> configs = profile.producerConfigs();
+        KafkaThroughputProfile.put(configs, linger, batchSize == null ? null : (int) batchSize.toBytes(),
+                compression, idempotence, acks);
+        Object configuredAcks = configs.get(ProducerConfig.ACKS_CONFIG);
+        if (Boolean.TRUE.equals(configs.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG))
+                && configuredAcks != null && !"all".equals(configuredAcks) && !"-1".equals(configuredAcks)) {
+            throw new IllegalArgumentException("Идемпотентный продюсер Kafka требует acks=all, задано acks="
+                    + configuredAcks);
+        }
+        return configs;
+    }
+
+    /**
+     * Настройки продюсера пакетных отправок: значения набора bulkProfile.
+     */
+    public Map<String, Object> bulkProducerConfigs() {
+        return bulkProfile.producerConfigs();
+    }
+}
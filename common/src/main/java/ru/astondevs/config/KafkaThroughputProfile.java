@@ -0,0 +1,77 @@
+package ru.astondevs.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+/**
+ * Готовые наборы настроек продюсера: сколько ждать наполнения пачки, её размер, сжатие
+ * и гарантии записи. Сравнение наборов — в KafkaThroughputProfileBenchmarkTest (notification-service).
+ */
+public enum KafkaThroughputProfile {
+    /**
+     * Настройки клиента Kafka 3.x без изменений: linger.ms=0, batch.size=16 КБ, без сжатия,
+     * идемпотентность и acks=all.
+     */
+    DEFAULT(null, null, null, null, null),
+    /**
+     * Отправка без ожидания пачки и подтверждение одним лидером: минимальная задержка ценой
+     * возможной потери или дублирования событий при смене лидера.
+     */
+    LOW_LATENCY(Duration.ZERO, 16 * 1024, "none", false, "1"),
+    /**
+     * Пачки до 128 КБ, собираемые до 20 мс, и быстрое сжатие lz4 при тех же гарантиях, что и по умолчанию.
+     */
+    THROUGHPUT(Duration.ofMillis(20), 128 * 1024, "lz4", true, "all"),
+    /**
+     * Пачки до 256 КБ, собираемые до 50 мс, со сжатием zstd: меньше всего байт в сети и на дисках брокера.
+     */
+    COMPRESSED(Duration.ofMillis(50), 256 * 1024, "zstd", true, "all");
+
+    private final Duration linger;
+    private final Integer batchSize;
+    private final String compression;
+    private final Boolean idempotence;
+    private final String acks;
+
+    KafkaThroughputProfile(Duration linger, Integer batchSize, String compression, Boolean idempotence,
+                           String acks) {
+        this.linger = linger;
+        this.batchSize = batchSize;
+        this.compression = compression;
+        this.idempotence = idempotence;
+        this.acks = acks;
+    }
+
+    /**
+     * Настройки продюсера, которые задаёт набор; для DEFAULT — пустые.
+     */
+    public Map<String, Object> producerConfigs() {
+        Map<String, Object> configs = new LinkedHashMap<>();
+        put(configs, linger, batchSize, compression, idempotence, acks);
+        return configs;
+    }
+
+    /**
+     * Записывает в настройки продюсера заданные значения, пропуская null.
+     */
+    static void put(Map<String, Object> configs, Duration linger, Integer batchSize, String compression,
+                    Boolean idempotence, String acks) {
+        if (linger != null) {
+            configs.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+        }
+        if (batchSize != null) {
+            configs.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        }
+        if (compression != null) {
+            configs.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        }
+        if (idempotence != null) {
+            configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        }
+        if (acks != null) {
+            configs.put(ProducerConfig.ACKS_CONFIG, acks);
+        }
+    }
+}
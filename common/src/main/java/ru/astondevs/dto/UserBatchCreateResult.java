@@ -0,0 +1,20 @@
+package ru.astondevs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "UserBatchCreateResult", description = "Итог пакетного создания пользователей")
+public record UserBatchCreateResult(
+        @Schema(description = "Количество созданных пользователей", example = "2")
+        int created,
+        @Schema(description = "Количество отклонённых элементов", example = "1")
+        int failed,
+        @Schema(description = "Результаты по каждому элементу в порядке запроса")
+        List<UserBatchItemResult> items
+) {
+    public static UserBatchCreateResult of(List<UserBatchItemResult> items) {
+        int created = (int) items.stream().filter(UserBatchItemResult::success).count();
+        return new UserBatchCreateResult(created, items.size() - created, items);
+    }
+}
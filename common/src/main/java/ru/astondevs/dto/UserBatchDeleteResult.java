@@ -0,0 +1,14 @@
+package ru.astondevs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "UserBatchDeleteResult", description = "Итог пакетного удаления пользователей")
+public record UserBatchDeleteResult(
+        @Schema(description = "ID удалённых пользователей")
+        List<Long> deleted,
+        @Schema(description = "ID, для которых пользователь не найден")
+        List<Long> notFound
+) {
+}
@@ -0,0 +1,25 @@
+package ru.astondevs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "UserBatchItemResult", description = "Результат обработки одного элемента пакетного запроса")
+public record UserBatchItemResult(
+        @Schema(description = "Позиция элемента в запросе", example = "0")
+        int index,
+        @Schema(description = "Email из запроса", example = "user@example.com")
+        String email,
+        @Schema(description = "Успешно ли обработан элемент", example = "true")
+        boolean success,
+        @Schema(description = "ID созданного пользователя", example = "1")
+        Long id,
+        @Schema(description = "Причина ошибки", example = "Email уже существует")
+        String error
+) {
+    public static UserBatchItemResult created(int index, String email, Long id) {
+        return new UserBatchItemResult(index, email, true, id, null);
+    }
+
+    public static UserBatchItemResult failed(int index, String email, String error) {
+        return new UserBatchItemResult(index, email, false, null, error);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.astondevs.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Читает {@link UserEventDto} в формате {@link UserEventSerializer}, а сообщения, записанные
+ * до его появления, — как JSON. Операции create и delete возвращаются общими строками-константами,
+ * так что на событие создаётся только строка email.
+ */
+public class UserEventDeserializer implements Deserializer<UserEventDto> {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Override
+    public UserEventDto deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0) {
+            throw new SerializationException("Пустое сообщение о событии пользователя");
+        }
+        if (data[0] == '{') {
+            return readJson(data);
+        }
+        if (data[0] != UserEventSerializer.VERSION_1) {
+            throw new SerializationException("Неизвестная версия формата события пользователя: " + data[0]);
+        }
+        try {
+            Reader reader = new Reader(data, 1);
+            String operation = switch (data[reader.position++]) {
+                case UserEventSerializer.CREATE -> UserEventSerializer.CREATE_OPERATION;
+                case UserEventSerializer.DELETE -> UserEventSerializer.DELETE_OPERATION;
+                case UserEventSerializer.OTHER_OPERATION -> reader.readString();
+                default -> throw new SerializationException("Неизвестный код операции: " + data[1]);
+            };
+            String email = reader.readString();
+            if (reader.position != data.length) {
+                throw new SerializationException("Лишние байты в событии пользователя");
+            }
+            return new UserEventDto(operation, email);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Событие пользователя обрезано", e);
+        }
+    }
+
+    private static UserEventDto readJson(byte[] data) {
+        try {
+            return JSON.readValue(data, UserEventDto.class);
+        } catch (IOException e) {
+            throw new SerializationException("Не удалось разобрать событие пользователя в JSON", e);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        private String readString() {
+            int length = 0;
+            int shift = 0;
+            byte next;
+            do {
+                if (shift > 28) {
+                    throw new SerializationException("Некорректная длина строки в событии пользователя");
+                }
+                next = data[position++];
+                length |= (next & 0x7F) << shift;
+                shift += 7;
+            } while ((next & 0x80) != 0);
+            if (length < 0 || length > data.length - position) {
+                throw new SerializationException("Событие пользователя обрезано");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
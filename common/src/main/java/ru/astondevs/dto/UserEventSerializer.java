@@ -0,0 +1,82 @@
+package ru.astondevs.dto;
+
+import java.nio.charset.StandardCharsets;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Двоичное представление {@link UserEventDto} для Kafka:
+ * <pre>
+ * байт 0      версия формата ({@value #VERSION_1})
+ * байт 1      операция: 1 — create, 2 — delete, 0 — другая, далее её длина (varint) и UTF-8
+ * varint      длина email в байтах
+ * байты       email в UTF-8
+ * </pre>
+ * Событие {@code create} с адресом из 20 символов занимает 23 байта вместо 53 в JSON, а запись
+ * идёт сразу в итоговый массив без промежуточной строки. Первый байт JSON-сообщения — {@code '{'},
+ * поэтому {@link UserEventDeserializer} отличает старые сообщения от версий двоичного формата.
+ */
+public class UserEventSerializer implements Serializer<UserEventDto> {
+    static final byte VERSION_1 = 1;
+    static final byte OTHER_OPERATION = 0;
+    static final byte CREATE = 1;
+    static final byte DELETE = 2;
+    static final String CREATE_OPERATION = "create";
+    static final String DELETE_OPERATION = "delete";
+
+    @Override
+    public byte[] serialize(String topic, UserEventDto event) {
+        if (event == null) {
+            return null;
+        }
+        if (event.operation() == null || event.email() == null) {
+            throw new SerializationException("Поля UserEventDto не должны быть пустыми");
+        }
+        byte operationCode = operationCode(event.operation());
+        byte[] operation = operationCode == OTHER_OPERATION
+                ? event.operation().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] email = event.email().getBytes(StandardCharsets.UTF_8);
+
+        int size = 2 + varintSize(email.length) + email.length;
+        if (operation != null) {
+            size += varintSize(operation.length) + operation.length;
+        }
+        byte[] data = new byte[size];
+        data[0] = VERSION_1;
+        data[1] = operationCode;
+        int position = 2;
+        if (operation != null) {
+            position = writeBytes(data, position, operation);
+        }
+        writeBytes(data, position, email);
+        return data;
+    }
+
+    private static byte operationCode(String operation) {
+        return switch (operation) {
+            case CREATE_OPERATION -> CREATE;
+            case DELETE_OPERATION -> DELETE;
+            default -> OTHER_OPERATION;
+        };
+    }
+
+    private static int writeBytes(byte[] data, int position, byte[] bytes) {
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            data[position++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        data[position++] = (byte) length;
+        System.arraycopy(bytes, 0, data, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            size++;
+            value >>>= 7;
+        }
+        return size;
+    }
+}
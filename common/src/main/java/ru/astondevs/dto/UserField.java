@@ -0,0 +1,81 @@
+package ru.astondevs.dto;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Поля пользователя, которые клиент может запросить параметром {@code fields}.
+ * Имя поля совпадает и с именем свойства в JSON, и с атрибутом сущности, поэтому один набор
+ * полей определяет и список колонок в SELECT, и состав ответа.
+ */
+public enum UserField {
+    ID("id"),
+    NAME("name"),
+    EMAIL("email"),
+    AGE("age"),
+    CREATED_AT("createdAt");
+
+    /**
+     * Все поля: ответ в полном виде.
+     */
+    public static final Set<UserField> ALL = Collections.unmodifiableSet(EnumSet.allOf(UserField.class));
+
+    private final String property;
+    private final SerializedString serializedName;
+
+    UserField(String property) {
+        this.property = property;
+        this.serializedName = new SerializedString(property);
+    }
+
+    public String property() {
+        return property;
+    }
+
+    SerializedString serializedName() {
+        return serializedName;
+    }
+
+    Object read(UserResponseDto user) {
+        return switch (this) {
+            case ID -> user.id();
+            case NAME -> user.name();
+            case EMAIL -> user.email();
+            case AGE -> user.age();
+            case CREATED_AT -> user.createdAt();
+        };
+    }
+
+    /**
+     * Разбирает список полей через запятую, например {@code id,name}.
+     * Пустой или отсутствующий список означает все поля; порядок полей в ответе не зависит от порядка в запросе.
+     *
+     * @throws IllegalArgumentException Если поле неизвестно.
+     */
+    public static Set<UserField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        EnumSet<UserField> parsed = EnumSet.noneOf(UserField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                parsed.add(byProperty(trimmed));
+            }
+        }
+        return parsed.isEmpty() ? ALL : Collections.unmodifiableSet(parsed);
+    }
+
+    private static UserField byProperty(String property) {
+        for (UserField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное поле пользователя: " + property
+                + ". Допустимые поля: id, name, email, age, createdAt");
+    }
+}
@@ -2,6 +2,7 @@ package ru.astondevs.dto;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 
@@ -17,6 +18,15 @@ public record UserResponseDto(
         @Schema(description = "Возраст", example = "30")
         Integer age,
         @Schema(description = "Дата создания")
-        LocalDateTime createdAt
+        LocalDateTime createdAt,
+        @JsonIgnore
+        @Schema(hidden = true)
+        Long version
 ) {
+    /**
+     * DTO без версии записи; версия нужна только для ETag и в JSON не попадает.
+     */
+    public UserResponseDto(Long id, String name, String email, Integer age, LocalDateTime createdAt) {
+        this(id, name, email, age, createdAt, null);
+    }
 }
\ No newline at end of file
@@ -1,31 +1,78 @@
 package ru.astondevs.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.core.Relation;
+import org.springframework.http.MediaType;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
+/**
+ * Пользователь со ссылками на связанные операции.
+ * Ссылки не хранятся в объекте: {@link UserResponseWrapperSerializer} пишет их в JSON прямо по ID,
+ * поэтому обёртка добавляет к DTO один небольшой объект, а не список из четырёх {@link Link}.
+ * В content попадают только поля из {@code fields}; ссылки строятся по ID и пишутся всегда.
+ */
 @Relation(collectionRelation = "users", itemRelation = "user")
+@JsonSerialize(using = UserResponseWrapperSerializer.class)
 public record UserResponseWrapper(
         UserResponseDto content,
-        List<Link> links
+        @JsonIgnore
+        @Schema(hidden = true)
+        Set<UserField> fields
 ) {
+    /**
+     * Представление без ссылок: тело ответа содержит только данные пользователя.
+     */
+    public static final String PLAIN_JSON_VALUE = "application/vnd.astondevs.plain+json";
+    public static final MediaType PLAIN_JSON = MediaType.parseMediaType(PLAIN_JSON_VALUE);
+
+    public UserResponseWrapper {
+        if (fields == null) {
+            fields = UserField.ALL;
+        }
+    }
+
+    public UserResponseWrapper(UserResponseDto content) {
+        this(content, UserField.ALL);
+    }
+
     public static UserResponseWrapper wrap(UserResponseDto dto) {
-        return new UserResponseWrapper(
-                dto,
-                List.of(
-                        Link.of("/api/users/" + dto.id()).withSelfRel(),
-                        Link.of("/api/users").withRel("users"),
-                        Link.of("/api/users/" + dto.id()).withRel("update"),
-                        Link.of("/api/users/" + dto.id()).withRel("delete")
-                )
-        );
+        return new UserResponseWrapper(dto);
+    }
+
+    public static UserResponseWrapper wrap(UserResponseDto dto, Set<UserField> fields) {
+        return new UserResponseWrapper(dto, fields);
     }
 
     public static List<UserResponseWrapper> wrapAll(List<UserResponseDto> dtos) {
-        return dtos.stream()
-                .map(UserResponseWrapper::wrap)
-                .collect(Collectors.toList());
+        return wrapAll(dtos, UserField.ALL);
+    }
+
+    public static List<UserResponseWrapper> wrapAll(List<UserResponseDto> dtos, Set<UserField> fields) {
+        List<UserResponseWrapper> wrapped = new ArrayList<>(dtos.size());
+        for (UserResponseDto dto : dtos) {
+            wrapped.add(new UserResponseWrapper(dto, fields));
+        }
+        return wrapped;
+    }
+
+    /**
+     * Ссылки в виде объектов для кода, которому они нужны; при сериализации не вызывается.
+     */
+    @JsonProperty("links")
+    public List<Link> links() {
+        String userHref = UserResponseWrapperSerializer.USERS_HREF + "/" + content.id();
+        return List.of(
+                Link.of(userHref).withSelfRel(),
+                Link.of(UserResponseWrapperSerializer.USERS_HREF).withRel("users"),
+                Link.of(userHref).withRel("update"),
+                Link.of(userHref).withRel("delete")
+        );
     }
 }
@@ -0,0 +1,91 @@
+package ru.astondevs.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Пишет {@link UserResponseWrapper} в том же виде, что и список {@code Link}:
+ * {@code {"content": {...}, "links": [{"rel": "self", "href": "/api/users/1"}, ...]}}.
+ * Имена полей, rel и общий href заранее закодированы, поэтому на пользователя создаётся
+ * только строка его href вместо четырёх объектов Link, их строк и списка.
+ * Если в контексте сериализации установлен атрибут {@link #WITHOUT_LINKS}, пишется только content.
+ * При неполном наборе полей content пишется поле за полем без обращения к BeanSerializer,
+ * так что в ответ не попадают даже null непрочитанных колонок.
+ */
+public class UserResponseWrapperSerializer extends StdSerializer<UserResponseWrapper> {
+    /**
+     * Атрибут ObjectWriter, отключающий блок ссылок.
+     */
+    public static final String WITHOUT_LINKS = UserResponseWrapperSerializer.class.getName() + ".WITHOUT_LINKS";
+    static final String USERS_HREF = "/api/users";
+
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString LINKS = new SerializedString("links");
+    private static final SerializedString REL = new SerializedString("rel");
+    private static final SerializedString HREF = new SerializedString("href");
+    private static final SerializedString SELF_REL = new SerializedString("self");
+    private static final SerializedString USERS_REL = new SerializedString("users");
+    private static final SerializedString UPDATE_REL = new SerializedString("update");
+    private static final SerializedString DELETE_REL = new SerializedString("delete");
+    private static final SerializedString USERS_HREF_VALUE = new SerializedString(USERS_HREF);
+
+    public UserResponseWrapperSerializer() {
+        super(UserResponseWrapper.class);
+    }
+
+    @Override
+    public void serialize(UserResponseWrapper wrapper, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        UserResponseDto content = wrapper.content();
+        if (Boolean.TRUE.equals(provider.getAttribute(WITHOUT_LINKS))) {
+            writeContent(content, wrapper.fields(), gen, provider);
+            return;
+        }
+        gen.writeStartObject(wrapper);
+        gen.writeFieldName(CONTENT);
+        writeContent(content, wrapper.fields(), gen, provider);
+
+        String userHref = USERS_HREF + "/" + content.id();
+        gen.writeFieldName(LINKS);
+        gen.writeStartArray();
+        writeLink(gen, SELF_REL, userHref);
+        gen.writeStartObject();
+        gen.writeFieldName(REL);
+        gen.writeString(USERS_REL);
+        gen.writeFieldName(HREF);
+        gen.writeString(USERS_HREF_VALUE);
+        gen.writeEndObject();
+        writeLink(gen, UPDATE_REL, userHref);
+        writeLink(gen, DELETE_REL, userHref);
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private static void writeContent(UserResponseDto content, Set<UserField> fields, JsonGenerator gen,
+                                     SerializerProvider provider) throws IOException {
+        if (fields.size() == UserField.ALL.size()) {
+            provider.defaultSerializeValue(content, gen);
+            return;
+        }
+        gen.writeStartObject(content);
+        for (UserField field : fields) {
+            gen.writeFieldName(field.serializedName());
+            provider.defaultSerializeValue(field.read(content), gen);
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeLink(JsonGenerator gen, SerializedString rel, String href) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(REL);
+        gen.writeString(rel);
+        gen.writeFieldName(HREF);
+        gen.writeString(href);
+        gen.writeEndObject();
+    }
+}
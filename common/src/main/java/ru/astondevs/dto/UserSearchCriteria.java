@@ -0,0 +1,23 @@
+package ru.astondevs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Schema(name = "UserSearchCriteria", description = "Фильтры поиска пользователей; незаданные фильтры не применяются")
+public record UserSearchCriteria(
+        @Schema(description = "Минимальный возраст включительно", example = "18")
+        Integer minAge,
+        @Schema(description = "Максимальный возраст включительно", example = "30")
+        Integer maxAge,
+        @Schema(description = "Начало имени с учётом регистра", example = "Ив")
+        String namePrefix,
+        @Schema(description = "Создан не раньше (ISO-8601)", example = "2025-01-01T00:00:00")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime createdFrom,
+        @Schema(description = "Создан раньше (ISO-8601, не включительно)", example = "2025-02-01T00:00:00")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime createdTo
+) {
+}
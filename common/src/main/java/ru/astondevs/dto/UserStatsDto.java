@@ -0,0 +1,17 @@
+package ru.astondevs.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Schema(name = "UserStats", description = "Сводная статистика по пользователям")
+public record UserStatsDto(
+        @Schema(description = "Количество пользователей", example = "1024")
+        long totalUsers,
+        @Schema(description = "Количество пользователей по возрастным интервалам; unknown — возраст не указан")
+        Map<String, Long> ageHistogram,
+        @Schema(description = "Количество существующих пользователей по дням регистрации")
+        Map<LocalDate, Long> signupsPerDay
+) {
+}
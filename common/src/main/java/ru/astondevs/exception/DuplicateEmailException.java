@@ -1,6 +1,11 @@
 package ru.astondevs.exception;
 
 public class DuplicateEmailException extends RuntimeException {
+    /**
+     * Имя уникального индекса по users.email, нарушение которого означает занятый email.
+     */
+    public static final String UNIQUE_EMAIL_INDEX = "ux_users_email";
+
     public DuplicateEmailException(String message) {
         super(message);
     }
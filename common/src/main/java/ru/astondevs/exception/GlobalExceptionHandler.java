@@ -1,14 +1,21 @@
 package ru.astondevs.exception;
 
 import jakarta.mail.MessagingException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.KafkaException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
@@ -25,12 +32,49 @@ public class GlobalExceptionHandler {
         return buildError(ex.getMessage(), HttpStatus.CONFLICT);
     }
 
+    /**
+     * Занятый email обнаруживается уникальным индексом при записи, а не отдельным запросом заранее,
+     * поэтому нарушение этого индекса отвечает так же, как {@link DuplicateEmailException}.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (isDuplicateEmail(ex)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(handleDuplicateEmail(new DuplicateEmailException("Email уже существует")));
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(handleAllExceptions(ex));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorResponse handlePreconditionFailed(PreconditionFailedException ex) {
+        return buildError(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return buildError("Данные были изменены другим запросом, повторите операцию", HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleIllegalArgument(IllegalArgumentException ex) {
         return buildError(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Асинхронная операция не уложилась в отведённое время или пул операций переполнен:
+     * запрос можно повторить позже.
+     */
+    @ExceptionHandler({TimeoutException.class, AsyncRequestTimeoutException.class, RejectedExecutionException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServiceUnavailable(Exception ex) {
+        return buildError("Сервис перегружен или операция не завершилась вовремя, повторите запрос позже",
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleAllExceptions(Exception ex) {
@@ -60,6 +104,12 @@ public class GlobalExceptionHandler {
         return buildError("Email error: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    private boolean isDuplicateEmail(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null
+                && message.toLowerCase(Locale.ROOT).contains(DuplicateEmailException.UNIQUE_EMAIL_INDEX);
+    }
+
     private ErrorResponse buildError(String message, HttpStatus status) {
         return new ErrorResponse(message, status.getReasonPhrase().toLowerCase());
     }
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest(
@@ -16,7 +18,11 @@ class KafkaConfigTest {
 
     @Test
     void testKafkaConfigProperties() {
-        assertEquals("userAdd-topic", kafkaConfig.getUserAdd());
-        assertEquals("userDelete-topic", kafkaConfig.getUserDelete());
+        assertEquals("userEvents-topic", kafkaConfig.getUserEvents());
+        assertEquals("userCacheInvalidation-topic", kafkaConfig.getUserCacheInvalidation());
+        assertEquals(List.of("userAdd-topic", "userDelete-topic"), kafkaConfig.getLegacyUserEvents());
+        assertEquals(6, kafkaConfig.getPartitions());
+        assertEquals(1, kafkaConfig.getReplicationFactor());
+        assertEquals(3, kafkaConfig.getConcurrency());
     }
 }
\ No newline at end of file
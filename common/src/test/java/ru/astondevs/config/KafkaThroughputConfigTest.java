@@ -0,0 +1,65 @@
+package ru.astondevs.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(
+        classes = TestConfig.class,
+        properties = "spring.config.import=classpath:kafka.yml,classpath:email.yml"
+)
+class KafkaThroughputConfigTest {
+    @Autowired
+    private KafkaThroughputConfig kafkaThroughputConfig;
+
+    @Test
+    void testProfilesFromKafkaYml() {
+        assertEquals(KafkaThroughputProfile.DEFAULT, kafkaThroughputConfig.getProfile());
+        assertTrue(kafkaThroughputConfig.producerConfigs().isEmpty());
+        assertEquals(KafkaThroughputProfile.THROUGHPUT, kafkaThroughputConfig.getBulkProfile());
+        Map<String, Object> configs = kafkaThroughputConfig.bulkProducerConfigs();
+        assertEquals(20, configs.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(128 * 1024, configs.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("lz4", configs.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals(true, configs.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals("all", configs.get(ProducerConfig.ACKS_CONFIG));
+    }
+
+    @Test
+    void testDefaultProfileKeepsClientDefaults() {
+        assertTrue(KafkaThroughputProfile.DEFAULT.producerConfigs().isEmpty());
+    }
+
+    @Test
+    void testOverridesReplaceProfileValues() {
+        KafkaThroughputConfig config = new KafkaThroughputConfig();
+        config.setProfile(KafkaThroughputProfile.COMPRESSED);
+        config.setLinger(Duration.ofMillis(5));
+        config.setBatchSize(DataSize.ofKilobytes(64));
+
+        Map<String, Object> configs = config.producerConfigs();
+
+        assertEquals(5, configs.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(64 * 1024, configs.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("zstd", configs.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+    }
+
+    @Test
+    void testIdempotenceRequiresAcksAll() {
+        KafkaThroughputConfig config = new KafkaThroughputConfig();
+        config.setProfile(KafkaThroughputProfile.THROUGHPUT);
+        config.setAcks("1");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, config::producerConfigs);
+        assertTrue(exception.getMessage().contains("acks=all"));
+    }
+}
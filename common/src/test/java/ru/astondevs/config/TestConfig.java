@@ -5,7 +5,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@EnableConfigurationProperties(KafkaConfig.class)
+@EnableConfigurationProperties({KafkaConfig.class, KafkaThroughputConfig.class})
 @ConfigurationPropertiesScan("ru.astondevs.config")
 public class TestConfig {
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package ru.astondevs.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserEventSerializerTest {
+    private static final String TOPIC = "userEvents-topic";
+
+    private final UserEventSerializer serializer = new UserEventSerializer();
+    private final UserEventDeserializer deserializer = new UserEventDeserializer();
+
+    @Test
+    void testKnownOperationIsEncodedAsOneByte() {
+        byte[] data = serializer.serialize(TOPIC, new UserEventDto("create", "unknown.nvme@gmail.com"));
+
+        byte[] email = "unknown.nvme@gmail.com".getBytes(StandardCharsets.UTF_8);
+        assertEquals(3 + email.length, data.length);
+        assertEquals(UserEventSerializer.VERSION_1, data[0]);
+        assertEquals(UserEventSerializer.CREATE, data[1]);
+        assertEquals(email.length, data[2]);
+        assertArrayEquals(email, Arrays.copyOfRange(data, 3, data.length));
+    }
+
+    @Test
+    void testRoundTrip() {
+        for (UserEventDto event : new UserEventDto[]{
+                new UserEventDto("create", "ibra@gmail.com"),
+                new UserEventDto("delete", "почта@пример.рф"),
+                new UserEventDto("update", "x".repeat(300) + "@gmail.com")}) {
+            assertEquals(event, deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, event)));
+        }
+    }
+
+    @Test
+    void testKnownOperationsAreSharedConstants() {
+        UserEventDto event = deserializer.deserialize(TOPIC,
+                serializer.serialize(TOPIC, new UserEventDto("delete", "ibra@gmail.com")));
+
+        assertSame(UserEventSerializer.DELETE_OPERATION, event.operation());
+    }
+
+    @Test
+    void testBinaryIsSmallerThanJson() throws Exception {
+        UserEventDto event = new UserEventDto("create", "unknown.nvme@gmail.com");
+
+        byte[] json = new ObjectMapper().writeValueAsBytes(event);
+
+        assertTrue(serializer.serialize(TOPIC, event).length * 2 < json.length);
+    }
+
+    @Test
+    void testJsonWrittenBeforeBinaryFormatIsStillRead() {
+        byte[] json = "{\"operation\":\"delete\",\"email\":\"ibra@gmail.com\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(new UserEventDto("delete", "ibra@gmail.com"), deserializer.deserialize(TOPIC, json));
+    }
+
+    @Test
+    void testNullPassesThrough() {
+        assertNull(serializer.serialize(TOPIC, null));
+        assertNull(deserializer.deserialize(TOPIC, null));
+    }
+
+    @Test
+    void testEmptyFieldsAreRejected() {
+        assertThrows(SerializationException.class,
+                () -> serializer.serialize(TOPIC, new UserEventDto("create", null)));
+    }
+
+    @Test
+    void testUnknownVersionIsRejected() {
+        SerializationException exception = assertThrows(SerializationException.class,
+                () -> deserializer.deserialize(TOPIC, new byte[]{9, 1, 0}));
+        assertTrue(exception.getMessage().contains("версия"));
+    }
+
+    @Test
+    void testTruncatedMessageIsRejected() {
+        byte[] data = serializer.serialize(TOPIC, new UserEventDto("create", "ibra@gmail.com"));
+
+        assertThrows(SerializationException.class,
+                () -> deserializer.deserialize(TOPIC, Arrays.copyOf(data, data.length - 1)));
+        assertThrows(SerializationException.class,
+                () -> deserializer.deserialize(TOPIC, Arrays.copyOf(data, 2)));
+    }
+}
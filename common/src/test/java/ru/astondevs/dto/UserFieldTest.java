@@ -0,0 +1,28 @@
+package ru.astondevs.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UserFieldTest {
+
+    @Test
+    void parse_NullOrBlank_ReturnsAllFields() {
+        assertThat(UserField.parse(null)).isEqualTo(UserField.ALL);
+        assertThat(UserField.parse(" , ")).isEqualTo(UserField.ALL);
+    }
+
+    @Test
+    void parse_ListOfFields_IgnoresCaseSpacesAndOrder() {
+        assertThat(UserField.parse(" name, ID ,createdat"))
+                .containsExactly(UserField.ID, UserField.NAME, UserField.CREATED_AT);
+    }
+
+    @Test
+    void parse_UnknownField_ThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> UserField.parse("id,password"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Неизвестное поле пользователя: password");
+    }
+}
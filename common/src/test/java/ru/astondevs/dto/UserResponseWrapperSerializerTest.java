@@ -0,0 +1,61 @@
+package ru.astondevs.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserResponseWrapperSerializerTest {
+    private ObjectMapper objectMapper;
+
+    private final UserResponseDto user = new UserResponseDto(
+            7L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.of(2025, 5, 1, 10, 0), 3L);
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Test
+    void serialize_WritesSameLinksAsLinkObjects() throws Exception {
+        UserResponseWrapper wrapper = UserResponseWrapper.wrap(user);
+
+        String json = objectMapper.writeValueAsString(wrapper);
+        String expected = objectMapper.writeValueAsString(Map.of("content", user, "links", wrapper.links()));
+
+        assertThat(objectMapper.readTree(json)).isEqualTo(objectMapper.readTree(expected));
+        assertThat(json).startsWith("{\"content\":{\"id\":7,")
+                .contains("{\"rel\":\"self\",\"href\":\"/api/users/7\"}")
+                .contains("{\"rel\":\"users\",\"href\":\"/api/users\"}")
+                .doesNotContain("version");
+    }
+
+    @Test
+    void serialize_WithoutLinksAttribute_WritesContentOnly() throws Exception {
+        String json = objectMapper.writer()
+                .withAttribute(UserResponseWrapperSerializer.WITHOUT_LINKS, Boolean.TRUE)
+                .writeValueAsString(List.of(UserResponseWrapper.wrap(user)));
+
+        assertThat(json).isEqualTo("[" + objectMapper.writeValueAsString(user) + "]");
+    }
+
+    @Test
+    void serialize_WithFieldSubset_WritesOnlyRequestedFieldsAndLinks() throws Exception {
+        String json = objectMapper.writeValueAsString(
+                UserResponseWrapper.wrap(user, UserField.parse("name,id")));
+
+        assertThat(json).startsWith("{\"content\":{\"id\":7,\"name\":\"Ibra\"},\"links\":[")
+                .contains("{\"rel\":\"self\",\"href\":\"/api/users/7\"}")
+                .doesNotContain("email")
+                .doesNotContain("createdAt");
+    }
+}
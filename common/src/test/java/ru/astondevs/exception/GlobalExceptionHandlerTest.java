@@ -1,6 +1,13 @@
 package ru.astondevs.exception;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -38,6 +45,13 @@ class GlobalExceptionHandlerTest {
         assertThat(response.httpStatus()).isEqualTo("bad request");
     }
 
+    @Test
+    void handleServiceUnavailable_ShouldReturnServiceUnavailableResponse() {
+        ErrorResponse response = exceptionHandler.handleServiceUnavailable(new TimeoutException());
+
+        assertThat(response.httpStatus()).isEqualTo("service unavailable");
+    }
+
     @Test
     void handleAllExceptions_ShouldReturnInternalServerErrorResponse() {
         Exception exception = new Exception("Unexpected error");
@@ -67,4 +81,46 @@ class GlobalExceptionHandlerTest {
         assertThat(response.message()).isEqualTo("Email error: Email service failed");
         assertThat(response.httpStatus()).isEqualTo("internal server error");
     }
-}
\ No newline at end of file
+
+    @Test
+    void handleDataIntegrityViolation_UniqueEmailIndex_ShouldReturnConflictResponse() {
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("ERROR: duplicate key value violates unique constraint \"ux_users_email\""));
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleDataIntegrityViolation(exception);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().message()).isEqualTo("Email уже существует");
+    }
+
+    @Test
+    void handleDataIntegrityViolation_OtherConstraint_ShouldReturnInternalServerErrorResponse() {
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("NULL not allowed for column \"NAME\""));
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleDataIntegrityViolation(exception);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getBody().message()).isEqualTo("Internal server error");
+    }
+
+    @Test
+    void handlePreconditionFailed_ShouldReturnPreconditionFailedResponse() {
+        PreconditionFailedException exception = new PreconditionFailedException("Версия пользователя не совпадает с If-Match");
+
+        ErrorResponse response = exceptionHandler.handlePreconditionFailed(exception);
+
+        assertThat(response.message()).isEqualTo("Версия пользователя не совпадает с If-Match");
+        assertThat(response.httpStatus()).isEqualTo("precondition failed");
+    }
+
+    @Test
+    void handleOptimisticLockingFailure_ShouldReturnConflictResponse() {
+        OptimisticLockingFailureException exception = new OptimisticLockingFailureException("Row was updated");
+
+        ErrorResponse response = exceptionHandler.handleOptimisticLockingFailure(exception);
+
+        assertThat(response.message()).isEqualTo("Данные были изменены другим запросом, повторите операцию");
+        assertThat(response.httpStatus()).isEqualTo("conflict");
+    }
+}
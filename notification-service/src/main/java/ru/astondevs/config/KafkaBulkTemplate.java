@@ -0,0 +1,38 @@
+package ru.astondevs.config;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+import ru.astondevs.dto.UserEventDto;
+
+/**
+ * KafkaTemplate пакетных отправок: копия фабрики продюсеров Spring Boot с теми же сериализаторами,
+ * но с набором spring.kafka.throughput.bulk-profile. Сам компонент не является KafkaTemplate,
+ * иначе Spring Boot не создал бы общий KafkaTemplate приложения.
+ */
+@Slf4j
+@Component
+public class KafkaBulkTemplate implements DisposableBean {
+    private final ProducerFactory<String, UserEventDto> producerFactory;
+    private final KafkaTemplate<String, UserEventDto> template;
+
+    public KafkaBulkTemplate(ProducerFactory<String, UserEventDto> producerFactory,
+                             KafkaThroughputConfig throughputConfig) {
+        Map<String, Object> configs = throughputConfig.bulkProducerConfigs();
+        log.info("Kafka bulk producer profile {}: {}", throughputConfig.getBulkProfile(), configs);
+        this.producerFactory = producerFactory.copyWithConfigurationOverride(configs);
+        this.template = new KafkaTemplate<>(this.producerFactory);
+    }
+
+    public KafkaTemplate<String, UserEventDto> template() {
+        return template;
+    }
+
+    @Override
+    public void destroy() {
+        producerFactory.reset();
+    }
+}
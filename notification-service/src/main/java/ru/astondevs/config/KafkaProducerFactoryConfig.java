@@ -0,0 +1,25 @@
+package ru.astondevs.config;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Применяет профиль пропускной способности к фабрике продюсеров Spring Boot,
+ * поэтому его получают все KafkaTemplate приложения, кроме {@link KafkaBulkTemplate}.
+ */
+@Slf4j
+@Configuration
+public class KafkaProducerFactoryConfig {
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer throughputProfileCustomizer(KafkaThroughputConfig throughputConfig) {
+        return producerFactory -> {
+            Map<String, Object> configs = throughputConfig.producerConfigs();
+            log.info("Kafka producer profile {}: {}", throughputConfig.getProfile(), configs);
+            producerFactory.updateConfigs(configs);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package ru.astondevs.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ограничение неподтверждённых отправок продюсера событий пользователей. При исчерпании предела
+ * отправка не ждёт, а сразу завершается с RejectedExecutionException.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "notification.producer")
+public class KafkaProducerProperties {
+    /**
+     * Сколько сообщений может ждать подтверждения брокера одновременно. Предел держит буфер
+     * продюсера (buffer.memory) незаполненным, поэтому send не блокируется на max.block.ms.
+     */
+    private int maxInFlight = 10_000;
+}
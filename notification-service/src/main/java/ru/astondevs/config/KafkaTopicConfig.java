@@ -0,0 +1,23 @@
+package ru.astondevs.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Топик событий пользователей. KafkaAdmin создаёт его при старте, а если топик уже существует
+ * с меньшим числом разделов — добавляет разделы. После этого сообщения с уже отправленными ключами
+ * могут попасть в другой раздел, поэтому число разделов лучше задавать с запасом заранее.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Bean
+    public NewTopic userEventsTopic(KafkaConfig kafkaConfig) {
+        return TopicBuilder.name(kafkaConfig.getUserEvents())
+                .partitions(kafkaConfig.getPartitions())
+                .replicas(kafkaConfig.getReplicationFactor())
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.astondevs.config;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTopicDeserializer;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import ru.astondevs.dto.UserEventDeserializer;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.UserEventSerializer;
+
+/**
+ * Подключает двоичный формат {@link UserEventDto} к общим фабрикам Spring Boot, не заводя второго
+ * продюсера: {@link UserEventDto} пишется {@link UserEventSerializer}, строки — как раньше StringSerializer.
+ * Топик userEvents читается {@link UserEventDeserializer}, остальные — StringDeserializer.
+ * Сообщение, которое не удалось разобрать, ErrorHandlingDeserializer передаёт обработчику ошибок
+ * контейнера: оно записывается в лог и пропускается, не останавливая чтение раздела.
+ */
+@Configuration
+public class UserEventSerializationConfig {
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer userEventSerializerCustomizer() {
+        return producerFactory -> setValueSerializer(producerFactory, new DelegatingByTypeSerializer(Map.of(
+                UserEventDto.class, new UserEventSerializer(),
+                String.class, new StringSerializer())));
+    }
+
+    @Bean
+    public DefaultKafkaConsumerFactoryCustomizer userEventDeserializerCustomizer(KafkaConfig kafkaConfig) {
+        Pattern userEventsTopic = Pattern.compile(Pattern.quote(kafkaConfig.getUserEvents()));
+        return consumerFactory -> setValueDeserializer(consumerFactory, new ErrorHandlingDeserializer<>(
+                new DelegatingByTopicDeserializer(Map.of(userEventsTopic, new UserEventDeserializer()),
+                        new StringDeserializer())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void setValueSerializer(DefaultKafkaProducerFactory<?, V> factory, Serializer<?> serializer) {
+        factory.setValueSerializer((Serializer<V>) serializer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> void setValueDeserializer(DefaultKafkaConsumerFactory<?, V> factory,
+                                                 Deserializer<?> deserializer) {
+        factory.setValueDeserializer((Deserializer<V>) deserializer);
+    }
+}
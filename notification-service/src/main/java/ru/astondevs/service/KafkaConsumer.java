@@ -1,5 +1,7 @@
 package ru.astondevs.service;
 
+import ru.astondevs.dto.UserEventDto;
+
 /**
  * Интерфейс для обработки сообщений из Kafka.
  * Определяет методы для обработки событий из различных топиков.
@@ -7,16 +9,9 @@ package ru.astondevs.service;
 public interface KafkaConsumer {
 
     /**
-     * Обрабатывает сообщения топика userAdd.
-     *
-     * @param message Сообщение топика.
-     */
-    void listenUserAddTopic(String message);
-
-    /**
-     * Обрабатывает сообщения топика userDelete.
+     * Обрабатывает сообщения топика userEvents: операция события определяет, какое письмо отправить.
      *
-     * @param message Сообщение топика.
+     * @param event Событие пользователя.
      */
-    void listenUserDeleteTopic(String message);
-}
\ No newline at end of file
+    void listenUserEventsTopic(UserEventDto event);
+}
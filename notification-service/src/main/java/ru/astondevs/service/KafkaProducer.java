@@ -1,24 +1,69 @@
 package ru.astondevs.service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import ru.astondevs.dto.UserEventDto;
 
 /**
  * Интерфейс для продюсера сообщений в Kafka.
- * Определяет методы для отправки событий в топики Kafka.
+ * Все методы отправляют события в один топик userEvents с ключом email, поэтому события одного
+ * пользователя читаются в порядке отправки; операцию потребитель берёт из {@link UserEventDto#operation()}.
+ * Методы не ждут брокера: результат отправки приходит в CompletableFuture, а ошибки записываются
+ * в лог и метрики, даже если результат не проверяется.
+ * Одиночные события уходят через общий продюсер, пачки — через продюсер пакетного профиля
+ * (spring.kafka.throughput.bulk-profile).
  */
 public interface KafkaProducer {
 
     /**
-     * Отправляет событие о добавлении пользователя в соответствующий топик.
+     * Отправляет событие о добавлении пользователя; операция события должна быть create.
      *
      * @param event DTO события пользователя.
+     * @return Завершается, когда брокер подтвердит запись; ожидать его не обязательно. Сразу завершается
+     * с RejectedExecutionException, если предел неподтверждённых сообщений исчерпан.
+     * @throws IllegalArgumentException Если топик не задан, событие не заполнено или его операция другая.
      */
-    void sendUserAddEvent(UserEventDto event);
+    CompletableFuture<Void> sendUserAddEvent(UserEventDto event);
 
     /**
-     * Отправляет событие об удалении пользователя в соответствующий топик.
+     * Отправляет пачку событий о добавлении пользователей, не дожидаясь подтверждений.
+     *
+     * @param events DTO событий пользователей.
+     * @return Завершается, когда завершатся все отправки, — с ошибкой,
+     * если хотя бы одна не удалась.
+     * @throws IllegalArgumentException Если топик не задан, событие не заполнено или его операция не create;
+     * тогда ничего не отправляется.
+     */
+    CompletableFuture<Void> sendUserAddEvents(List<UserEventDto> events);
+
+    /**
+     * Отправляет событие об удалении пользователя; операция события должна быть delete.
      *
      * @param event DTO события пользователя.
+     * @return Завершается, когда брокер подтвердит запись; ожидать его не обязательно. Сразу завершается
+     * с RejectedExecutionException, если предел неподтверждённых сообщений исчерпан.
+     * @throws IllegalArgumentException Если топик не задан, событие не заполнено или его операция другая.
+     */
+    CompletableFuture<Void> sendUserDeleteEvent(UserEventDto event);
+
+    /**
+     * Отправляет пачку событий об удалении пользователей, не дожидаясь подтверждений.
+     *
+     * @param events DTO событий пользователей.
+     * @return Завершается, когда завершатся все отправки, — с ошибкой,
+     * если хотя бы одна не удалась.
+     * @throws IllegalArgumentException Если топик не задан, событие не заполнено или его операция не delete;
+     * тогда ничего не отправляется.
+     */
+    CompletableFuture<Void> sendUserDeleteEvents(List<UserEventDto> events);
+
+    /**
+     * Отправляет события с любыми операциями в порядке списка. Если отправка не началась (например, исчерпан предел неподтверждённых сообщений),
+     * последующие события не отправляются и завершаются с той же ошибкой.
+     *
+     * @param events DTO событий пользователей.
+     * @return Результат каждой отправки в порядке событий.
+     * @throws IllegalArgumentException Если топик не задан или событие не заполнено; тогда ничего не отправляется.
      */
-    void sendUserDeleteEvent(UserEventDto event);
-}
\ No newline at end of file
+    List<CompletableFuture<Void>> sendUserEvents(List<UserEventDto> events);
+}
@@ -1,8 +1,5 @@
 package ru.astondevs.service.impl;
 
-import com.fasterxml.jackson.core.JsonParseException;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -11,46 +8,58 @@ import ru.astondevs.dto.UserEventDto;
 import ru.astondevs.service.EmailNotificationService;
 import ru.astondevs.service.KafkaConsumer;
 
+/**
+ * Топик userEvents читают spring.kafka.topics.concurrency потребителей, каждый со своими разделами;
+ * события одного пользователя, и создание, и удаление, приходят с одним ключом и поэтому обрабатываются
+ * по порядку одним потоком. Число потребителей берётся из {@link ru.astondevs.config.KafkaConfig},
+ * чтобы значение по умолчанию было одно.
+ * Сообщения разбирает UserEventDeserializer: и двоичные, и JSON, записанные до перехода на двоичный формат.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class KafkaConsumerImpl implements KafkaConsumer {
 
-    private final ObjectMapper objectMapper;
     private final EmailNotificationService emailNotificationService;
 
     @Override
-    @KafkaListener(topics = "${spring.kafka.topics.userAdd}", groupId = "${spring.kafka.consumer.group-id}")
-    public void listenUserAddTopic(String message) {
-        log.info("Received message from userAdd-topic: {}", message);
-        processEvent(message, "Account Created",
-                "Здравствуйте! Ваш аккаунт на сайте был успешно создан.");
+    @KafkaListener(topics = "${spring.kafka.topics.userEvents}", groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "#{@kafkaConfig.concurrency}")
+    public void listenUserEventsTopic(UserEventDto event) {
+        log.info("Received message from userEvents-topic: {}", event);
+        if ("create".equals(event.operation())) {
+            processEvent(event, "Account Created",
+                    "Здравствуйте! Ваш аккаунт на сайте был успешно создан.");
+        } else if ("delete".equals(event.operation())) {
+            processEvent(event, "Account Deleted",
+                    "Здравствуйте! Ваш аккаунт был удалён.");
+        } else {
+            log.warn("Unknown operation in event: {}", event);
+        }
     }
 
-    @Override
-    @KafkaListener(topics = "${spring.kafka.topics.userDelete}", groupId = "${spring.kafka.consumer.group-id}")
-    public void listenUserDeleteTopic(String message) {
-        log.info("Received message from userDelete-topic: {}", message);
-        processEvent(message, "Account Deleted",
-                "Здравствуйте! Ваш аккаунт был удалён.");
+    /**
+     * Временный слушатель прежних топиков создания и удаления: сообщения, отправленные до перехода
+     * на userEvents, обрабатываются так же, операция в них уже была. Группа та же, что и у прежних
+     * слушателей, поэтому уже прочитанные сообщения повторно не приходят. Уже удалённые топики
+     * слушатель заново не создаёт.
+     */
+    @KafkaListener(topics = "#{@kafkaConfig.legacyUserEvents}", groupId = "${spring.kafka.consumer.group-id}",
+            properties = "allow.auto.create.topics=false")
+    public void listenLegacyUserTopics(UserEventDto event) {
+        listenUserEventsTopic(event);
     }
 
-    private void processEvent(String message, String subject, String body) {
+    private void processEvent(UserEventDto event, String subject, String body) {
         try {
-            log.debug("Processing message: {}", message);
-            UserEventDto event = objectMapper.readValue(message, UserEventDto.class);
-            log.info("Deserialized event: email={}", event.email());
-
             if (isValidEmail(event.email())) {
                 emailNotificationService.sendEmail(event.email(), subject, body);
                 log.info("Email sent to user: {}", event.email());
             } else {
                 log.warn("Invalid or missing email in event: {}", event);
             }
-        } catch (JsonParseException | JsonMappingException e) {
-            log.error("Invalid JSON format: {}", message, e);
         } catch (Exception e) {
-            log.error("Error processing message: {}", message, e);
+            log.error("Error processing message: {}", event, e);
         }
     }
 
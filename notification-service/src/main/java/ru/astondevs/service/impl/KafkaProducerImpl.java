@@ -1,54 +1,226 @@
 package ru.astondevs.service.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import ru.astondevs.config.KafkaBulkTemplate;
 import ru.astondevs.config.KafkaConfig;
+import ru.astondevs.config.KafkaProducerProperties;
 import ru.astondevs.dto.UserEventDto;
 import ru.astondevs.service.KafkaProducer;
 
+/**
+ * Отправки не ждут подтверждений: результат каждой приходит в CompletableFuture, а колбэк
+ * освобождает место в пределе неподтверждённых сообщений и записывает метрики по топику.
+ * Значение пишет UserEventSerializer, подключённый в UserEventSerializationConfig.
+ * Все события идут в топик userEvents с ключом email: события одного пользователя, и создание,
+ * и удаление, попадают в один раздел и читаются в порядке отправки, а события разных пользователей
+ * обрабатываются параллельно. Операцию потребитель берёт из самого события.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class KafkaProducerImpl implements KafkaProducer {
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    /**
+     * Таймер отправок с тегами topic и outcome (success, error): от вызова send до ответа брокера.
+     */
+    public static final String SEND_TIMER = "kafka.producer.send";
+    /**
+     * Счётчик неудачных отправок с тегами topic и exception.
+     */
+    public static final String ERROR_COUNTER = "kafka.producer.errors";
+    /**
+     * Число сообщений, ожидающих подтверждения брокера.
+     */
+    public static final String IN_FLIGHT_GAUGE = "kafka.producer.in.flight";
+
+    private static final String CREATE = "create";
+    private static final String DELETE = "delete";
+
+    private final KafkaTemplate<String, UserEventDto> kafkaTemplate;
+    private final KafkaTemplate<String, UserEventDto> bulkKafkaTemplate;
     private final KafkaConfig kafkaConfig;
+    private final KafkaProducerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlight;
+
+    public KafkaProducerImpl(KafkaTemplate<String, UserEventDto> kafkaTemplate, KafkaBulkTemplate bulkTemplate,
+                             KafkaConfig kafkaConfig, KafkaProducerProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.bulkKafkaTemplate = bulkTemplate.template();
+        this.kafkaConfig = kafkaConfig;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        int maxInFlight = properties.getMaxInFlight();
+        this.inFlight = new Semaphore(maxInFlight);
+        Gauge.builder(IN_FLIGHT_GAUGE, inFlight, permits -> maxInFlight - permits.availablePermits())
+                .description("Сообщения Kafka, ожидающие подтверждения брокера")
+                .register(meterRegistry);
+    }
 
     @Override
-    public void sendUserAddEvent(UserEventDto event) {
-        if (event == null || event.operation() == null || event.email() == null) {
-            throw new IllegalArgumentException("Поля UserEventDto не должны быть пустыми");
-        }
+    public CompletableFuture<Void> sendUserAddEvent(UserEventDto event) {
+        return send(event, CREATE);
+    }
 
-        String topic = kafkaConfig.getUserAdd();
-        if (topic == null) {
-            throw new IllegalArgumentException("Название топика Kafka не может быть пустым");
+    @Override
+    public CompletableFuture<Void> sendUserAddEvents(List<UserEventDto> events) {
+        return sendAll(events, CREATE);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendUserDeleteEvent(UserEventDto event) {
+        return send(event, DELETE);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendUserDeleteEvents(List<UserEventDto> events) {
+        return sendAll(events, DELETE);
+    }
+
+    @Override
+    public List<CompletableFuture<Void>> sendUserEvents(List<UserEventDto> events) {
+        String topic = requireTopic(kafkaConfig.getUserEvents());
+        events.forEach(event -> validate(event, null));
+        return publishAll(topic, events);
+    }
+
+    private CompletableFuture<Void> send(UserEventDto event, String operation) {
+        String topic = requireTopic(kafkaConfig.getUserEvents());
+        return publish(kafkaTemplate, topic, validate(event, operation));
+    }
+
+    /**
+     * Проверяет всю пачку до первой отправки, чтобы ошибка в одном событии не оставляла пачку
+     * отправленной наполовину. Сообщения уходят общими пачками продюсера без ожидания друг друга.
+     */
+    private CompletableFuture<Void> sendAll(List<UserEventDto> events, String operation) {
+        String topic = requireTopic(kafkaConfig.getUserEvents());
+        events.forEach(event -> validate(event, operation));
+        return CompletableFuture.allOf(publishAll(topic, events).toArray(CompletableFuture[]::new))
+                .whenComplete((result, error) -> {
+                    if (error == null) {
+                        log.info("Sent {} messages to topic {}", events.size(), topic);
+                    }
+                });
+    }
+
+    /**
+     * Отправляет события через продюсер пакетного профиля. Если предел неподтверждённых сообщений
+     * исчерпан, остальные события не отправляются и завершаются с той же ошибкой.
+     */
+    private List<CompletableFuture<Void>> publishAll(String topic, List<UserEventDto> events) {
+        List<CompletableFuture<Void>> sent = new ArrayList<>(events.size());
+        Throwable rejected = null;
+        for (UserEventDto event : events) {
+            if (rejected == null) {
+                rejected = acquire();
+                if (rejected != null) {
+                    sent.add(failed(topic, System.nanoTime(), rejected));
+                    continue;
+                }
+                sent.add(sendAcquired(bulkKafkaTemplate, topic, event));
+            } else {
+                record(topic, System.nanoTime(), rejected);
+                sent.add(CompletableFuture.failedFuture(rejected));
+            }
         }
+        return sent;
+    }
 
+    private CompletableFuture<Void> publish(KafkaTemplate<String, UserEventDto> template, String topic,
+                                            UserEventDto event) {
+        Throwable rejected = acquire();
+        return rejected == null ? sendAcquired(template, topic, event) : failed(topic, System.nanoTime(), rejected);
+    }
+
+    /**
+     * Занимает место в пределе неподтверждённых сообщений без ожидания: вызывающий поток, в том числе
+     * поток запроса, не блокируется, а перегрузка сразу становится ответом 503.
+     *
+     * @return Ошибка, если предел исчерпан; иначе null.
+     */
+    private Throwable acquire() {
+        return inFlight.tryAcquire() ? null : new RejectedExecutionException(
+                "Превышено число неподтверждённых сообщений Kafka: " + properties.getMaxInFlight());
+    }
+
+    private CompletableFuture<Void> sendAcquired(KafkaTemplate<String, UserEventDto> template, String topic,
+                                                 UserEventDto event) {
+        long started = System.nanoTime();
         try {
-            String message = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(topic, message);
-        } catch (Exception e) {
-            throw new RuntimeException("Не удалось сериализовать событие", e);
+            return template.send(topic, event.email(), event)
+                    .handle((result, error) -> {
+                        inFlight.release();
+                        record(topic, started, error);
+                        if (error != null) {
+                            log.error("Failed to send message to topic {}: {}", topic, error.getMessage());
+                            throw error instanceof CompletionException completion ? completion
+                                    : new CompletionException(error);
+                        }
+                        log.debug("Message sent to topic {}: {}", topic, event);
+                        return null;
+                    });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            return failed(topic, started, e);
         }
     }
 
-    @Override
-    public void sendUserDeleteEvent(UserEventDto event) {
-        sendEvent(kafkaConfig.getUserDelete(), event);
+    private CompletableFuture<Void> failed(String topic, long started, Throwable error) {
+        record(topic, started, error);
+        log.error("Failed to send message to topic {}: {}", topic, error.getMessage());
+        return CompletableFuture.failedFuture(error);
     }
 
-    private void sendEvent(String topic, UserEventDto event) {
-        try {
-            String message = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send(topic, message);
-            log.info("Message sent to topic {}: {}", topic, message);
-        } catch (Exception e) {
-            log.error("Failed to send message to topic {}: {}", topic, e.getMessage());
-            throw new RuntimeException("Не удалось отправить сообщение в Kafka", e);
+    private void record(String topic, long started, Throwable error) {
+        Timer.builder(SEND_TIMER)
+                .description("Время от отправки сообщения в Kafka до ответа брокера")
+                .tag("topic", topic)
+                .tag("outcome", error == null ? "success" : "error")
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            Counter.builder(ERROR_COUNTER)
+                    .description("Неудачные отправки сообщений в Kafka")
+                    .tag("topic", topic)
+                    .tag("exception", cause.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private static String requireTopic(String topic) {
+        if (topic == null) {
+            throw new IllegalArgumentException("Название топика Kafka не может быть пустым");
+        }
+        return topic;
+    }
+
+    /**
+     * @param operation Операция, которую ожидает метод отправки, или null, если подходит любая.
+     */
+    private static UserEventDto validate(UserEventDto event, String operation) {
+        if (event == null || event.operation() == null || event.email() == null) {
+            throw new IllegalArgumentException("Поля UserEventDto не должны быть пустыми");
+        }
+        if (operation != null && !operation.equals(event.operation())) {
+            throw new IllegalArgumentException(
+                    "Операция события " + event.operation() + " не соответствует методу отправки: " + operation);
         }
+        return event;
     }
-}
\ No newline at end of file
+}
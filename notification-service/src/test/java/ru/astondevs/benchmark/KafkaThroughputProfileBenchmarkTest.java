@@ -0,0 +1,120 @@
+package ru.astondevs.benchmark;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import ru.astondevs.config.KafkaThroughputProfile;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.UserEventSerializer;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение наборов {@link KafkaThroughputProfile} на встроенном брокере: события в секунду
+ * от первой отправки до последнего подтверждения и байты, отправленные продюсером в сеть
+ * (outgoing-byte-total, вместе с заголовками запросов). Сообщения — {@link UserEventDto} в формате
+ * {@link UserEventSerializer}, как их отправляет KafkaProducerImpl, со случайными, но воспроизводимыми email.
+ * Брокер и продюсер делят одну машину, поэтому абсолютные цифры ниже, чем на отдельном кластере,
+ * а выигрыш от linger и сжатия — меньше, чем при настоящей сетевой задержке.
+ * Запуск: mvn test -Pbenchmark -pl notification-service -am
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 3, topics = KafkaThroughputProfileBenchmarkTest.TOPIC)
+class KafkaThroughputProfileBenchmarkTest {
+    static final String TOPIC = "throughput-benchmark";
+    private static final int WARMUP_EVENTS = 20_000;
+    private static final int EVENTS = 200_000;
+
+    private final UserEventSerializer serializer = new UserEventSerializer();
+
+    @Test
+    void compareProfiles(EmbeddedKafkaBroker broker) throws Exception {
+        List<byte[]> messages = messages();
+        Map<KafkaThroughputProfile, Result> results = new EnumMap<>(KafkaThroughputProfile.class);
+        for (KafkaThroughputProfile profile : KafkaThroughputProfile.values()) {
+            run(broker, profile, messages.subList(0, WARMUP_EVENTS));
+        }
+        for (KafkaThroughputProfile profile : KafkaThroughputProfile.values()) {
+            Result result = run(broker, profile, messages);
+            results.put(profile, result);
+            System.out.printf(Locale.ROOT,
+                    "[benchmark] %-11s %,9.0f events/s, %,7.2f MB on the wire, %5.1f bytes/event%n",
+                    profile, result.eventsPerSecond(), result.bytes() / 1_048_576.0,
+                    (double) result.bytes() / EVENTS);
+        }
+
+        long uncompressed = results.get(KafkaThroughputProfile.DEFAULT).bytes();
+        assertThat(results.get(KafkaThroughputProfile.THROUGHPUT).bytes()).isLessThan(uncompressed);
+        assertThat(results.get(KafkaThroughputProfile.COMPRESSED).bytes()).isLessThan(uncompressed);
+    }
+
+    private Result run(EmbeddedKafkaBroker broker, KafkaThroughputProfile profile, List<byte[]> messages)
+            throws Exception {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(configs);
+        factory.updateConfigs(profile.producerConfigs());
+        try {
+            KafkaTemplate<String, byte[]> template = new KafkaTemplate<>(factory);
+            template.send(TOPIC, messages.get(0)).get(30, TimeUnit.SECONDS);
+            double bytesBefore = outgoingBytes(template);
+
+            long started = System.nanoTime();
+            CompletableFuture<?>[] acks = new CompletableFuture<?>[messages.size()];
+            for (int i = 0; i < messages.size(); i++) {
+                acks[i] = template.send(TOPIC, messages.get(i));
+            }
+            CompletableFuture.allOf(acks).get(2, TimeUnit.MINUTES);
+            long elapsed = System.nanoTime() - started;
+
+            return new Result(messages.size() * 1e9 / elapsed, (long) (outgoingBytes(template) - bytesBefore));
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static double outgoingBytes(KafkaTemplate<String, byte[]> template) {
+        for (Map.Entry<MetricName, ? extends Metric> metric : template.metrics().entrySet()) {
+            MetricName name = metric.getKey();
+            if (name.name().equals("outgoing-byte-total") && name.group().equals("producer-metrics")) {
+                return ((Number) metric.getValue().metricValue()).doubleValue();
+            }
+        }
+        throw new IllegalStateException("Метрика outgoing-byte-total не найдена");
+    }
+
+    private List<byte[]> messages() {
+        Random random = new Random(42);
+        String[] domains = {"gmail.com", "yandex.ru", "mail.ru", "outlook.com"};
+        List<byte[]> messages = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            String operation = random.nextInt(5) == 0 ? "delete" : "create";
+            String email = "user" + random.nextInt(1_000_000) + "@" + domains[random.nextInt(domains.length)];
+            messages.add(serializer.serialize(TOPIC, new UserEventDto(operation, email)));
+        }
+        return messages;
+    }
+
+    private record Result(double eventsPerSecond, long bytes) {
+    }
+}
@@ -1,6 +1,7 @@
 package ru.astondevs.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,20 +9,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.astondevs.config.KafkaConfig;
 import ru.astondevs.config.TestConfig;
 import ru.astondevs.dto.UserEventDto;
 import ru.astondevs.service.KafkaProducer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(classes = TestConfig.class)
-@EmbeddedKafka(partitions = 1, topics = {"userAdd-topic", "userDelete-topic"})
+@EmbeddedKafka(partitions = 3, topics = "userEvents-topic")
 @DirtiesContext
 class KafkaProducerIntegrationTest {
 
@@ -31,11 +38,16 @@ class KafkaProducerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
     @Autowired
     private KafkaListenerEndpointRegistry registry;
 
-    private final BlockingQueue<String> userAddQueue = new LinkedBlockingQueue<>();
-    private final BlockingQueue<String> userDeleteQueue = new LinkedBlockingQueue<>();
+    @Autowired
+    private KafkaConfig kafkaConfig;
+
+    private final BlockingQueue<ConsumerRecord<String, UserEventDto>> userEventsQueue = new LinkedBlockingQueue<>();
 
     @BeforeEach
     void setUp() throws Exception {
@@ -47,16 +59,10 @@ class KafkaProducerIntegrationTest {
         Thread.sleep(2000);
     }
 
-    @KafkaListener(topics = "userAdd-topic", groupId = "testGroupAdd")
-    public void listenUserAdd(String message) {
-        userAddQueue.add(message);
-        System.out.println("Received message in userAdd-topic: " + message);
-    }
-
-    @KafkaListener(topics = "userDelete-topic", groupId = "testGroupDelete")
-    public void listenUserDelete(String message) {
-        userDeleteQueue.add(message);
-        System.out.println("Received message in userDelete-topic: " + message);
+    @KafkaListener(topics = "userEvents-topic", groupId = "testGroupEvents")
+    public void listenUserEvents(ConsumerRecord<String, UserEventDto> record) {
+        userEventsQueue.add(record);
+        System.out.println("Received message in userEvents-topic: " + record.value());
     }
 
     @AfterEach
@@ -68,14 +74,15 @@ class KafkaProducerIntegrationTest {
     void shouldSendUserAddEventToKafka() throws Exception {
         UserEventDto event = new UserEventDto("create", "unknown.nvme@gmail.com");
 
-        kafkaProducer.sendUserAddEvent(event);
+        kafkaProducer.sendUserAddEvent(event).get(15, TimeUnit.SECONDS);
 
-        String receivedMessage = userAddQueue.poll(15, TimeUnit.SECONDS);
+        ConsumerRecord<String, UserEventDto> receivedMessage = userEventsQueue.poll(15, TimeUnit.SECONDS);
         assertThat(receivedMessage)
-                .as("Сообщение не было получено из топика userAdd-topic")
+                .as("Сообщение не было получено из топика userEvents-topic")
                 .isNotNull();
+        assertThat(receivedMessage.key()).isEqualTo("unknown.nvme@gmail.com");
 
-        UserEventDto receivedEvent = objectMapper.readValue(receivedMessage, UserEventDto.class);
+        UserEventDto receivedEvent = receivedMessage.value();
         assertThat(receivedEvent.operation()).isEqualTo("create");
         assertThat(receivedEvent.email()).isEqualTo("unknown.nvme@gmail.com");
     }
@@ -86,13 +93,85 @@ class KafkaProducerIntegrationTest {
 
         kafkaProducer.sendUserDeleteEvent(event);
 
-        String receivedMessage = userDeleteQueue.poll(15, TimeUnit.SECONDS);
+        ConsumerRecord<String, UserEventDto> receivedMessage = userEventsQueue.poll(15, TimeUnit.SECONDS);
         assertThat(receivedMessage)
-                .as("Сообщение не было получено из топика userDelete-topic")
+                .as("Сообщение не было получено из топика userEvents-topic")
                 .isNotNull();
 
-        UserEventDto receivedEvent = objectMapper.readValue(receivedMessage, UserEventDto.class);
+        UserEventDto receivedEvent = receivedMessage.value();
         assertThat(receivedEvent.operation()).isEqualTo("delete");
         assertThat(receivedEvent.email()).isEqualTo("unknown.nvme@gmail.com");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldKeepEventsOfOneUserInOnePartitionInOrder() throws Exception {
+        List<UserEventDto> events = List.of(
+                new UserEventDto("create", "first@gmail.com"),
+                new UserEventDto("create", "second@gmail.com"),
+                new UserEventDto("create", "first@gmail.com"),
+                new UserEventDto("create", "third@gmail.com"),
+                new UserEventDto("create", "first@gmail.com"));
+
+        kafkaProducer.sendUserAddEvents(events).get(15, TimeUnit.SECONDS);
+
+        List<ConsumerRecord<String, UserEventDto>> firstUserRecords = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            ConsumerRecord<String, UserEventDto> received = userEventsQueue.poll(15, TimeUnit.SECONDS);
+            assertThat(received).isNotNull();
+            if ("first@gmail.com".equals(received.key())) {
+                firstUserRecords.add(received);
+            }
+        }
+        assertThat(firstUserRecords).hasSize(3);
+        assertThat(firstUserRecords).extracting(ConsumerRecord::partition)
+                .containsOnly(firstUserRecords.get(0).partition());
+        assertThat(firstUserRecords).extracting(ConsumerRecord::offset).isSorted();
+    }
+
+    @Test
+    void shouldDeliverCreateAndDeleteOfOneUserInSendOrder() throws Exception {
+        List<UserEventDto> events = List.of(
+                new UserEventDto("create", "first@gmail.com"),
+                new UserEventDto("create", "second@gmail.com"),
+                new UserEventDto("delete", "first@gmail.com"),
+                new UserEventDto("create", "first@gmail.com"),
+                new UserEventDto("delete", "second@gmail.com"));
+
+        kafkaProducer.sendUserEvents(events).forEach(CompletableFuture::join);
+
+        List<ConsumerRecord<String, UserEventDto>> firstUserRecords = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            ConsumerRecord<String, UserEventDto> received = userEventsQueue.poll(15, TimeUnit.SECONDS);
+            assertThat(received).isNotNull();
+            if ("first@gmail.com".equals(received.key())) {
+                firstUserRecords.add(received);
+            }
+        }
+        assertThat(firstUserRecords).extracting(ConsumerRecord::partition)
+                .containsOnly(firstUserRecords.get(0).partition());
+        assertThat(firstUserRecords).extracting(record -> record.value().operation())
+                .containsExactly("create", "delete", "create");
+    }
+
+    @Test
+    void shouldConsumeUserEventsWithConfiguredConcurrency() {
+        assertThat(registry.getListenerContainers())
+                .filteredOn(container -> "my-group".equals(container.getGroupId())
+                        && kafkaConfig.getUserEvents().equals(container.getContainerProperties().getTopics()[0]))
+                .singleElement()
+                .isInstanceOfSatisfying(ConcurrentMessageListenerContainer.class, container ->
+                        assertThat(container.getConcurrency()).isEqualTo(kafkaConfig.getConcurrency()));
+    }
+
+    @Test
+    void shouldReadEventsWrittenAsJsonBeforeBinaryFormat() throws Exception {
+        UserEventDto event = new UserEventDto("create", "legacy@gmail.com");
+
+        kafkaTemplate.send("userEvents-topic", event.email(), objectMapper.writeValueAsString(event))
+                .get(15, TimeUnit.SECONDS);
+
+        ConsumerRecord<String, UserEventDto> receivedMessage = userEventsQueue.poll(15, TimeUnit.SECONDS);
+        assertThat(receivedMessage).isNotNull();
+        assertThat(receivedMessage.value()).isEqualTo(event);
+    }
+}
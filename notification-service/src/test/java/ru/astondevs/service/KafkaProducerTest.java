@@ -1,81 +1,113 @@
 package ru.astondevs.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import ru.astondevs.config.KafkaBulkTemplate;
 import ru.astondevs.config.KafkaConfig;
+import ru.astondevs.config.KafkaProducerProperties;
 import ru.astondevs.dto.UserEventDto;
 import ru.astondevs.service.impl.KafkaProducerImpl;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 class KafkaProducerTest {
 
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, UserEventDto> kafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, UserEventDto> bulkKafkaTemplate;
+
+    @Mock
+    private KafkaBulkTemplate kafkaBulkTemplate;
 
     @Mock
     private KafkaConfig kafkaConfig;
 
+    private final KafkaProducerProperties properties = new KafkaProducerProperties();
+
+    private SimpleMeterRegistry meterRegistry;
+
     private KafkaProducer kafkaProducer;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        ObjectMapper objectMapper = new ObjectMapper();
-        kafkaProducer = new KafkaProducerImpl(kafkaTemplate, objectMapper, kafkaConfig);
+        Mockito.when(kafkaTemplate.send(Mockito.anyString(), Mockito.anyString(), Mockito.any(UserEventDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(bulkKafkaTemplate.send(Mockito.anyString(), Mockito.anyString(), Mockito.any(UserEventDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(kafkaBulkTemplate.template()).thenReturn(bulkKafkaTemplate);
+        createProducer();
+    }
+
+    private void createProducer() {
+        meterRegistry = new SimpleMeterRegistry();
+        kafkaProducer = new KafkaProducerImpl(kafkaTemplate, kafkaBulkTemplate, kafkaConfig, properties, meterRegistry);
     }
 
     @Test
     void shouldSendUserAddEventToKafka() throws Exception {
-        String topic = "userAdd-topic";
+        String topic = "userEvents-topic";
         UserEventDto event = new UserEventDto("create", "unknown.nvme@gmail.com");
 
-        Mockito.when(kafkaConfig.getUserAdd()).thenReturn(topic);
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn(topic);
 
         kafkaProducer.sendUserAddEvent(event);
 
         ArgumentCaptor<String> topicCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<UserEventDto> messageCaptor = ArgumentCaptor.forClass(UserEventDto.class);
 
-        verify(kafkaTemplate).send(topicCaptor.capture(), messageCaptor.capture());
+        verify(kafkaTemplate).send(topicCaptor.capture(), keyCaptor.capture(), messageCaptor.capture());
 
         assertThat(topicCaptor.getValue()).isEqualTo(topic);
-        assertThat(messageCaptor.getValue()).contains("create");
-        assertThat(messageCaptor.getValue()).contains("unknown.nvme@gmail.com");
+        assertThat(keyCaptor.getValue()).isEqualTo(event.email());
+        assertThat(messageCaptor.getValue()).isEqualTo(event);
     }
 
     @Test
     void shouldSendUserDeleteEventToKafka() throws Exception {
-        String topic = "userDelete-topic";
+        String topic = "userEvents-topic";
         UserEventDto event = new UserEventDto("delete", "example@gmail.com");
 
-        Mockito.when(kafkaConfig.getUserDelete()).thenReturn(topic);
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn(topic);
 
         kafkaProducer.sendUserDeleteEvent(event);
 
         ArgumentCaptor<String> topicCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<UserEventDto> messageCaptor = ArgumentCaptor.forClass(UserEventDto.class);
 
-        verify(kafkaTemplate).send(topicCaptor.capture(), messageCaptor.capture());
+        verify(kafkaTemplate).send(topicCaptor.capture(), keyCaptor.capture(), messageCaptor.capture());
 
         assertThat(topicCaptor.getValue()).isEqualTo(topic);
-        assertThat(messageCaptor.getValue()).contains("delete");
-        assertThat(messageCaptor.getValue()).contains("example@gmail.com");
+        assertThat(keyCaptor.getValue()).isEqualTo(event.email());
+        assertThat(messageCaptor.getValue()).isEqualTo(event);
     }
 
     @Test
     void shouldThrowExceptionWhenTopicIsNull() {
         UserEventDto event = new UserEventDto("create", "unknown.nvme@gmail.com");
 
-        Mockito.when(kafkaConfig.getUserAdd()).thenReturn(null);
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn(null);
 
         assertThatThrownBy(() -> kafkaProducer.sendUserAddEvent(event))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -86,11 +118,151 @@ class KafkaProducerTest {
     void shouldThrowExceptionWhenDtoFieldsAreNull() {
         UserEventDto event = new UserEventDto(null, null);
 
-        String topic = "userAdd-topic";
-        Mockito.when(kafkaConfig.getUserAdd()).thenReturn(topic);
+        String topic = "userEvents-topic";
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn(topic);
 
         assertThatThrownBy(() -> kafkaProducer.sendUserAddEvent(event))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Поля UserEventDto не должны быть пустыми");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSendUserAddEventsWithoutFlushing() {
+        String topic = "userEvents-topic";
+        List<UserEventDto> events = List.of(
+                new UserEventDto("create", "first@gmail.com"),
+                new UserEventDto("create", "second@gmail.com"));
+
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn(topic);
+
+        CompletableFuture<Void> sent = kafkaProducer.sendUserAddEvents(events);
+
+        ArgumentCaptor<UserEventDto> messageCaptor = ArgumentCaptor.forClass(UserEventDto.class);
+        verify(bulkKafkaTemplate, times(2)).send(Mockito.eq(topic), Mockito.anyString(), messageCaptor.capture());
+        verify(bulkKafkaTemplate, never()).flush();
+        verify(kafkaTemplate, never()).send(Mockito.anyString(), Mockito.anyString(), Mockito.any(UserEventDto.class));
+        assertThat(sent).isCompleted();
+        assertThat(messageCaptor.getAllValues()).containsExactlyElementsOf(events);
+    }
+
+    @Test
+    void shouldCompleteDeleteBatchOnlyAfterAllAcks() {
+        String topic = "userEvents-topic";
+        List<UserEventDto> events = List.of(
+                new UserEventDto("delete", "first@gmail.com"),
+                new UserEventDto("delete", "second@gmail.com"));
+
+        CompletableFuture<SendResult<String, UserEventDto>> firstAck = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, UserEventDto>> secondAck = new CompletableFuture<>();
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn(topic);
+        Mockito.when(bulkKafkaTemplate.send(Mockito.eq(topic), Mockito.anyString(), Mockito.any(UserEventDto.class))).thenReturn(firstAck, secondAck);
+
+        CompletableFuture<Void> sent = kafkaProducer.sendUserDeleteEvents(events);
+
+        verify(bulkKafkaTemplate, times(2)).send(Mockito.eq(topic), Mockito.anyString(), Mockito.any(UserEventDto.class));
+        firstAck.complete(null);
+        assertThat(sent).isNotDone();
+        secondAck.complete(null);
+        assertThat(sent).isCompleted();
+    }
+
+    @Test
+    void shouldNotSendBatchWhenAnyEventIsInvalid() {
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn("userEvents-topic");
+        List<UserEventDto> events = List.of(
+                new UserEventDto("create", "first@gmail.com"),
+                new UserEventDto("create", null));
+
+        assertThatThrownBy(() -> kafkaProducer.sendUserAddEvents(events))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(bulkKafkaTemplate, never()).send(Mockito.anyString(), Mockito.anyString(), Mockito.any(UserEventDto.class));
+    }
+
+    @Test
+    void shouldRejectEventWhoseOperationDoesNotMatchMethod() {
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn("userEvents-topic");
+
+        assertThatThrownBy(() -> kafkaProducer.sendUserAddEvent(new UserEventDto("delete", "first@gmail.com")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> kafkaProducer.sendUserDeleteEvents(List.of(
+                new UserEventDto("delete", "first@gmail.com"),
+                new UserEventDto("create", "second@gmail.com"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(kafkaTemplate, never()).send(Mockito.anyString(), Mockito.anyString(), Mockito.any(UserEventDto.class));
+        verify(bulkKafkaTemplate, never()).send(Mockito.anyString(), Mockito.anyString(), Mockito.any(UserEventDto.class));
+    }
+
+    @Test
+    void shouldRecordLatencyAndErrorsPerTopic() {
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn("userEvents-topic");
+        Mockito.when(kafkaTemplate.send(Mockito.eq("userEvents-topic"), Mockito.eq("second@gmail.com"), Mockito.any(UserEventDto.class)))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("no ack")));
+
+        kafkaProducer.sendUserAddEvent(new UserEventDto("create", "first@gmail.com"));
+        CompletableFuture<Void> failed = kafkaProducer.sendUserDeleteEvent(
+                new UserEventDto("delete", "second@gmail.com"));
+
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(meterRegistry.get(KafkaProducerImpl.SEND_TIMER)
+                .tags("topic", "userEvents-topic", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(KafkaProducerImpl.SEND_TIMER)
+                .tags("topic", "userEvents-topic", "outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(KafkaProducerImpl.ERROR_COUNTER)
+                .tags("topic", "userEvents-topic", "exception", "TimeoutException").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectSendWhenInFlightLimitIsReached() {
+        properties.setMaxInFlight(1);
+        createProducer();
+        CompletableFuture<SendResult<String, UserEventDto>> ack = new CompletableFuture<>();
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn("userEvents-topic");
+        Mockito.when(kafkaTemplate.send(Mockito.anyString(), Mockito.anyString(), Mockito.any(UserEventDto.class))).thenReturn(ack);
+        UserEventDto event = new UserEventDto("create", "first@gmail.com");
+
+        CompletableFuture<Void> pending = kafkaProducer.sendUserAddEvent(event);
+        CompletableFuture<Void> rejected = kafkaProducer.sendUserAddEvent(event);
+
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get(KafkaProducerImpl.IN_FLIGHT_GAUGE).gauge().value()).isEqualTo(1);
+        ack.complete(null);
+        assertThat(pending).isCompleted();
+        assertThat(kafkaProducer.sendUserAddEvent(event)).isNotNull();
+        verify(kafkaTemplate, times(2)).send(Mockito.anyString(), Mockito.anyString(), Mockito.any(UserEventDto.class));
+    }
+
+    @Test
+    void shouldSendMixedEventsToOneTopicInOrderThroughBulkTemplate() {
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn("userEvents-topic");
+        UserEventDto created = new UserEventDto("create", "first@gmail.com");
+        UserEventDto deleted = new UserEventDto("delete", "first@gmail.com");
+
+        List<CompletableFuture<Void>> sent = kafkaProducer.sendUserEvents(List.of(created, deleted));
+
+        assertThat(sent).hasSize(2).allSatisfy(future -> assertThat(future).isCompleted());
+        InOrder inOrder = Mockito.inOrder(bulkKafkaTemplate);
+        inOrder.verify(bulkKafkaTemplate).send("userEvents-topic", "first@gmail.com", created);
+        inOrder.verify(bulkKafkaTemplate).send("userEvents-topic", "first@gmail.com", deleted);
+        verify(kafkaTemplate, never()).send(Mockito.anyString(), Mockito.anyString(), Mockito.any(UserEventDto.class));
+    }
+
+    @Test
+    void shouldFailRestOfBatchWithoutWaitingWhenInFlightLimitIsReached() {
+        properties.setMaxInFlight(1);
+        createProducer();
+        Mockito.when(kafkaConfig.getUserEvents()).thenReturn("userEvents-topic");
+        Mockito.when(bulkKafkaTemplate.send(Mockito.anyString(), Mockito.anyString(), Mockito.any(UserEventDto.class)))
+                .thenReturn(new CompletableFuture<>());
+        List<UserEventDto> events = List.of(
+                new UserEventDto("create", "first@gmail.com"),
+                new UserEventDto("create", "second@gmail.com"),
+                new UserEventDto("create", "third@gmail.com"));
+
+        List<CompletableFuture<Void>> sent = kafkaProducer.sendUserEvents(events);
+
+        assertThat(sent.get(0)).isNotDone();
+        assertThatThrownBy(sent.get(1)::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(sent.get(2)::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        verify(bulkKafkaTemplate, times(1)).send(Mockito.anyString(), Mockito.anyString(), Mockito.any(UserEventDto.class));
+    }
+}
@@ -0,0 +1,31 @@
+package ru.astondevs.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки фильтра Блума по занятым email.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "users.email-filter")
+public class EmailFilterProperties {
+    /**
+     * Ожидаемое количество email в первом слое; при переполнении фильтр добавляет слой вдвое больше.
+     */
+    private long expectedInsertions = 1_000_000;
+
+    /**
+     * Целевая вероятность того, что новый email будет ошибочно признан возможно занятым.
+     */
+    private double falsePositiveProbability = 0.01;
+
+    /**
+     * Доля удалённых с момента построения email, после которой фильтр перестраивается из базы,
+     * чтобы удалённые адреса перестали давать ложные срабатывания.
+     */
+    private double rebuildDeletedRatio = 0.1;
+}
@@ -0,0 +1,26 @@
+package ru.astondevs.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Реактивный веб-слой: WebFlux на Netty и R2DBC вместо UserController и JPA на пути запроса.
+ * Включается профилем reactive. Горстка потоков event loop обслуживает все соединения,
+ * поэтому медленные клиенты держат только сокет и буферы, а не поток.
+ * JPA остаётся в контексте для прогрева индексов в памяти при старте.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig {
+
+    /**
+     * Tomcat тоже есть в classpath, а при выборе реактивного сервера Spring Boot предпочитает его,
+     * поэтому фабрика Netty объявляется явно.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.astondevs.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Пул потоков асинхронных операций с пользователями: на нём выполняются транзакции,
+ * пока поток Tomcat свободен. Метрики пула публикуются с именем {@value #NAME}
+ * (executor.active, executor.queued, executor.pool.size, executor.execution и др.).
+ * Сам компонент не является {@link java.util.concurrent.Executor}, иначе Spring Boot не создал бы
+ * applicationTaskExecutor, на котором MVC выполняет StreamingResponseBody выгрузки.
+ */
+@Slf4j
+@Component
+public class UserAsyncExecutor implements DisposableBean {
+    public static final String NAME = "users.async";
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final UserAsyncProperties properties;
+
+    public UserAsyncExecutor(UserAsyncProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pool = new ThreadPoolExecutor(
+                properties.getCorePoolSize(),
+                properties.getMaxPoolSize(),
+                properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("user-async-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, NAME);
+    }
+
+    /**
+     * Исполнитель с метриками; при заполненной очереди бросает RejectedExecutionException.
+     */
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        pool.shutdown();
+        if (!pool.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Async user operations did not finish in {}, {} tasks dropped",
+                    properties.getShutdownTimeout(), pool.shutdownNow().size());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.astondevs.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки асинхронных операций с пользователями: пул потоков для работы с базой
+ * и предельное время ответа.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "users.async")
+public class UserAsyncProperties {
+    /**
+     * Время, за которое операция должна завершиться вместе с подтверждением Kafka;
+     * по его истечении клиент получает 503, а начатая транзакция доводится до конца.
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * Число потоков, постоянно держащих транзакции; разумно не больше размера пула соединений.
+     */
+    private int corePoolSize = 8;
+
+    /**
+     * Максимальное число потоков при заполненной очереди.
+     */
+    private int maxPoolSize = 16;
+
+    /**
+     * Ёмкость очереди задач; при переполнении новые операции отклоняются с ответом 503.
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * Время, после которого простаивающие потоки сверх corePoolSize завершаются.
+     */
+    private Duration keepAlive = Duration.ofSeconds(60);
+
+    /**
+     * Сколько ждать завершения начатых операций при остановке приложения.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
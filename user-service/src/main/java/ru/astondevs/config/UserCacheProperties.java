@@ -0,0 +1,27 @@
+package ru.astondevs.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки локального кэша пользователей.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "users.cache")
+public class UserCacheProperties {
+    /**
+     * Максимальное количество пользователей в кэше; при превышении Caffeine вытесняет
+     * записи по политике W-TinyLFU, сохраняя часто запрашиваемые ID.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Страховочное время жизни записи на случай пропущенной инвалидации.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
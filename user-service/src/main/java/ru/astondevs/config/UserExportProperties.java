@@ -0,0 +1,22 @@
+package ru.astondevs.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки выгрузки GET /api/users/export.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "users.export")
+public class UserExportProperties {
+    /**
+     * Сколько может идти выгрузка всех пользователей. Задаётся только для неё: остальные асинхронные
+     * запросы ограничены общим spring.mvc.async.request-timeout.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
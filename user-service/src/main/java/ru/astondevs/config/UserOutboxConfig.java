@@ -0,0 +1,13 @@
+package ru.astondevs.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включает периодический опрос таблицы user_outbox и удаление отправленных событий,
+ * а также периодическое перестроение индекса имён и счётчиков статистики.
+ */
+@Configuration
+@EnableScheduling
+public class UserOutboxConfig {
+}
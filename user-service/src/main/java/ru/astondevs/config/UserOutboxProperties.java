@@ -0,0 +1,50 @@
+package ru.astondevs.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки ретранслятора исходящих событий пользователей из таблицы user_outbox в Kafka.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "users.outbox")
+public class UserOutboxProperties {
+    /**
+     * Сколько событий блокируется и отправляется за один проход; все они уходят в Kafka без ожидания
+     * подтверждений друг друга.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Пауза между опросами таблицы, когда очередная пачка оказалась неполной.
+     */
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    /**
+     * Сколько проход с начала отправки ждёт подтверждений пачки. Неподтверждённые к этому сроку
+     * события отправятся повторно при следующем опросе.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(30);
+
+    /**
+     * На сколько проход забирает пачку. Если экземпляр остановился, не отметив её, по истечении срока
+     * события заберёт другой проход. Должно с запасом превышать send-timeout: сама отправка может
+     * блокироваться на max.block.ms клиента Kafka.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(2);
+
+    /**
+     * Сколько хранить отправленные события перед удалением.
+     */
+    private Duration retention = Duration.ofDays(1);
+
+    /**
+     * Период удаления отправленных событий старше retention.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,91 @@
+package ru.astondevs.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.astondevs.dto.UserResponseWrapper;
+import ru.astondevs.dto.UserResponseWrapperSerializer;
+
+/**
+ * Представления пользователя для согласования по Accept: по умолчанию JSON со ссылками,
+ * а {@value UserResponseWrapper#PLAIN_JSON_VALUE} — только данные пользователя без блока ссылок.
+ * Для внутренних клиентов доступны бинарные application/cbor и application/x-jackson-smile
+ * с той же структурой, что и JSON, включая HAL-коллекции: они компактнее и быстрее разбираются.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class UserRepresentationConfig implements WebMvcConfigurer {
+    private final ObjectMapper objectMapper;
+    private final HalMediaTypeConfiguration halConfiguration;
+
+    /**
+     * Стандартный Jackson-конвертер принимает любой application/*+json, поэтому конвертер
+     * без ссылок ставится первым, чтобы запросы с его типом не доставались стандартному.
+     * Стандартные CBOR и Smile конвертеры Spring создают свой ObjectMapper без настроек приложения,
+     * поэтому они заменяются на месте конвертерами с копией настроенного ObjectMapper: модули
+     * и настройки Jackson те же, что у JSON. Копия дополнительно настраивается для HAL так же, как
+     * Spring HATEOAS настраивает JSON-конвертер коллекций, поэтому списки приходят с _embedded и _links.
+     * Позиция сохраняется, чтобы без Accept по-прежнему выбирался JSON.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new PlainJsonHttpMessageConverter(objectMapper));
+        replaceOrAdd(converters, MappingJackson2SmileHttpMessageConverter.class,
+                new MappingJackson2SmileHttpMessageConverter(halMapper(new SmileFactory())));
+        replaceOrAdd(converters, MappingJackson2CborHttpMessageConverter.class,
+                new MappingJackson2CborHttpMessageConverter(halMapper(new CBORFactory())));
+    }
+
+    private ObjectMapper halMapper(JsonFactory factory) {
+        return halConfiguration.configureObjectMapper(objectMapper.copyWith(factory));
+    }
+
+    private static void replaceOrAdd(List<HttpMessageConverter<?>> converters,
+                                     Class<? extends HttpMessageConverter<?>> type,
+                                     HttpMessageConverter<?> replacement) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (type.isInstance(converters.get(i))) {
+                converters.set(i, replacement);
+                return;
+            }
+        }
+        converters.add(replacement);
+    }
+
+    static class PlainJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+        PlainJsonHttpMessageConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+            setSupportedMediaTypes(List.of(UserResponseWrapper.PLAIN_JSON));
+        }
+
+        /**
+         * Без явного типа (при подборе типов на Accept: *&#47;*) конвертер не предлагает себя,
+         * иначе стоящий первым тип без ссылок выбирался бы по умолчанию.
+         * Запрошенный тип всё равно выбирается: он совместим с application/*+json стандартного конвертера.
+         */
+        @Override
+        public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+            return mediaType != null && super.canWrite(clazz, mediaType);
+        }
+
+        @Override
+        protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+            return super.customizeWriter(writer, javaType, contentType)
+                    .withAttribute(UserResponseWrapperSerializer.WITHOUT_LINKS, Boolean.TRUE);
+        }
+    }
+}
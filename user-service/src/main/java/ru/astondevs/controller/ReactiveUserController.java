@@ -0,0 +1,322 @@
+package ru.astondevs.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserField;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserSearchCriteria;
+import ru.astondevs.dto.UserStatsDto;
+import ru.astondevs.dto.UserUpdateDto;
+import ru.astondevs.exception.ValidationError;
+import ru.astondevs.service.ReactiveUserService;
+import ru.astondevs.service.UserStatistics;
+
+/**
+ * Реактивный аналог {@link UserController} для профиля reactive с теми же путями и кодами ответов.
+ * Пользователи отдаются без HAL-обёртки, а ссылки на страницы передаются в заголовке Link.
+ * Пакетные операции остаются только в блокирующем слое.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/users")
+@Tag(name = "User API", description = "Управление пользователями")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+    /**
+     * Типы ответа GET /{id} в порядке выбора при Accept: *&#47;*; совпадают с его produces.
+     * Кодека CBOR в WebFlux по умолчанию нет, поэтому здесь только JSON и Smile.
+     */
+    private static final List<MediaType> USER_REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON,
+            MediaType.parseMediaType(UserETags.SMILE_VALUE));
+
+    private final ReactiveUserService userService;
+    private final UserStatistics userStatistics;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(
+            summary = "Создать пользователя",
+            description = "Создает нового пользователя и публикует событие",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Пользователь успешно создан",
+                            content = @Content(schema = @Schema(implementation = UserResponseDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Некорректные входные данные")
+            }
+    )
+    public Mono<ResponseEntity<UserResponseDto>> createUser(
+            @RequestBody(description = "Данные для создания пользователя", required = true,
+                    content = @Content(schema = @Schema(implementation = UserCreateDto.class)))
+            @Valid @org.springframework.web.bind.annotation.RequestBody UserCreateDto dto) {
+        return userService.createUser(dto)
+                .map(createdUser -> ResponseEntity
+                        .created(Link.of("/api/users/" + createdUser.id()).toUri())
+                        .body(createdUser));
+    }
+
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, UserETags.SMILE_VALUE})
+    @Operation(
+            summary = "Получить пользователя по ID",
+            description = "Возвращает пользователя с указанным идентификатором и ETag его версии и типа ответа. "
+                    + "При совпадении If-None-Match отвечает 304 без тела",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешный запрос",
+                            content = @Content(schema = @Schema(implementation = UserResponseDto.class))),
+                    @ApiResponse(responseCode = "304", description = "Пользователь не изменился с версии из If-None-Match"),
+                    @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+            }
+    )
+    public Mono<ResponseEntity<UserResponseDto>> getUserById(
+            @Parameter(description = "ID пользователя", example = "1", required = true)
+            @PathVariable Long id,
+            ServerWebExchange exchange) {
+        MediaType representation = UserETags.negotiate(exchange.getRequest().getHeaders().getAccept(),
+                USER_REPRESENTATIONS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return userService.getUserById(id)
+                .flatMap(user -> exchange.checkNotModified(UserETags.of(user.version(), UserField.ALL, representation))
+                        ? Mono.empty()
+                        : Mono.just(ResponseEntity.ok()
+                                .eTag(UserETags.of(user.version(), UserField.ALL, representation))
+                                .body(user)));
+    }
+
+    @GetMapping("/by-email")
+    @Operation(
+            summary = "Получить пользователя по email",
+            description = "Возвращает пользователя с указанным адресом электронной почты",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешный запрос",
+                            content = @Content(schema = @Schema(implementation = UserResponseDto.class))),
+                    @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+            }
+    )
+    public Mono<UserResponseDto> getUserByEmail(
+            @Parameter(description = "Email пользователя", example = "user@example.com", required = true)
+            @RequestParam String email) {
+        return userService.getUserByEmail(email);
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Получить страницу пользователей",
+            description = "Возвращает пользователей, упорядоченных по ID, начиная после курсора after. "
+                    + "Ссылка next в заголовке Link ведёт на следующую страницу",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешный запрос",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserResponseDto.class)))),
+                    @ApiResponse(responseCode = "400", description = "Некорректные параметры пагинации")
+            }
+    )
+    public Mono<ResponseEntity<List<UserResponseDto>>> getAllUsers(
+            @Parameter(description = "ID, после которого начинается страница", example = "0")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Размер страницы (от 1 до 100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return userService.getAllUsers(after, limit)
+                .map(page -> pageResponse(page, cursor -> pageHref(cursor, limit), after));
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Найти пользователей",
+            description = "Возвращает пользователей, подходящих под все заданные фильтры, упорядоченных по ID, "
+                    + "начиная после курсора after. Ссылка next в заголовке Link сохраняет фильтры",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешный запрос",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserResponseDto.class)))),
+                    @ApiResponse(responseCode = "400", description = "Некорректные фильтры или параметры пагинации")
+            }
+    )
+    public Mono<ResponseEntity<List<UserResponseDto>>> searchUsers(
+            @ParameterObject UserSearchCriteria criteria,
+            @Parameter(description = "ID, после которого начинается страница", example = "0")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Размер страницы (от 1 до 100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return userService.searchUsers(criteria, after, limit)
+                .map(page -> pageResponse(page, cursor -> searchHref(criteria, cursor, limit), after));
+    }
+
+    @GetMapping("/name-search")
+    @Operation(
+            summary = "Найти пользователей по имени",
+            description = "Ищет по подстроке имени без учёта регистра с допуском опечаток. "
+                    + "Пользователи упорядочены по убыванию качества совпадения",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешный запрос",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserResponseDto.class)))),
+                    @ApiResponse(responseCode = "400", description = "Пустой запрос или некорректный лимит")
+            }
+    )
+    public Flux<UserResponseDto> findUsersByName(
+            @Parameter(description = "Подстрока имени", example = "ibra", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Максимальное количество пользователей (от 1 до 100)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return userService.findUsersByName(q, limit);
+    }
+
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Получить статистику пользователей",
+            description = "Возвращает количество пользователей, гистограмму возрастов и регистрации по дням "
+                    + "из счётчиков в памяти без обращения к базе",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешный запрос",
+                            content = @Content(schema = @Schema(implementation = UserStatsDto.class)))
+            }
+    )
+    public Mono<UserStatsDto> getStats() {
+        return Mono.fromSupplier(userStatistics::snapshot);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Выгрузить всех пользователей",
+            description = "Потоково отдаёт всех пользователей в формате NDJSON (один JSON-объект на строку). "
+                    + "Чтение из базы идёт со скоростью, с которой клиент забирает ответ",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешная выгрузка",
+                            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = UserResponseDto.class)))
+            }
+    )
+    public Flux<UserResponseDto> exportUsers() {
+        return userService.exportAllUsers();
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(
+            summary = "Обновить пользователя",
+            description = "Частично обновляет данные пользователя. С заголовком If-Match изменение "
+                    + "применяется, только если версия пользователя совпадает с ETag",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Пользователь успешно обновлен",
+                            content = @Content(schema = @Schema(implementation = UserResponseDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Некорректные входные данные"),
+                    @ApiResponse(responseCode = "404", description = "Пользователь не найден"),
+                    @ApiResponse(responseCode = "409", description = "Пользователь изменён параллельным запросом"),
+                    @ApiResponse(responseCode = "412", description = "Версия не совпадает с If-Match")
+            }
+    )
+    public Mono<ResponseEntity<UserResponseDto>> updateUser(
+            @Parameter(description = "ID пользователя", example = "1", required = true)
+            @PathVariable Long id,
+            @RequestBody(description = "Данные для обновления пользователя", required = true,
+                    content = @Content(schema = @Schema(implementation = UserUpdateDto.class)))
+            @Valid @org.springframework.web.bind.annotation.RequestBody UserUpdateDto dto,
+            @Parameter(description = "ETag версии, на основе которой сделано изменение", example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> userService.updateUser(id, dto, UserETags.expectedVersion(ifMatch)))
+                .map(updatedUser -> ResponseEntity.ok()
+                        .eTag(UserETags.of(updatedUser.version()))
+                        .body(updatedUser));
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(
+            summary = "Удалить пользователя",
+            description = "Удаляет пользователя по ID и публикует событие",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Пользователь успешно удален"),
+                    @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+            }
+    )
+    public Mono<ResponseEntity<Void>> deleteUser(
+            @Parameter(description = "ID пользователя", example = "1", required = true)
+            @PathVariable Long id) {
+        Link usersLink = Link.of("/api/users").withRel("users");
+        return userService.deleteUser(id)
+                .then(Mono.fromCallable(() -> ResponseEntity.noContent()
+                        .header("Link", usersLink.toString())
+                        .build()));
+    }
+
+    /**
+     * WebFlux сообщает об ошибках @Valid через WebExchangeBindException, а не MethodArgumentNotValidException,
+     * поэтому ответ того же вида, что у GlobalExceptionHandler, формируется здесь.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, List<ValidationError>> handleValidationExceptions(WebExchangeBindException ex) {
+        List<ValidationError> errors = ex.getFieldErrors()
+                .stream()
+                .map(error -> new ValidationError(error.getField(), error.getDefaultMessage()))
+                .toList();
+
+        return Map.of("errors", errors);
+    }
+
+    private static ResponseEntity<List<UserResponseDto>> pageResponse(
+            Slice<UserResponseDto> page, Function<Long, String> href, Long after) {
+        List<String> links = new ArrayList<>(2);
+        links.add(Link.of(href.apply(after)).withSelfRel().toString());
+        if (page.hasNext()) {
+            Long lastId = page.getContent().get(page.getNumberOfElements() - 1).id();
+            links.add(Link.of(href.apply(lastId)).withRel(IanaLinkRelations.NEXT).toString());
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, String.join(", ", links))
+                .body(page.getContent());
+    }
+
+    private static String pageHref(Long after, int limit) {
+        return UriComponentsBuilder.fromPath("/api/users")
+                .queryParamIfPresent("after", Optional.ofNullable(after))
+                .queryParam("limit", limit)
+                .toUriString();
+    }
+
+    private static String searchHref(UserSearchCriteria criteria, Long after, int limit) {
+        return UriComponentsBuilder.fromPath("/api/users/search")
+                .queryParamIfPresent("minAge", Optional.ofNullable(criteria.minAge()))
+                .queryParamIfPresent("maxAge", Optional.ofNullable(criteria.maxAge()))
+                .queryParamIfPresent("namePrefix", Optional.ofNullable(criteria.namePrefix()))
+                .queryParamIfPresent("createdFrom", Optional.ofNullable(criteria.createdFrom()))
+                .queryParamIfPresent("createdTo", Optional.ofNullable(criteria.createdTo()))
+                .queryParamIfPresent("after", Optional.ofNullable(after))
+                .queryParam("limit", limit)
+                .encode()
+                .toUriString();
+    }
+}
@@ -1,11 +1,20 @@
 package ru.astondevs.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,14 +22,27 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.astondevs.config.UserExportProperties;
+import ru.astondevs.dto.UserBatchCreateResult;
+import ru.astondevs.dto.UserBatchDeleteResult;
 import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserField;
 import ru.astondevs.dto.UserResponseDto;
 import ru.astondevs.dto.UserResponseWrapper;
+import ru.astondevs.dto.UserSearchCriteria;
+import ru.astondevs.dto.UserStatsDto;
 import ru.astondevs.dto.UserUpdateDto;
 import ru.astondevs.service.UserService;
 import ru.astondevs.service.UserServiceFacade;
+import ru.astondevs.service.UserStatistics;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -29,15 +51,32 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/users")
 @Tag(name = "User API", description = "Управление пользователями")
 @RequiredArgsConstructor
 public class UserController {
+    /**
+     * Типы ответа GET /{id} в порядке выбора при Accept: *&#47;*; совпадают с его produces.
+     */
+    private static final List<MediaType> USER_REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON,
+            MediaTypes.HAL_JSON, MediaTypes.HAL_FORMS_JSON, UserResponseWrapper.PLAIN_JSON,
+            MediaType.APPLICATION_CBOR, MediaType.parseMediaType(UserETags.SMILE_VALUE));
+
     private final UserServiceFacade userServiceFacade;
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final UserStatistics userStatistics;
+    private final UserExportProperties exportProperties;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -61,50 +100,241 @@ public class UserController {
                 .body(response);
     }
 
-    @GetMapping("/{id}")
+    @PostMapping("/async")
+    @Operation(
+            summary = "Создать пользователя асинхронно",
+            description = "То же, что POST /api/users, но поток запроса освобождается на время транзакции "
+                    + "и ожидания отправки события; событие пишется в outbox в транзакции создания, "
+                    + "а ответ приходит после того, как ретранслятор получит подтверждение брокера",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Пользователь создан, событие принято брокером",
+                            content = @Content(schema = @Schema(implementation = UserResponseWrapper.class))),
+                    @ApiResponse(responseCode = "400", description = "Некорректные входные данные"),
+                    @ApiResponse(responseCode = "503", description = "Пул операций переполнен или истекло время ожидания")
+            }
+    )
+    public CompletableFuture<ResponseEntity<UserResponseWrapper>> createUserAsync(
+            @RequestBody(description = "Данные для создания пользователя", required = true,
+                    content = @Content(schema = @Schema(implementation = UserCreateDto.class)))
+            @Valid @org.springframework.web.bind.annotation.RequestBody UserCreateDto dto) {
+        return userServiceFacade.createUserAndPublishEventAsync(dto)
+                .thenApply(createdUser -> ResponseEntity
+                        .created(Link.of("/api/users/" + createdUser.id()).toUri())
+                        .body(UserResponseWrapper.wrap(createdUser)));
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Создать пользователей пакетом",
+            description = "Создает до 50000 пользователей за запрос и публикует события о создании. "
+                    + "Ошибочные элементы не прерывают пакет и возвращаются с причиной отказа",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Пакет обработан",
+                            content = @Content(schema = @Schema(implementation = UserBatchCreateResult.class))),
+                    @ApiResponse(responseCode = "400", description = "Пакет пуст или слишком велик")
+            }
+    )
+    public ResponseEntity<UserBatchCreateResult> createUsers(
+            @RequestBody(description = "Данные для создания пользователей", required = true,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserCreateDto.class))))
+            @org.springframework.web.bind.annotation.RequestBody List<UserCreateDto> dtos) {
+        return ResponseEntity.ok(userServiceFacade.createUsersAndPublishEvents(dtos));
+    }
+
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.HAL_JSON_VALUE,
+            MediaTypes.HAL_FORMS_JSON_VALUE, UserResponseWrapper.PLAIN_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            UserETags.SMILE_VALUE})
     @Operation(
             summary = "Получить пользователя по ID",
-            description = "Возвращает пользователя с указанным идентификатором",
+            description = "Возвращает пользователя с указанным идентификатором и ETag его версии, "
+                    + "набора полей и типа ответа. При совпадении If-None-Match отвечает 304 без тела. "
+                    + "Параметр fields ограничивает читаемые колонки и поля ответа",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Успешный запрос",
                             content = @Content(schema = @Schema(implementation = UserResponseWrapper.class))),
+                    @ApiResponse(responseCode = "304", description = "Пользователь не изменился с версии из If-None-Match"),
                     @ApiResponse(responseCode = "404", description = "Пользователь не найден")
             }
     )
     public ResponseEntity<UserResponseWrapper> getUserById(
             @Parameter(description = "ID пользователя", example = "1", required = true)
-            @PathVariable Long id) {
-        UserResponseDto userDto = userService.getUserById(id);
-        UserResponseWrapper response = UserResponseWrapper.wrap(userDto);
-        return ResponseEntity.ok(response);
+            @PathVariable Long id,
+            @Parameter(description = "Поля пользователя через запятую; по умолчанию все", example = "id,name")
+            @RequestParam(required = false) String fields,
+            @RequestHeader HttpHeaders headers,
+            WebRequest request,
+            HttpServletResponse servletResponse) {
+        Set<UserField> userFields = UserField.parse(fields);
+        MediaType representation = UserETags.negotiate(headers.getAccept(), USER_REPRESENTATIONS);
+        servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(
+                UserETags.of(userService.getUserVersion(id), userFields, representation))) {
+            return null;
+        }
+        UserResponseDto userDto = userService.getUserById(id, userFields);
+        UserResponseWrapper response = UserResponseWrapper.wrap(userDto, userFields);
+        return ResponseEntity.ok()
+                .eTag(UserETags.of(userDto.version(), userFields, representation))
+                .body(response);
+    }
+
+    @GetMapping("/by-email")
+    @Operation(
+            summary = "Получить пользователя по email",
+            description = "Возвращает пользователя с указанным адресом электронной почты",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешный запрос",
+                            content = @Content(schema = @Schema(implementation = UserResponseWrapper.class))),
+                    @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+            }
+    )
+    public ResponseEntity<UserResponseWrapper> getUserByEmail(
+            @Parameter(description = "Email пользователя", example = "user@example.com", required = true)
+            @RequestParam String email,
+            @Parameter(description = "Поля пользователя через запятую; по умолчанию все", example = "id,name")
+            @RequestParam(required = false) String fields) {
+        Set<UserField> userFields = UserField.parse(fields);
+        UserResponseDto userDto = userService.getUserByEmail(email, userFields);
+        return ResponseEntity.ok(UserResponseWrapper.wrap(userDto, userFields));
     }
 
     @GetMapping
     @Operation(
-            summary = "Получить всех пользователей",
-            description = "Возвращает список всех пользователей",
+            summary = "Получить страницу пользователей",
+            description = "Возвращает пользователей, упорядоченных по ID, начиная после курсора after. "
+                    + "Ссылка next ведёт на следующую страницу",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Успешный запрос",
-                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserResponseWrapper.class))))
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserResponseWrapper.class)))),
+                    @ApiResponse(responseCode = "400", description = "Некорректные параметры пагинации")
             }
     )
-    public ResponseEntity<CollectionModel<UserResponseWrapper>> getAllUsers() {
-        List<UserResponseDto> userDtos = userService.getAllUsers();
-        List<UserResponseWrapper> wrappedUsers = UserResponseWrapper.wrapAll(userDtos);
+    public ResponseEntity<CollectionModel<UserResponseWrapper>> getAllUsers(
+            @Parameter(description = "ID, после которого начинается страница", example = "0")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Размер страницы (от 1 до 100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Поля пользователя через запятую; по умолчанию все", example = "id,name")
+            @RequestParam(required = false) String fields) {
+        Set<UserField> userFields = UserField.parse(fields);
+        Slice<UserResponseDto> page = userService.getAllUsers(after, limit, userFields);
+        List<UserResponseWrapper> wrappedUsers = UserResponseWrapper.wrapAll(page.getContent(), userFields);
         CollectionModel<UserResponseWrapper> model = CollectionModel.of(wrappedUsers);
-        model.add(Link.of("/api/users").withSelfRel());
+        model.add(Link.of(pageHref(after, limit, fields)).withSelfRel());
+        if (page.hasNext()) {
+            Long lastId = page.getContent().get(page.getNumberOfElements() - 1).id();
+            model.add(Link.of(pageHref(lastId, limit, fields)).withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok(model);
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Найти пользователей",
+            description = "Возвращает пользователей, подходящих под все заданные фильтры, упорядоченных по ID, "
+                    + "начиная после курсора after. Ссылка next сохраняет фильтры",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешный запрос",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserResponseWrapper.class)))),
+                    @ApiResponse(responseCode = "400", description = "Некорректные фильтры или параметры пагинации")
+            }
+    )
+    public ResponseEntity<CollectionModel<UserResponseWrapper>> searchUsers(
+            @ParameterObject UserSearchCriteria criteria,
+            @Parameter(description = "ID, после которого начинается страница", example = "0")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Размер страницы (от 1 до 100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Поля пользователя через запятую; по умолчанию все", example = "id,name")
+            @RequestParam(required = false) String fields) {
+        Set<UserField> userFields = UserField.parse(fields);
+        Slice<UserResponseDto> page = userService.searchUsers(criteria, after, limit, userFields);
+        CollectionModel<UserResponseWrapper> model =
+                CollectionModel.of(UserResponseWrapper.wrapAll(page.getContent(), userFields));
+        model.add(Link.of(searchHref(criteria, after, limit, fields)).withSelfRel());
+        if (page.hasNext()) {
+            Long lastId = page.getContent().get(page.getNumberOfElements() - 1).id();
+            model.add(Link.of(searchHref(criteria, lastId, limit, fields)).withRel(IanaLinkRelations.NEXT));
+        }
         return ResponseEntity.ok(model);
     }
 
+    @GetMapping("/name-search")
+    @Operation(
+            summary = "Найти пользователей по имени",
+            description = "Ищет по подстроке имени без учёта регистра с допуском опечаток. "
+                    + "Пользователи упорядочены по убыванию качества совпадения",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешный запрос",
+                            content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserResponseWrapper.class)))),
+                    @ApiResponse(responseCode = "400", description = "Пустой запрос или некорректный лимит")
+            }
+    )
+    public ResponseEntity<CollectionModel<UserResponseWrapper>> findUsersByName(
+            @Parameter(description = "Подстрока имени", example = "ibra", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Максимальное количество пользователей (от 1 до 100)", example = "10")
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Поля пользователя через запятую; по умолчанию все", example = "id,name")
+            @RequestParam(required = false) String fields) {
+        Set<UserField> userFields = UserField.parse(fields);
+        List<UserResponseDto> users = userServiceFacade.findUsersByName(q, limit);
+        CollectionModel<UserResponseWrapper> model = CollectionModel.of(UserResponseWrapper.wrapAll(users, userFields));
+        model.add(Link.of(UriComponentsBuilder.fromPath("/api/users/name-search")
+                .queryParam("q", q)
+                .queryParam("limit", limit)
+                .queryParamIfPresent("fields", Optional.ofNullable(fields))
+                .encode()
+                .toUriString()).withSelfRel());
+        return ResponseEntity.ok(model);
+    }
+
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Получить статистику пользователей",
+            description = "Возвращает количество пользователей, гистограмму возрастов и регистрации по дням "
+                    + "из счётчиков в памяти без обращения к базе",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешный запрос",
+                            content = @Content(schema = @Schema(implementation = UserStatsDto.class)))
+            }
+    )
+    public ResponseEntity<UserStatsDto> getStats() {
+        return ResponseEntity.ok(userStatistics.snapshot());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Выгрузить всех пользователей",
+            description = "Потоково отдаёт всех пользователей в формате NDJSON (один JSON-объект на строку)",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Успешная выгрузка",
+                            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = UserResponseDto.class)))
+            }
+    )
+    public WebAsyncTask<Void> exportUsers(HttpServletResponse response) {
+        StreamingResponseBody body = out -> userService.exportAllUsers(user -> writeNdjsonLine(out, user));
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(exportProperties.getTimeout().toMillis(), () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
     @PatchMapping("/{id}")
     @Operation(
             summary = "Обновить пользователя",
-            description = "Частично обновляет данные пользователя",
+            description = "Частично обновляет данные пользователя. С заголовком If-Match изменение "
+                    + "применяется, только если версия пользователя совпадает с ETag",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Пользователь успешно обновлен",
                             content = @Content(schema = @Schema(implementation = UserResponseWrapper.class))),
                     @ApiResponse(responseCode = "400", description = "Некорректные входные данные"),
-                    @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+                    @ApiResponse(responseCode = "404", description = "Пользователь не найден"),
+                    @ApiResponse(responseCode = "409", description = "Пользователь изменён параллельным запросом"),
+                    @ApiResponse(responseCode = "412", description = "Версия не совпадает с If-Match")
             }
     )
     public ResponseEntity<UserResponseWrapper> updateUser(
@@ -112,10 +342,14 @@ public class UserController {
             @PathVariable Long id,
             @RequestBody(description = "Данные для обновления пользователя", required = true,
                     content = @Content(schema = @Schema(implementation = UserUpdateDto.class)))
-            @Valid @org.springframework.web.bind.annotation.RequestBody UserUpdateDto dto) {
-        UserResponseDto updatedUser = userService.updateUser(id, dto);
+            @Valid @org.springframework.web.bind.annotation.RequestBody UserUpdateDto dto,
+            @Parameter(description = "ETag версии, на основе которой сделано изменение", example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserResponseDto updatedUser = userService.updateUser(id, dto, UserETags.expectedVersion(ifMatch));
         UserResponseWrapper response = UserResponseWrapper.wrap(updatedUser);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(UserETags.of(updatedUser.version()))
+                .body(response);
     }
 
     @DeleteMapping("/{id}")
@@ -138,4 +372,75 @@ public class UserController {
                 .header("Link", usersLink.toString())
                 .build();
     }
+
+    @DeleteMapping("/async/{id}")
+    @Operation(
+            summary = "Удалить пользователя асинхронно",
+            description = "То же, что DELETE /api/users/{id}, но поток запроса освобождается на время транзакции "
+                    + "и ожидания отправки события; ответ приходит после того, как ретранслятор outbox "
+                    + "получит подтверждение брокера",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Пользователь удалён, событие принято брокером"),
+                    @ApiResponse(responseCode = "404", description = "Пользователь не найден"),
+                    @ApiResponse(responseCode = "503", description = "Пул операций переполнен или истекло время ожидания")
+            }
+    )
+    public CompletableFuture<ResponseEntity<Void>> deleteUserAsync(
+            @Parameter(description = "ID пользователя", example = "1", required = true)
+            @PathVariable Long id) {
+        return userServiceFacade.deleteUserAndPublishEventAsync(id)
+                .thenApply(ignored -> ResponseEntity.noContent()
+                        .header("Link", Link.of("/api/users").withRel("users").toString())
+                        .build());
+    }
+
+    @DeleteMapping("/batch")
+    @Operation(
+            summary = "Удалить пользователей пакетом",
+            description = "Удаляет до 50000 пользователей по списку ID и публикует события об удалении. "
+                    + "Несуществующие ID возвращаются в notFound",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Пакет обработан",
+                            content = @Content(schema = @Schema(implementation = UserBatchDeleteResult.class))),
+                    @ApiResponse(responseCode = "400", description = "Список пуст, слишком велик или содержит null")
+            }
+    )
+    public ResponseEntity<UserBatchDeleteResult> deleteUsers(
+            @RequestBody(description = "ID пользователей", required = true,
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = Long.class))))
+            @org.springframework.web.bind.annotation.RequestBody List<Long> ids) {
+        return ResponseEntity.ok(userServiceFacade.deleteUsersAndPublishEvents(ids));
+    }
+
+    private static String pageHref(Long after, int limit, String fields) {
+        return UriComponentsBuilder.fromPath("/api/users")
+                .queryParamIfPresent("after", Optional.ofNullable(after))
+                .queryParam("limit", limit)
+                .queryParamIfPresent("fields", Optional.ofNullable(fields))
+                .encode()
+                .toUriString();
+    }
+
+    private static String searchHref(UserSearchCriteria criteria, Long after, int limit, String fields) {
+        return UriComponentsBuilder.fromPath("/api/users/search")
+                .queryParamIfPresent("minAge", Optional.ofNullable(criteria.minAge()))
+                .queryParamIfPresent("maxAge", Optional.ofNullable(criteria.maxAge()))
+                .queryParamIfPresent("namePrefix", Optional.ofNullable(criteria.namePrefix()))
+                .queryParamIfPresent("createdFrom", Optional.ofNullable(criteria.createdFrom()))
+                .queryParamIfPresent("createdTo", Optional.ofNullable(criteria.createdTo()))
+                .queryParamIfPresent("after", Optional.ofNullable(after))
+                .queryParam("limit", limit)
+                .queryParamIfPresent("fields", Optional.ofNullable(fields))
+                .encode()
+                .toUriString();
+    }
+
+    private void writeNdjsonLine(OutputStream out, UserResponseDto user) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(user));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
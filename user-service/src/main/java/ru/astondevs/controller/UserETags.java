@@ -0,0 +1,114 @@
+package ru.astondevs.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import ru.astondevs.dto.UserField;
+import ru.astondevs.exception.PreconditionFailedException;
+
+/**
+ * ETag пользователя на основе версии записи; общий для блокирующего и реактивного контроллеров.
+ * Одна версия отдаётся в нескольких представлениях (JSON, HAL, без ссылок, CBOR, Smile, часть полей),
+ * а сильный ETag обязан различать представления, поэтому в него входят набор полей и тип ответа,
+ * а ответы помечаются Vary: Accept.
+ */
+final class UserETags {
+    static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private UserETags() {
+    }
+
+    /**
+     * Сильный ETag из версии записи: версия меняется при любом изменении пользователя.
+     */
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * ETag представления с частью полей: разные наборы полей — разные представления,
+     * поэтому к версии добавляются имена полей. Для полного набора совпадает с {@link #of(Long)}.
+     */
+    static String of(Long version, Set<UserField> fields) {
+        if (fields.containsAll(UserField.ALL)) {
+            return of(version);
+        }
+        StringBuilder tag = new StringBuilder().append('"').append(version);
+        for (UserField field : fields) {
+            tag.append(';').append(field.property());
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * ETag представления с частью полей и типом ответа. Тип ответа по умолчанию, application/json,
+     * не добавляется, поэтому такой тег совпадает с {@link #of(Long, Set)}; остальные типы дописываются
+     * после «@».
+     */
+    static String of(Long version, Set<UserField> fields, MediaType representation) {
+        String tag = of(version, fields);
+        if (representation == null || MediaType.APPLICATION_JSON.equalsTypeAndSubtype(representation)) {
+            return tag;
+        }
+        return tag.substring(0, tag.length() - 1) + '@' + representation.getType() + '/'
+                + representation.getSubtype() + '"';
+    }
+
+    /**
+     * Выбирает тип ответа так же, как Spring при записи тела: совместимые пары из Accept и produces,
+     * из пары — более конкретный тип, затем сортировка по качеству и конкретности и первый конкретный тип.
+     * Поэтому при заданном produces тип в ETag совпадает с Content-Type ответа ещё до загрузки пользователя.
+     *
+     * @return Тип ответа без параметров или null, если ни один тип не подходит (ответ будет 406).
+     */
+    static MediaType negotiate(List<MediaType> accepted, List<MediaType> producible) {
+        List<MediaType> requested = new ArrayList<>(accepted.isEmpty() ? List.of(MediaType.ALL) : accepted);
+        MimeTypeUtils.sortBySpecificity(requested);
+        List<MediaType> candidates = new ArrayList<>();
+        for (MediaType request : requested) {
+            for (MediaType offer : producible) {
+                if (request.isCompatibleWith(offer)) {
+                    MediaType offerWithQuality = offer.copyQualityValue(request);
+                    candidates.add(request.isLessSpecific(offerWithQuality) ? offerWithQuality : request);
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(candidates);
+        for (MediaType candidate : candidates) {
+            if (candidate.isConcrete()) {
+                return new MediaType(candidate.getType(), candidate.getSubtype());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Извлекает ожидаемую версию из If-Match. «*» означает любую версию.
+     * If-Match требует сильного сравнения, поэтому слабый или нечисловой тег не совпадает ни с одной версией.
+     * Тег любого представления задаёт версию своим началом до «;» или «@».
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            String value = tag.substring(1, tag.length() - 1);
+            int end = value.length();
+            for (char separator : new char[]{';', '@'}) {
+                int position = value.indexOf(separator);
+                if (position >= 0) {
+                    end = Math.min(end, position);
+                }
+            }
+            try {
+                return Long.valueOf(value.substring(0, end));
+            } catch (NumberFormatException ignored) {
+                // обрабатывается ниже как несовпадение
+            }
+        }
+        throw new PreconditionFailedException("Версия пользователя не совпадает с If-Match");
+    }
+}
@@ -5,10 +5,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -20,6 +23,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import ru.astondevs.exception.DuplicateEmailException;
 
 
 /**
@@ -27,15 +32,27 @@ import lombok.Setter;
  * Соответствует таблице "users" в базе данных.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = DuplicateEmailException.UNIQUE_EMAIL_INDEX, columnList = "email", unique = true),
+        @Index(name = "ix_users_age_id", columnList = "age, id"),
+        // В PostgreSQL индекс пересоздаётся с text_pattern_ops скриптом schema-postgresql.sql.
+        @Index(name = "ix_users_name", columnList = "name"),
+        @Index(name = "ix_users_created_at_id", columnList = "created_at, id")
+})
 @Builder
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    /**
+     * Идентификатор из последовательности users_seq.
+     * Pooled-оптимизатор резервирует блок из 50 значений за одно обращение к последовательности,
+     * поэтому пакетная вставка не тратит отдельный запрос на каждый ID.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -51,6 +68,7 @@ public class User {
     /**
      * Электронная почта пользователя.
      * Должна быть уникальной, соответствовать формату email и не может быть пустой.
+     * Уникальность обеспечивает индекс ux_users_email.
      */
     @Email(message = "{email.incorrect}")
     @NotBlank(message = "{email.not.found}")
@@ -75,6 +93,15 @@ public class User {
     @Temporal(TemporalType.TIMESTAMP)
     private LocalDateTime createdAt;
 
+    /**
+     * Версия записи для оптимистической блокировки и ETag.
+     * Увеличивается Hibernate при каждом изменении строки.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -0,0 +1,72 @@
+package ru.astondevs.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import ru.astondevs.dto.UserEventDto;
+
+/**
+ * Событие пользователя, ожидающее отправки в Kafka (transactional outbox).
+ * Строка пишется в той же транзакции, что и изменение пользователя, поэтому событие
+ * фиксируется или откатывается вместе с ним; отправляет его {@link ru.astondevs.service.UserEventOutbox}.
+ */
+@Entity
+@Table(name = "user_outbox", indexes = {
+        @Index(name = "ix_user_outbox_sent_at_id", columnList = "sent_at, id")
+})
+@Getter
+@NoArgsConstructor
+public class UserOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_outbox_seq")
+    @SequenceGenerator(name = "user_outbox_seq", sequenceName = "user_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Операция события: create или delete; определяет топик.
+     */
+    @Column(nullable = false, length = 16)
+    private String operation;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Время подтверждения брокером; null, пока событие не отправлено.
+     */
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    /**
+     * До какого момента событие забрано ретранслятором; null, если не забрано.
+     */
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    public UserOutboxEvent(UserEventDto event) {
+        this.operation = event.operation();
+        this.email = event.email();
+    }
+
+    public UserEventDto toEvent() {
+        return new UserEventDto(operation, email);
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,30 @@
+package ru.astondevs.entity;
+
+import java.time.LocalDateTime;
+import lombok.Builder;
+import lombok.With;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Строка таблицы users для реактивного доступа через R2DBC.
+ * Отображается на ту же таблицу, что и {@link User}, поэтому схему по-прежнему ведёт Hibernate.
+ * Неизменяема: Spring Data создаёт копии через with-методы при присвоении ID и версии.
+ *
+ * @param id      идентификатор из последовательности users_seq, присваивается перед вставкой
+ * @param version версия записи для оптимистической блокировки; null означает новую строку
+ */
+@With
+@Builder
+@Table("users")
+public record UserRow(
+        @Id Long id,
+        String name,
+        String email,
+        Integer age,
+        @Column("created_at") LocalDateTime createdAt,
+        @Version Long version
+) {
+}
@@ -0,0 +1,11 @@
+package ru.astondevs.event;
+
+import ru.astondevs.dto.UserResponseDto;
+
+/**
+ * Событие приложения о создании пользователя.
+ *
+ * @param user Данные созданного пользователя.
+ */
+public record UserCreatedEvent(UserResponseDto user) {
+}
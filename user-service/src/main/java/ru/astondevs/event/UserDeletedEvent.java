@@ -0,0 +1,11 @@
+package ru.astondevs.event;
+
+import ru.astondevs.dto.UserResponseDto;
+
+/**
+ * Событие приложения об удалении пользователя.
+ *
+ * @param user Данные удалённого пользователя.
+ */
+public record UserDeletedEvent(UserResponseDto user) {
+}
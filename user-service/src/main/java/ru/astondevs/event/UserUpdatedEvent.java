@@ -0,0 +1,16 @@
+package ru.astondevs.event;
+
+import ru.astondevs.dto.UserResponseDto;
+
+/**
+ * Событие приложения об изменении данных пользователя.
+ *
+ * @param user     Данные пользователя после изменения.
+ * @param previous Данные пользователя до изменения или null, если они неизвестны.
+ */
+public record UserUpdatedEvent(UserResponseDto user, UserResponseDto previous) {
+
+    public UserUpdatedEvent(UserResponseDto user) {
+        this(user, null);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.astondevs.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.astondevs.entity.UserRow;
+
+/**
+ * Реактивный репозиторий пользователей поверх R2DBC, аналог {@link UserRepository}.
+ * Строки читаются из сокета по мере запроса подписчика, поэтому поток не держит поток-исполнитель
+ * на время ожидания базы.
+ */
+public interface ReactiveUserRepository extends ReactiveCrudRepository<UserRow, Long> {
+
+    Mono<UserRow> findByEmail(String email);
+
+    Mono<Boolean> existsByEmail(String email);
+
+    /**
+     * Keyset-страница по первичному ключу, как {@link UserRepository#findResponsesAfter}.
+     * Вызывающий запрашивает на одну строку больше лимита, чтобы определить наличие следующей страницы.
+     */
+    @Query("select * from users where id > :after order by id limit :limit")
+    Flux<UserRow> findAfter(long after, int limit);
+
+    /**
+     * Все пользователи по возрастанию ID. Скорость чтения ограничивается спросом подписчика.
+     */
+    @Query("select * from users order by id")
+    Flux<UserRow> findAllOrderById();
+}
@@ -0,0 +1,7 @@
+package ru.astondevs.repository;
+
+/**
+ * Количество пользователей с данным возрастом; age равен null для пользователей без возраста.
+ */
+public record UserAgeCount(Integer age, long count) {
+}
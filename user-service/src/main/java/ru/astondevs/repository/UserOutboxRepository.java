@@ -0,0 +1,80 @@
+package ru.astondevs.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.LockOptions;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.astondevs.entity.UserOutboxEvent;
+
+/**
+ * Репозиторий исходящих событий пользователей.
+ */
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEvent, Long> {
+    /**
+     * Значение lock timeout, при котором Hibernate добавляет к FOR UPDATE SKIP LOCKED.
+     */
+    String SKIP_LOCKED = "" + LockOptions.SKIP_LOCKED;
+
+    /**
+     * Блокирует пачку неотправленных и никем не забранных событий в порядке записи. Строки, заблокированные
+     * другим экземпляром приложения, пропускаются, поэтому ретрансляторы не ждут друг друга.
+     * Должен вызываться внутри транзакции, которая сразу забирает пачку через {@link #claim}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    @Query("select e from UserOutboxEvent e where e.sentAt is null"
+            + " and (e.claimedUntil is null or e.claimedUntil < :now) order by e.id")
+    List<UserOutboxEvent> findPendingForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Забирает события до указанного момента: до его наступления их не выберет другой проход.
+     *
+     * @return количество обновлённых строк
+     */
+    @Modifying
+    @Query("update UserOutboxEvent e set e.claimedUntil = :until where e.id in :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("until") LocalDateTime until);
+
+    /**
+     * Возвращает неотправленные события в очередь, чтобы следующий проход выбрал их первыми.
+     *
+     * @return количество обновлённых строк
+     */
+    @Modifying
+    @Query("update UserOutboxEvent e set e.claimedUntil = null where e.id in :ids")
+    int release(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Отмечает события отправленными одним запросом.
+     *
+     * @return количество обновлённых строк
+     */
+    @Modifying
+    @Query("update UserOutboxEvent e set e.sentAt = :sentAt where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Возвращает те из указанных событий, что уже отмечены отправленными.
+     */
+    @Query("select e.id from UserOutboxEvent e where e.id in :ids and e.sentAt is not null")
+    List<Long> findSentIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Удаляет события, отправленные раньше указанного момента.
+     *
+     * @return количество удалённых строк
+     */
+    @Modifying
+    @Query("delete from UserOutboxEvent e where e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -1,10 +1,106 @@
 package ru.astondevs.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.astondevs.dto.UserResponseDto;
 import ru.astondevs.entity.User;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+/**
+ * Репозиторий пользователей.
+ * Методы чтения с суффиксом Response строят {@link UserResponseDto} прямо из строки результата:
+ * Hibernate не создаёт управляемые сущности, снимки состояния для dirty checking
+ * и записи в persistence context.
+ */
+public interface UserRepository extends JpaRepository<User, Long>, UserSearchRepository {
+    /**
+     * Количество строк, которое JDBC-драйвер забирает за один сетевой запрос при потоковом чтении.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    /**
+     * Версия пользователя без загрузки строки целиком: для проверки If-None-Match.
+     */
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Возвращает те из переданных email, которые уже заняты: одна выборка на пакет вместо existsByEmail на каждый.
+     */
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select new ru.astondevs.dto.UserResponseDto(u.id, u.name, u.email, u.age, u.createdAt, u.version) "
+            + "from User u where u.id = :id")
+    Optional<UserResponseDto> findResponseById(@Param("id") Long id);
+
+    @Query("select new ru.astondevs.dto.UserResponseDto(u.id, u.name, u.email, u.age, u.createdAt, u.version) "
+            + "from User u where u.email = :email")
+    Optional<UserResponseDto> findResponseByEmail(@Param("email") String email);
+
+    @Query("select new ru.astondevs.dto.UserResponseDto(u.id, u.name, u.email, u.age, u.createdAt, u.version) "
+            + "from User u where u.id in :ids order by u.id")
+    List<UserResponseDto> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Удаляет пользователей одним set-based запросом, минуя загрузку сущностей и каскады JPA.
+     *
+     * @return количество удалённых строк
+     */
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset-страница пользователей: диапазонный скан по первичному ключу
+     * вместо OFFSET, поэтому стоимость запроса не зависит от номера страницы.
+     * Slice запрашивает на одну строку больше лимита, чтобы определить наличие следующей страницы.
+     */
+    @Query("select new ru.astondevs.dto.UserResponseDto(u.id, u.name, u.email, u.age, u.createdAt, u.version) "
+            + "from User u where u.id > :after order by u.id")
+    Slice<UserResponseDto> findResponsesAfter(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Потоково читает всех пользователей по возрастанию ID через серверный курсор.
+     * Должен вызываться внутри транзакции, а полученный Stream — закрываться.
+     */
+    @Query("select new ru.astondevs.dto.UserResponseDto(u.id, u.name, u.email, u.age, u.createdAt, u.version) "
+            + "from User u order by u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<UserResponseDto> streamAllResponses();
+
+    /**
+     * Число пользователей по возрасту одной агрегирующей выборкой: не больше 122 строк при любом размере таблицы.
+     */
+    @Query("select new ru.astondevs.repository.UserAgeCount(u.age, count(u)) from User u group by u.age")
+    List<UserAgeCount> countByAge();
+
+    /**
+     * Число пользователей по дням регистрации одной агрегирующей выборкой.
+     */
+    @Query("select new ru.astondevs.repository.UserSignupCount(cast(u.createdAt as LocalDate), count(u)) "
+            + "from User u where u.createdAt is not null group by cast(u.createdAt as LocalDate)")
+    List<UserSignupCount> countByCreationDay();
+
+    /**
+     * Потоково читает все email для прогрева фильтра занятых адресов.
+     * Должен вызываться внутри транзакции, а полученный Stream — закрываться.
+     */
+    @Query("select u.email from User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<String> streamAllEmails();
 }
@@ -0,0 +1,34 @@
+package ru.astondevs.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.astondevs.entity.UserRow;
+
+/**
+ * Присваивает новой строке ID из последовательности users_seq, которую использует и Hibernate.
+ * Каждое значение nextval достаётся только одному вызывающему, поэтому ID не пересекаются
+ * с блоками, которые резервирует pooled-оптимизатор Hibernate.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class UserRowIdAssigner implements BeforeConvertCallback<UserRow> {
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Publisher<UserRow> onBeforeConvert(UserRow row, SqlIdentifier table) {
+        if (row.id() != null) {
+            return Mono.just(row);
+        }
+        return databaseClient.sql("select nextval('users_seq')")
+                .map(result -> result.get(0, Long.class))
+                .one()
+                .map(row::withId);
+    }
+}
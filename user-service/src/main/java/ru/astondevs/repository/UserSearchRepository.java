@@ -0,0 +1,47 @@
+package ru.astondevs.repository;
+
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import ru.astondevs.dto.UserField;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.entity.User;
+
+/**
+ * Поиск пользователей по произвольной комбинации предикатов с keyset-пагинацией по ID.
+ */
+public interface UserSearchRepository {
+
+    /**
+     * Возвращает DTO пользователей, удовлетворяющих спецификации, с ID больше курсора.
+     * Запрашивает на одну строку больше лимита, чтобы определить наличие следующей страницы.
+     *
+     * @param specification Фильтры поиска.
+     * @param after ID, после которого начинается страница.
+     * @param limit Размер страницы.
+     */
+    Slice<UserResponseDto> searchResponses(Specification<User> specification, long after, int limit);
+
+    /**
+     * То же, что {@link #searchResponses(Specification, long, int)}, но SELECT содержит только колонки
+     * запрошенных полей, а также ID и версию: они нужны для курсора, ссылок и ETag.
+     * Поля, не вошедшие в {@code fields}, в DTO остаются {@code null}.
+     *
+     * @param specification Фильтры поиска.
+     * @param after ID, после которого начинается страница.
+     * @param limit Размер страницы.
+     * @param fields Поля, которые нужно прочитать.
+     */
+    Slice<UserResponseDto> searchResponses(Specification<User> specification, long after, int limit,
+                                           Set<UserField> fields);
+
+    /**
+     * Возвращает единственного пользователя, удовлетворяющего спецификации, с колонками запрошенных полей,
+     * ID и версией.
+     *
+     * @param specification Фильтр по уникальному ключу.
+     * @param fields Поля, которые нужно прочитать.
+     */
+    Optional<UserResponseDto> findResponse(Specification<User> specification, Set<UserField> fields);
+}
@@ -0,0 +1,127 @@
+package ru.astondevs.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import ru.astondevs.dto.UserField;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.entity.User;
+
+/**
+ * Строит проекцию в {@link UserResponseDto} через Criteria API: JpaSpecificationExecutor умеет
+ * возвращать только сущности или страницы с OFFSET, а здесь нужны DTO и keyset-курсор.
+ * Выборка части полей идёт через Tuple: в SELECT попадают только колонки запрошенных полей.
+ */
+@RequiredArgsConstructor
+class UserSearchRepositoryImpl implements UserSearchRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<UserResponseDto> searchResponses(Specification<User> specification, long after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserResponseDto> query = cb.createQuery(UserResponseDto.class);
+        Root<User> user = query.from(User.class);
+
+        query.select(cb.construct(UserResponseDto.class,
+                        user.get("id"), user.get("name"), user.get("email"),
+                        user.get("age"), user.get("createdAt"), user.get("version")))
+                .where(where(cb, user, specification.toPredicate(user, query, cb), after))
+                .orderBy(cb.asc(user.get("id")));
+
+        List<UserResponseDto> rows = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > limit;
+        return new SliceImpl<>(hasNext ? rows.subList(0, limit) : rows, PageRequest.ofSize(limit), hasNext);
+    }
+
+    @Override
+    public Slice<UserResponseDto> searchResponses(Specification<User> specification, long after, int limit,
+                                                  Set<UserField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+
+        query.multiselect(selection(user, fields))
+                .where(where(cb, user, specification.toPredicate(user, query, cb), after))
+                .orderBy(cb.asc(user.get("id")));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        boolean hasNext = tuples.size() > limit;
+        List<UserResponseDto> rows = new ArrayList<>(Math.min(tuples.size(), limit));
+        for (int i = 0; i < tuples.size() && i < limit; i++) {
+            rows.add(toResponse(tuples.get(i), fields));
+        }
+        return new SliceImpl<>(rows, PageRequest.ofSize(limit), hasNext);
+    }
+
+    /**
+     * Условие курсора добавляется только начиная со второй страницы: на первой {@code id > 0} ничего
+     * не отсекает, но планировщик принимает его за диапазон по первичному ключу и обходит таблицу
+     * по нему вместо индекса фильтра.
+     */
+    private static Predicate where(CriteriaBuilder cb, Root<User> user, Predicate filter, long after) {
+        if (after <= 0) {
+            return filter == null ? cb.conjunction() : filter;
+        }
+        Predicate keyset = cb.greaterThan(user.get("id"), after);
+        return filter == null ? keyset : cb.and(filter, keyset);
+    }
+
+    @Override
+    public Optional<UserResponseDto> findResponse(Specification<User> specification, Set<UserField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+
+        Predicate filter = specification.toPredicate(user, query, cb);
+        query.multiselect(selection(user, fields));
+        if (filter != null) {
+            query.where(filter);
+        }
+
+        return entityManager.createQuery(query)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .map(tuple -> toResponse(tuple, fields));
+    }
+
+    private static List<Selection<?>> selection(Root<User> user, Set<UserField> fields) {
+        List<Selection<?>> selection = new ArrayList<>(fields.size() + 2);
+        selection.add(user.get("id").alias("id"));
+        selection.add(user.get("version").alias("version"));
+        for (UserField field : fields) {
+            if (field != UserField.ID) {
+                selection.add(user.get(field.property()).alias(field.property()));
+            }
+        }
+        return selection;
+    }
+
+    private static UserResponseDto toResponse(Tuple tuple, Set<UserField> fields) {
+        return new UserResponseDto(
+                tuple.get("id", Long.class),
+                fields.contains(UserField.NAME) ? tuple.get("name", String.class) : null,
+                fields.contains(UserField.EMAIL) ? tuple.get("email", String.class) : null,
+                fields.contains(UserField.AGE) ? tuple.get("age", Integer.class) : null,
+                fields.contains(UserField.CREATED_AT) ? tuple.get("createdAt", LocalDateTime.class) : null,
+                tuple.get("version", Long.class));
+    }
+}
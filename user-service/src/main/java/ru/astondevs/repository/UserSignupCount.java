@@ -0,0 +1,9 @@
+package ru.astondevs.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Количество пользователей, зарегистрированных в данный день.
+ */
+public record UserSignupCount(LocalDate day, long count) {
+}
@@ -0,0 +1,89 @@
+package ru.astondevs.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import ru.astondevs.dto.UserSearchCriteria;
+import ru.astondevs.entity.User;
+
+/**
+ * Предикаты поиска пользователей. Каждый предикат опирается на индекс таблицы users:
+ * возраст — ix_users_age_id, префикс имени — ix_users_name, дата создания — ix_users_created_at_id.
+ */
+public final class UserSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * Объединяет заданные фильтры критерия через AND.
+     */
+    public static Specification<User> matching(UserSearchCriteria criteria) {
+        List<Specification<User>> specifications = new ArrayList<>();
+        if (criteria.minAge() != null) {
+            specifications.add(ageAtLeast(criteria.minAge()));
+        }
+        if (criteria.maxAge() != null) {
+            specifications.add(ageAtMost(criteria.maxAge()));
+        }
+        if (criteria.namePrefix() != null && !criteria.namePrefix().isEmpty()) {
+            specifications.add(nameStartsWith(criteria.namePrefix()));
+        }
+        if (criteria.createdFrom() != null) {
+            specifications.add(createdAtOrAfter(criteria.createdFrom()));
+        }
+        if (criteria.createdTo() != null) {
+            specifications.add(createdBefore(criteria.createdTo()));
+        }
+        return Specification.allOf(specifications);
+    }
+
+    public static Specification<User> hasId(Long id) {
+        return (user, query, cb) -> cb.equal(user.get("id"), id);
+    }
+
+    public static Specification<User> hasEmail(String email) {
+        return (user, query, cb) -> cb.equal(user.get("email"), email);
+    }
+
+    public static Specification<User> ageAtLeast(int minAge) {
+        return (user, query, cb) -> cb.greaterThanOrEqualTo(user.get("age"), minAge);
+    }
+
+    public static Specification<User> ageAtMost(int maxAge) {
+        return (user, query, cb) -> cb.lessThanOrEqualTo(user.get("age"), maxAge);
+    }
+
+    /**
+     * LIKE с префиксом без ведущего шаблона, чтобы оставалась возможность диапазонного скана индекса.
+     * Символы шаблона во введённом префиксе экранируются.
+     * В PostgreSQL обычный B-tree индекс обслуживает LIKE 'x%' только при сортировке "C"; при другой
+     * сортировке базы ix_users_name нужен класс операторов text_pattern_ops, иначе поиск по префиксу
+     * читает всю таблицу. Такой индекс создаёт скрипт schema-postgresql.sql.
+     */
+    public static Specification<User> nameStartsWith(String prefix) {
+        String pattern = prefixPattern(prefix);
+        return (user, query, cb) -> cb.like(user.get("name"), pattern, LIKE_ESCAPE);
+    }
+
+    /**
+     * Шаблон LIKE для префикса с экранированием обратной косой чертой,
+     * которая в PostgreSQL и H2 является символом экранирования по умолчанию.
+     */
+    public static String prefixPattern(String prefix) {
+        return prefix
+                .replace(String.valueOf(LIKE_ESCAPE), "" + LIKE_ESCAPE + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_") + "%";
+    }
+
+    public static Specification<User> createdAtOrAfter(LocalDateTime from) {
+        return (user, query, cb) -> cb.greaterThanOrEqualTo(user.get("createdAt"), from);
+    }
+
+    public static Specification<User> createdBefore(LocalDateTime to) {
+        return (user, query, cb) -> cb.lessThan(user.get("createdAt"), to);
+    }
+}
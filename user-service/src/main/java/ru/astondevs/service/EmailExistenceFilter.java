@@ -0,0 +1,33 @@
+package ru.astondevs.service;
+
+import ru.astondevs.dto.UserEventDto;
+
+/**
+ * Негативный кэш занятых email в памяти процесса.
+ * Положительный ответ требует проверки запросом. Отрицательный позволяет не обращаться к базе, но точен
+ * лишь с задержкой: email, занятый на другом экземпляре, попадает в фильтр только из топика userEvents.
+ * Поэтому окончательно свободу email подтверждает уникальный индекс, а не фильтр.
+ */
+public interface EmailExistenceFilter {
+
+    /**
+     * Проверяет, может ли email быть занят.
+     * До окончания прогрева всегда возвращает {@code true}.
+     *
+     * @param email Электронная почта.
+     * @return {@code false}, если email точно свободен.
+     */
+    boolean mightExist(String email);
+
+    /**
+     * Заполняет фильтр всеми email из базы.
+     */
+    void warmUp();
+
+    /**
+     * Обрабатывает сообщение топика userEvents от любого экземпляра: добавляет email созданного пользователя.
+     *
+     * @param event Событие пользователя.
+     */
+    void onUserEvent(UserEventDto event);
+}
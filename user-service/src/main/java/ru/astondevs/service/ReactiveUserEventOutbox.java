@@ -0,0 +1,20 @@
+package ru.astondevs.service;
+
+import reactor.core.publisher.Mono;
+import ru.astondevs.dto.UserEventDto;
+
+/**
+ * Запись событий пользователей в таблицу user_outbox для реактивного веб-слоя.
+ * Отправляет события тот же ретранслятор {@link UserEventOutbox}, что и для блокирующего пути.
+ */
+public interface ReactiveUserEventOutbox {
+
+    /**
+     * Записывает событие в текущей реактивной транзакции.
+     *
+     * @param event DTO события пользователя.
+     * @return Mono с идентификатором события; завершается с
+     * {@link org.springframework.transaction.IllegalTransactionStateException}, если транзакции нет.
+     */
+    Mono<Long> append(UserEventDto event);
+}
@@ -0,0 +1,88 @@
+package ru.astondevs.service;
+
+import org.springframework.data.domain.Slice;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserSearchCriteria;
+import ru.astondevs.dto.UserUpdateDto;
+
+/**
+ * Реактивный сервис пользователей поверх R2DBC для профиля reactive.
+ * Повторяет контракт {@link UserService} и {@link UserServiceFacade}: публикует те же события приложения
+ * и сообщения Kafka, поэтому кэши, индексы и уведомления работают одинаково в обоих веб-слоях.
+ * Ошибки передаются сигналом onError с теми же типами исключений.
+ */
+public interface ReactiveUserService {
+
+    /**
+     * Создаёт пользователя и публикует событие о создании в Kafka.
+     *
+     * @param dto Данные для создания пользователя.
+     * @return DTO созданного пользователя.
+     */
+    Mono<UserResponseDto> createUser(UserCreateDto dto);
+
+    /**
+     * @param id Идентификатор пользователя.
+     * @return DTO пользователя или ResourceNotFoundException.
+     */
+    Mono<UserResponseDto> getUserById(Long id);
+
+    /**
+     * @param email Email пользователя.
+     * @return DTO пользователя или ResourceNotFoundException.
+     */
+    Mono<UserResponseDto> getUserByEmail(String email);
+
+    /**
+     * Возвращает keyset-страницу пользователей по возрастанию ID.
+     *
+     * @param after ID, после которого начинается страница; null — с начала.
+     * @param limit Размер страницы.
+     * @return Страница с признаком наличия следующей.
+     */
+    Mono<Slice<UserResponseDto>> getAllUsers(Long after, int limit);
+
+    /**
+     * Ищет пользователей по фильтрам критерия, как {@link UserService#searchUsers}.
+     *
+     * @param criteria Фильтры; незаданные поля не ограничивают выборку.
+     * @param after    ID, после которого начинается страница; null — с начала.
+     * @param limit    Размер страницы.
+     * @return Страница с признаком наличия следующей.
+     */
+    Mono<Slice<UserResponseDto>> searchUsers(UserSearchCriteria criteria, Long after, int limit);
+
+    /**
+     * Ищет пользователей по подстроке имени через индекс имён и загружает их одним запросом.
+     *
+     * @param query Подстрока или имя с опечатками.
+     * @param limit Максимальное количество пользователей.
+     * @return DTO пользователей по убыванию качества совпадения.
+     */
+    Flux<UserResponseDto> findUsersByName(String query, int limit);
+
+    /**
+     * Потоково отдаёт всех пользователей по возрастанию ID с учётом спроса подписчика.
+     */
+    Flux<UserResponseDto> exportAllUsers();
+
+    /**
+     * Частично обновляет пользователя.
+     *
+     * @param id              Идентификатор пользователя.
+     * @param dto             Данные для обновления.
+     * @param expectedVersion Версия из If-Match; null — без проверки версии.
+     * @return DTO обновлённого пользователя или PreconditionFailedException при несовпадении версии.
+     */
+    Mono<UserResponseDto> updateUser(Long id, UserUpdateDto dto, Long expectedVersion);
+
+    /**
+     * Удаляет пользователя и публикует событие об удалении в Kafka.
+     *
+     * @param id Идентификатор пользователя.
+     */
+    Mono<Void> deleteUser(Long id);
+}
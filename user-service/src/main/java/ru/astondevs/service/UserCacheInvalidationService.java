@@ -0,0 +1,23 @@
+package ru.astondevs.service;
+
+/**
+ * Сервис согласованной инвалидации кэша пользователей между экземплярами приложения.
+ * Каждый экземпляр публикует ID изменённых пользователей в отдельный топик Kafka
+ * и вытесняет их из локального кэша при получении сообщений от любого экземпляра.
+ */
+public interface UserCacheInvalidationService {
+
+    /**
+     * Публикует сообщение об инвалидации пользователя для всех экземпляров.
+     *
+     * @param id Идентификатор пользователя.
+     */
+    void publishInvalidation(Long id);
+
+    /**
+     * Обрабатывает сообщение топика userCacheInvalidation и вытесняет пользователя из локального кэша.
+     *
+     * @param message ID пользователя в строковом виде.
+     */
+    void evictLocally(String message);
+}
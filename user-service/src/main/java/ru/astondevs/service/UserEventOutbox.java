@@ -0,0 +1,59 @@
+package ru.astondevs.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import ru.astondevs.dto.UserEventDto;
+
+/**
+ * Исходящие события пользователей (transactional outbox): событие сохраняется в базе вместе
+ * с изменением пользователя и отправляется в Kafka фоновым ретранслятором уже после коммита.
+ * Доставка — не менее одного раза: событие, подтверждение которого не дошло, отправляется повторно.
+ */
+public interface UserEventOutbox {
+
+    /**
+     * Записывает событие в таблицу user_outbox в текущей транзакции.
+     *
+     * @param event DTO события пользователя.
+     * @return Идентификатор события в outbox для {@link #awaitSent(long, Duration)}.
+     * @throws org.springframework.transaction.IllegalTransactionStateException Если транзакции нет.
+     */
+    long append(UserEventDto event);
+
+    /**
+     * Записывает события одной пачкой в текущей транзакции, сохраняя их порядок.
+     *
+     * @param events DTO событий пользователей.
+     * @throws org.springframework.transaction.IllegalTransactionStateException Если транзакции нет.
+     */
+    void appendAll(List<UserEventDto> events);
+
+    /**
+     * Ждёт, пока событие будет подтверждено брокером. Событие, отправленное ретранслятором этого
+     * экземпляра, завершает результат сразу после отметки, отправленное другим экземпляром —
+     * на ближайшем проходе, то есть не позже чем через users.outbox.poll-interval.
+     *
+     * @param eventId Идентификатор, возвращённый {@link #append(UserEventDto)}.
+     * @param timeout Сколько ждать подтверждения.
+     * @return Завершается после отметки события отправленным или с TimeoutException по истечении timeout;
+     * событие при этом остаётся в очереди и будет отправлено позже.
+     */
+    CompletableFuture<Void> awaitSent(long eventId, Duration timeout);
+
+    /**
+     * Забирает пачку неотправленных событий, отправляет их в Kafka без ожидания подтверждений
+     * друг друга и отмечает отправленными подтверждённый брокером префикс пачки; остальные
+     * возвращаются в очередь.
+     *
+     * @return Количество подтверждённых событий.
+     */
+    int relayPending();
+
+    /**
+     * Удаляет отправленные события старше users.outbox.retention.
+     *
+     * @return Количество удалённых событий.
+     */
+    int purgeSent();
+}
@@ -0,0 +1,32 @@
+package ru.astondevs.service;
+
+import java.util.List;
+
+/**
+ * Индекс имён пользователей в памяти процесса для поиска по подстроке с допуском опечаток.
+ */
+public interface UserNameIndex {
+
+    /**
+     * Возвращает ID пользователей, чьи имена лучше всего совпадают с запросом.
+     * До окончания прогрева результат пуст, а изменения других экземпляров видны только
+     * после очередного перестроения.
+     *
+     * @param query Подстрока или имя с опечатками.
+     * @param limit Максимальное количество ID.
+     * @return ID по убыванию качества совпадения.
+     */
+    List<Long> search(String query, int limit);
+
+    /**
+     * Исключает пользователя из индекса, например если он уже удалён из базы.
+     *
+     * @param id Идентификатор пользователя.
+     */
+    void evict(Long id);
+
+    /**
+     * Строит индекс по всем пользователям из базы и заменяет им текущий.
+     */
+    void warmUp();
+}
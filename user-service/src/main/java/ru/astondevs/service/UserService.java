@@ -1,9 +1,16 @@
 package ru.astondevs.service;
 
 import jakarta.validation.Valid;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Slice;
+import ru.astondevs.dto.UserBatchItemResult;
 import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserField;
 import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserSearchCriteria;
 import ru.astondevs.dto.UserUpdateDto;
 
 /**
@@ -20,6 +27,18 @@ public interface UserService {
      */
     UserResponseDto createUser(@Valid UserCreateDto dto);
 
+    /**
+     * Создаёт пользователей одной транзакцией с пакетной вставкой.
+     * Некорректные элементы и занятые email не прерывают пакет, а попадают в результат как ошибки.
+     * Email, который фильтр счёл свободным, но уже занятый в базе, даёт DataIntegrityViolationException
+     * при фиксации, и вся транзакция откатывается.
+     *
+     * @param dtos Данные для создания пользователей.
+     * @param startIndex Позиция первого элемента в исходном запросе.
+     * @return Результаты по каждому элементу в порядке {@code dtos}.
+     */
+    List<UserBatchItemResult> createUsers(List<UserCreateDto> dtos, int startIndex);
+
     /**
      * Возвращает пользователя по ID.
      *
@@ -30,11 +49,97 @@ public interface UserService {
     UserResponseDto getUserById(Long id);
 
     /**
-     * Возвращает список всех пользователей.
+     * Возвращает пользователя по ID, читая из базы только колонки запрошенных полей.
+     * ID и версия читаются всегда, остальные поля вне {@code fields} остаются {@code null}.
+     * Запрос всех полей обслуживается так же, как {@link #getUserById(Long)}, включая кэш.
+     *
+     * @param id Идентификатор пользователя.
+     * @param fields Поля, которые нужно прочитать.
+     * @return DTO найденного пользователя.
+     * @throws ru.astondevs.exception.ResourceNotFoundException Если пользователь не найден.
+     */
+    UserResponseDto getUserById(Long id, Set<UserField> fields);
+
+    /**
+     * Возвращает пользователя по email.
+     *
+     * @param email Электронная почта пользователя.
+     * @return DTO найденного пользователя.
+     * @throws ru.astondevs.exception.ResourceNotFoundException Если пользователь не найден.
+     */
+    UserResponseDto getUserByEmail(String email);
+
+    /**
+     * Возвращает пользователя по email, читая из базы только колонки запрошенных полей, ID и версию.
+     *
+     * @param email Электронная почта пользователя.
+     * @param fields Поля, которые нужно прочитать.
+     * @return DTO найденного пользователя.
+     * @throws ru.astondevs.exception.ResourceNotFoundException Если пользователь не найден.
+     */
+    UserResponseDto getUserByEmail(String email, Set<UserField> fields);
+
+    /**
+     * Возвращает текущую версию пользователя скалярным запросом, не загружая сущность.
+     *
+     * @param id Идентификатор пользователя.
+     * @return Версия записи.
+     * @throws ru.astondevs.exception.ResourceNotFoundException Если пользователь не найден.
+     */
+    Long getUserVersion(Long id);
+
+    /**
+     * Возвращает страницу пользователей, упорядоченных по ID (keyset-пагинация).
      *
-     * @return Список DTO пользователей.
+     * @param after ID, после которого начинается страница; {@code null} — с начала.
+     * @param limit Максимальное количество пользователей на странице.
+     * @return Срез DTO пользователей с признаком наличия следующей страницы.
+     * @throws IllegalArgumentException Если курсор или лимит некорректны.
      */
-    List<UserResponseDto> getAllUsers();
+    Slice<UserResponseDto> getAllUsers(Long after, int limit);
+
+    /**
+     * Возвращает страницу пользователей, как {@link #getAllUsers(Long, int)}, читая из базы
+     * только колонки запрошенных полей, ID и версию.
+     *
+     * @param after ID, после которого начинается страница; {@code null} — с начала.
+     * @param limit Максимальное количество пользователей на странице.
+     * @param fields Поля, которые нужно прочитать.
+     * @return Срез DTO пользователей с признаком наличия следующей страницы.
+     * @throws IllegalArgumentException Если курсор или лимит некорректны.
+     */
+    Slice<UserResponseDto> getAllUsers(Long after, int limit, Set<UserField> fields);
+
+    /**
+     * Возвращает страницу пользователей, подходящих под фильтры, упорядоченных по ID (keyset-пагинация).
+     *
+     * @param criteria Фильтры по возрасту, префиксу имени и дате создания.
+     * @param after ID, после которого начинается страница; {@code null} — с начала.
+     * @param limit Максимальное количество пользователей на странице.
+     * @return Срез DTO пользователей с признаком наличия следующей страницы.
+     * @throws IllegalArgumentException Если фильтры, курсор или лимит некорректны.
+     */
+    Slice<UserResponseDto> searchUsers(UserSearchCriteria criteria, Long after, int limit);
+
+    /**
+     * Ищет пользователей, как {@link #searchUsers(UserSearchCriteria, Long, int)}, читая из базы
+     * только колонки запрошенных полей, ID и версию.
+     *
+     * @param criteria Фильтры по возрасту, префиксу имени и дате создания.
+     * @param after ID, после которого начинается страница; {@code null} — с начала.
+     * @param limit Максимальное количество пользователей на странице.
+     * @param fields Поля, которые нужно прочитать.
+     * @return Срез DTO пользователей с признаком наличия следующей страницы.
+     * @throws IllegalArgumentException Если фильтры, курсор или лимит некорректны.
+     */
+    Slice<UserResponseDto> searchUsers(UserSearchCriteria criteria, Long after, int limit, Set<UserField> fields);
+
+    /**
+     * Последовательно передаёт всех пользователей в обработчик, не накапливая их в памяти.
+     *
+     * @param consumer Обработчик, вызываемый для каждого пользователя по возрастанию ID.
+     */
+    void exportAllUsers(Consumer<UserResponseDto> consumer);
 
     /**
      * Обновляет данные пользователя.
@@ -47,6 +152,20 @@ public interface UserService {
      */
     UserResponseDto updateUser(Long id, @Valid UserUpdateDto dto);
 
+    /**
+     * Обновляет данные пользователя при условии, что его текущая версия совпадает с ожидаемой.
+     * Изменение строки параллельным запросом между чтением и записью также обнаруживается
+     * по версии, без блокировки строки.
+     *
+     * @param id Идентификатор пользователя.
+     * @param dto Данные для обновления.
+     * @param expectedVersion Ожидаемая версия из If-Match; {@code null} — без проверки.
+     * @return DTO обновлённого пользователя.
+     * @throws ru.astondevs.exception.PreconditionFailedException Если версия не совпадает.
+     * @throws ru.astondevs.exception.ResourceNotFoundException Если пользователь не найден.
+     */
+    UserResponseDto updateUser(Long id, @Valid UserUpdateDto dto, Long expectedVersion);
+
     /**
      * Удаляет пользователя по ID.
      *
@@ -63,4 +182,13 @@ public interface UserService {
      * @throws ru.astondevs.exception.ResourceNotFoundException Если пользователь не найден.
      */
     UserResponseDto deleteAndReturnUserById(Long id);
+
+    /**
+     * Удаляет пользователей одним запросом {@code DELETE ... WHERE id IN (...)}.
+     * Несуществующие ID пропускаются.
+     *
+     * @param ids Идентификаторы пользователей.
+     * @return DTO удалённых пользователей, упорядоченные по ID.
+     */
+    List<UserResponseDto> deleteUsersByIds(Collection<Long> ids);
 }
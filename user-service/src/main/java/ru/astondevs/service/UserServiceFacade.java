@@ -1,15 +1,20 @@
 package ru.astondevs.service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import ru.astondevs.dto.UserBatchCreateResult;
+import ru.astondevs.dto.UserBatchDeleteResult;
 import ru.astondevs.dto.UserCreateDto;
 import ru.astondevs.dto.UserResponseDto;
 
 /**
- * Фасадный сервис для объединения операций с пользователями и взаимодействия с Kafka.
+ * Фасадный сервис для объединения операций с пользователями, индексов в памяти и взаимодействия с Kafka.
  */
 public interface UserServiceFacade {
 
     /**
-     * Создаёт пользователя и публикует событие о создании в Kafka.
+     * Создаёт пользователя и в той же транзакции записывает событие о создании в outbox;
+     * в Kafka его отправляет {@link UserEventOutbox} после коммита.
      *
      * @param dto Данные для создания пользователя.
      * @return DTO созданного пользователя.
@@ -17,9 +22,63 @@ public interface UserServiceFacade {
     UserResponseDto createUserAndPublishEvent(UserCreateDto dto);
 
     /**
-     * Удаляет пользователя и публикует событие об удалении в Kafka.
+     * Создаёт пользователя на пуле асинхронных операций и в той же транзакции записывает событие в outbox,
+     * не занимая вызывающий поток. Результат завершается, когда ретранслятор отметит событие подтверждённым
+     * брокером; если этого не случилось вовремя, пользователь остаётся созданным, а событие — в очереди.
+     *
+     * @param dto Данные для создания пользователя.
+     * @return DTO созданного пользователя; завершается с TimeoutException, если операция не уложилась
+     * в users.async.timeout.
+     * @throws java.util.concurrent.RejectedExecutionException Если очередь пула заполнена.
+     */
+    CompletableFuture<UserResponseDto> createUserAndPublishEventAsync(UserCreateDto dto);
+
+    /**
+     * Создаёт пользователей частями, каждая часть — в своей транзакции вместе с событиями
+     * о создании в outbox; в Kafka их отправляет {@link UserEventOutbox} после коммита.
+     *
+     * @param dtos Данные для создания пользователей.
+     * @return Итог с результатом по каждому элементу запроса.
+     * @throws IllegalArgumentException Если пакет пуст или превышает допустимый размер.
+     */
+    UserBatchCreateResult createUsersAndPublishEvents(List<UserCreateDto> dtos);
+
+    /**
+     * Удаляет пользователя и в той же транзакции записывает событие об удалении в outbox.
      *
      * @param id Идентификатор пользователя.
      */
     void deleteUserAndPublishEvent(Long id);
-}
\ No newline at end of file
+
+    /**
+     * Удаляет пользователя на пуле асинхронных операций и публикует событие об удалении,
+     * как {@link #createUserAndPublishEventAsync(UserCreateDto)}.
+     *
+     * @param id Идентификатор пользователя.
+     * @return Завершается по подтверждению события брокером, с ResourceNotFoundException для неизвестного ID
+     * или с TimeoutException по истечении users.async.timeout.
+     * @throws java.util.concurrent.RejectedExecutionException Если очередь пула заполнена.
+     */
+    CompletableFuture<Void> deleteUserAndPublishEventAsync(Long id);
+
+    /**
+     * Удаляет пользователей частями set-based запросами и для каждой части
+     * в той же транзакции записывает события об удалении в outbox одной пачкой.
+     *
+     * @param ids Идентификаторы пользователей; повторы игнорируются.
+     * @return Удалённые и не найденные ID.
+     * @throws IllegalArgumentException Если список пуст, слишком велик или содержит null.
+     */
+    UserBatchDeleteResult deleteUsersAndPublishEvents(List<Long> ids);
+
+    /**
+     * Ищет пользователей по подстроке имени с допуском опечаток через индекс имён
+     * и загружает найденных тем же путём, что и запрос по ID.
+     *
+     * @param query Подстрока или имя с опечатками.
+     * @param limit Максимальное количество пользователей.
+     * @return DTO пользователей по убыванию качества совпадения.
+     * @throws IllegalArgumentException Если запрос пуст или лимит некорректен.
+     */
+    List<UserResponseDto> findUsersByName(String query, int limit);
+}
@@ -0,0 +1,25 @@
+package ru.astondevs.service;
+
+import ru.astondevs.dto.UserStatsDto;
+
+/**
+ * Статистика пользователей на счётчиках в памяти процесса. Счётчики заполняются агрегирующими
+ * запросами при старте и периодически заново, а между этим обновляются событиями создания, изменения
+ * и удаления этого экземпляра, поэтому чтение статистики не обращается к базе. Изменения других
+ * экземпляров видны после очередного заполнения.
+ */
+public interface UserStatistics {
+
+    /**
+     * Возвращает текущие значения счётчиков. Счётчики читаются по очереди без общей блокировки,
+     * поэтому при параллельной записи итог и гистограмма могут на мгновение расходиться на единицы.
+     *
+     * @return Количество пользователей, гистограмма возрастов и регистрации по дням.
+     */
+    UserStatsDto snapshot();
+
+    /**
+     * Заполняет новые счётчики агрегирующими запросами к базе и заменяет ими текущие.
+     */
+    void seed();
+}
@@ -0,0 +1,166 @@
+package ru.astondevs.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.astondevs.config.EmailFilterProperties;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.event.UserCreatedEvent;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.service.EmailExistenceFilter;
+import ru.astondevs.util.ScalableBloomFilter;
+
+/**
+ * Email добавляются в фильтр сразу при публикации события, ещё до коммита: откат транзакции
+ * оставит лишь ложное срабатывание, которое отсеет запрос к базе. Email, созданные другими экземплярами,
+ * приходят из топика userEvents после ретрансляции outbox; до этого фильтр может ошибочно считать их
+ * свободными, и такой дубликат отклоняет уникальный индекс.
+ * Из фильтра Блума нельзя удалить элемент, поэтому удаления только подсчитываются, и при накоплении
+ * заданной доли фильтр строится заново в фоне. Редкий пропуск email, созданного во время перестроения,
+ * безопасен: дубликат всё равно отклонит уникальный индекс ux_users_email.
+ * Перестроение выполняется на собственном однопоточном исполнителе, который останавливается
+ * вместе с контекстом.
+ */
+@Slf4j
+@Service
+public class EmailExistenceFilterImpl implements EmailExistenceFilter, DisposableBean {
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final EmailFilterProperties properties;
+    private final AtomicLong deletedSinceBuild = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("email-filter-rebuild-"));
+    private volatile ScalableBloomFilter filter;
+    private volatile ScalableBloomFilter nextFilter;
+    private volatile boolean ready;
+
+    public EmailExistenceFilterImpl(UserRepository userRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    EmailFilterProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.filter = newFilter();
+        Gauge.builder("users.email.filter.fill.ratio", this, impl -> impl.filter.fillRatio())
+                .description("Доля установленных битов фильтра Блума по email")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.false.positive.probability", this,
+                        impl -> impl.filter.expectedFalsePositiveProbability())
+                .description("Оценка вероятности ложного срабатывания фильтра Блума по email")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean mightExist(String email) {
+        return !ready || filter.mightContain(email);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.nanoTime();
+        ScalableBloomFilter built = newFilter();
+        nextFilter = built;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(built::put);
+                }
+            });
+            filter = built;
+            deletedSinceBuild.set(0);
+            ready = true;
+        } finally {
+            nextFilter = null;
+        }
+        log.info("Email filter built with {} emails in {} ms, expected false positive probability {}",
+                built.approximateElementCount(), (System.nanoTime() - started) / 1_000_000,
+                built.expectedFalsePositiveProbability());
+    }
+
+    /**
+     * Уникальная группа на каждый экземпляр: событие получает каждый узел, как и в кэш-инвалидации.
+     * Свои же события приходят повторно и ничего не меняют. Удаления других узлов не учитываются:
+     * они лишь оставляют ложные срабатывания до следующего перестроения.
+     */
+    @Override
+    @KafkaListener(
+            topics = "${spring.kafka.topics.userEvents}",
+            groupId = "user-email-filter-${random.uuid}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void onUserEvent(UserEventDto event) {
+        if ("create".equals(event.operation()) && event.email() != null) {
+            add(event.email());
+        }
+    }
+
+    @EventListener
+    public void onUserCreated(UserCreatedEvent event) {
+        add(event.user().email());
+    }
+
+    @EventListener
+    public void onUserUpdated(UserUpdatedEvent event) {
+        add(event.user().email());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        long deleted = deletedSinceBuild.incrementAndGet();
+        if (ready && deleted > filter.approximateElementCount() * properties.getRebuildDeletedRatio()
+                && rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuildExecutor.execute(this::rebuild);
+            } catch (RejectedExecutionException e) {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void add(String email) {
+        ScalableBloomFilter building = nextFilter;
+        if (building != null) {
+            building.put(email);
+        }
+        filter.put(email);
+    }
+
+    private void rebuild() {
+        try {
+            warmUp();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild email filter: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private ScalableBloomFilter newFilter() {
+        return new ScalableBloomFilter(properties.getExpectedInsertions(), properties.getFalsePositiveProbability());
+    }
+}
@@ -0,0 +1,45 @@
+package ru.astondevs.service.impl;
+
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.service.ReactiveUserEventOutbox;
+
+/**
+ * Пишет строку той же схемы, что и {@link ru.astondevs.entity.UserOutboxEvent}. ID берётся из
+ * user_outbox_seq по одному значению nextval, как в {@link ru.astondevs.repository.UserRowIdAssigner},
+ * поэтому не пересекается с блоками, которые резервирует Hibernate.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserEventOutboxImpl implements ReactiveUserEventOutbox {
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Long> append(UserEventDto event) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isActualTransactionActive)
+                .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+                .switchIfEmpty(Mono.error(() ->
+                        new IllegalTransactionStateException("Событие outbox пишется только в транзакции")))
+                .then(databaseClient.sql("select nextval('user_outbox_seq')")
+                        .map(result -> result.get(0, Long.class))
+                        .one())
+                .flatMap(id -> databaseClient.sql("insert into user_outbox (id, operation, email, created_at)"
+                                + " values (:id, :operation, :email, :createdAt)")
+                        .bind("id", id)
+                        .bind("operation", event.operation())
+                        .bind("email", event.email())
+                        .bind("createdAt", LocalDateTime.now())
+                        .then()
+                        .thenReturn(id));
+    }
+}
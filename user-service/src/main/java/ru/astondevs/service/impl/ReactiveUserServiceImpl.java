@@ -0,0 +1,267 @@
+package ru.astondevs.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserSearchCriteria;
+import ru.astondevs.dto.UserUpdateDto;
+import ru.astondevs.entity.UserRow;
+import ru.astondevs.event.UserCreatedEvent;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
+import ru.astondevs.exception.DuplicateEmailException;
+import ru.astondevs.exception.PreconditionFailedException;
+import ru.astondevs.exception.ResourceNotFoundException;
+import ru.astondevs.repository.ReactiveUserRepository;
+import ru.astondevs.repository.UserSpecifications;
+import ru.astondevs.service.EmailExistenceFilter;
+import ru.astondevs.service.ReactiveUserEventOutbox;
+import ru.astondevs.service.ReactiveUserService;
+import ru.astondevs.service.UserNameIndex;
+import ru.astondevs.util.UserConverter;
+import ru.astondevs.util.UserValidator;
+
+/**
+ * Создание и удаление пишут строку пользователя и событие в user_outbox одной R2DBC-транзакцией,
+ * а события приложения публикуются уже после коммита на boundedElastic: слушатели синхронные и могут
+ * заблокироваться в KafkaTemplate.send, поэтому не должны выполняться на потоке event loop. Гонки при регистрации закрывает уникальный
+ * индекс email, а параллельные изменения — версия строки, как и в {@link UserServiceImpl}.
+ * Чтения идут мимо кэша Caffeine: кэш обслуживает блокирующий путь через JPA.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+    private final ReactiveUserRepository userRepository;
+    private final R2dbcEntityOperations entityOperations;
+    private final UserValidator userValidator;
+    private final UserConverter userConverter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmailExistenceFilter emailExistenceFilter;
+    private final UserNameIndex userNameIndex;
+    private final ReactiveUserEventOutbox userEventOutbox;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Менеджер транзакций R2DBC не регистрируется бином, чтобы @Transactional блокирующих сервисов
+     * по-прежнему однозначно находил JpaTransactionManager.
+     */
+    public ReactiveUserServiceImpl(ReactiveUserRepository userRepository, R2dbcEntityOperations entityOperations,
+                                   UserValidator userValidator, UserConverter userConverter,
+                                   ApplicationEventPublisher eventPublisher,
+                                   EmailExistenceFilter emailExistenceFilter, UserNameIndex userNameIndex,
+                                   ReactiveUserEventOutbox userEventOutbox, ConnectionFactory connectionFactory) {
+        this.userRepository = userRepository;
+        this.entityOperations = entityOperations;
+        this.userValidator = userValidator;
+        this.userConverter = userConverter;
+        this.eventPublisher = eventPublisher;
+        this.emailExistenceFilter = emailExistenceFilter;
+        this.userNameIndex = userNameIndex;
+        this.userEventOutbox = userEventOutbox;
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Override
+    public Mono<UserResponseDto> createUser(UserCreateDto dto) {
+        log.info("Creating user with email: {}", dto.email());
+        return Mono.defer(() -> validateEmailIsFree(dto.email()))
+                .then(Mono.defer(() -> userRepository.save(userConverter.toRow(dto))))
+                .flatMap(row -> userEventOutbox.append(new UserEventDto("create", dto.email()))
+                        .thenReturn(userConverter.fromRow(row)))
+                .as(transactionalOperator::transactional)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(createdUser -> {
+                    log.info("Created user with id: {}", createdUser.id());
+                    eventPublisher.publishEvent(new UserCreatedEvent(createdUser));
+                });
+    }
+
+    @Override
+    public Mono<UserResponseDto> getUserById(Long id) {
+        return findRowOrError(id).map(userConverter::fromRow);
+    }
+
+    @Override
+    public Mono<UserResponseDto> getUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Пользователь не найден")))
+                .map(userConverter::fromRow);
+    }
+
+    @Override
+    public Mono<Slice<UserResponseDto>> getAllUsers(Long after, int limit) {
+        return Mono.defer(() -> {
+            userValidator.validatePageRequest(after, limit);
+            long cursor = after == null ? 0L : after;
+            return toSlice(userRepository.findAfter(cursor, limit + 1), limit);
+        });
+    }
+
+    @Override
+    public Mono<Slice<UserResponseDto>> searchUsers(UserSearchCriteria criteria, Long after, int limit) {
+        return Mono.defer(() -> {
+            userValidator.validatePageRequest(after, limit);
+            userValidator.validateSearchCriteria(criteria);
+            long cursor = after == null ? 0L : after;
+            Query query = Query.query(matching(criteria, cursor))
+                    .sort(Sort.by("id"))
+                    .limit(limit + 1);
+            return toSlice(entityOperations.select(query, UserRow.class), limit);
+        });
+    }
+
+    @Override
+    public Flux<UserResponseDto> findUsersByName(String query, int limit) {
+        return Mono.fromCallable(() -> {
+                    userValidator.validateNameQuery(query, limit);
+                    return userNameIndex.search(query, limit);
+                })
+                .flatMapMany(ids -> userRepository.findAllById(ids)
+                        .collectMap(UserRow::id)
+                        .flatMapIterable(rows -> inIndexOrder(ids, rows)))
+                .map(userConverter::fromRow);
+    }
+
+    @Override
+    public Flux<UserResponseDto> exportAllUsers() {
+        log.info("Exporting all users");
+        return userRepository.findAllOrderById().map(userConverter::fromRow);
+    }
+
+    @Override
+    public Mono<UserResponseDto> updateUser(Long id, UserUpdateDto dto, Long expectedVersion) {
+        log.info("Updating user id: {}", id);
+        return Mono.fromRunnable(() -> userValidator.validateUpdateHasFields(dto))
+                .then(Mono.defer(() -> dto.email() != null ? validateEmailIsFree(dto.email()) : Mono.<Void>empty()))
+                .then(findRowOrError(id))
+                .flatMap(row -> {
+                    if (expectedVersion != null && !expectedVersion.equals(row.version())) {
+                        log.warn("Version mismatch for user id {}: expected {}, actual {}",
+                                id, expectedVersion, row.version());
+                        return Mono.error(new PreconditionFailedException("Версия пользователя не совпадает с If-Match"));
+                    }
+                    UserResponseDto previousUser = userConverter.fromRow(row);
+                    return userRepository.save(userConverter.updateRow(row, dto))
+                            .map(userConverter::fromRow)
+                            .publishOn(Schedulers.boundedElastic())
+                            .doOnNext(updatedUser -> {
+                                eventPublisher.publishEvent(new UserUpdatedEvent(updatedUser, previousUser));
+                                log.info("Updated user id: {}", id);
+                            });
+                })
+                .onErrorMap(OptimisticLockingFailureException.class, e -> {
+                    if (expectedVersion == null) {
+                        return e;
+                    }
+                    log.warn("User id {} was modified concurrently after version {}", id, expectedVersion);
+                    return new PreconditionFailedException("Версия пользователя не совпадает с If-Match");
+                });
+    }
+
+    @Override
+    public Mono<Void> deleteUser(Long id) {
+        log.info("Deleting user and publishing event for user id: {}", id);
+        return findRowOrError(id)
+                .flatMap(row -> userRepository.delete(row)
+                        .then(userEventOutbox.append(new UserEventDto("delete", row.email())))
+                        .thenReturn(userConverter.fromRow(row)))
+                .as(transactionalOperator::transactional)
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(deletedUser -> eventPublisher.publishEvent(new UserDeletedEvent(deletedUser)))
+                .then();
+    }
+
+    /**
+     * Ранний отказ для занятого email, как в {@link UserValidator}: запрос к базе только при срабатывании фильтра.
+     */
+    private Mono<Void> validateEmailIsFree(String email) {
+        if (!emailExistenceFilter.mightExist(email)) {
+            return Mono.empty();
+        }
+        return userRepository.existsByEmail(email)
+                .flatMap(exists -> {
+                    if (exists) {
+                        log.error("Email already exists: {}", email);
+                        return Mono.error(new DuplicateEmailException("Email уже существует"));
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<UserRow> findRowOrError(Long id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Пользователь не найден")));
+    }
+
+    private Mono<Slice<UserResponseDto>> toSlice(Flux<UserRow> rows, int limit) {
+        return rows.map(userConverter::fromRow)
+                .collectList()
+                .map(users -> {
+                    boolean hasNext = users.size() > limit;
+                    List<UserResponseDto> content = hasNext ? users.subList(0, limit) : users;
+                    return new SliceImpl<>(content, PageRequest.ofSize(limit), hasNext);
+                });
+    }
+
+    /**
+     * Те же фильтры, что и {@link UserSpecifications#matching}, в виде критерия R2DBC вместе с курсором страницы.
+     */
+    private static Criteria matching(UserSearchCriteria criteria, long cursor) {
+        Criteria result = Criteria.where("id").greaterThan(cursor);
+        if (criteria.minAge() != null) {
+            result = result.and("age").greaterThanOrEquals(criteria.minAge());
+        }
+        if (criteria.maxAge() != null) {
+            result = result.and("age").lessThanOrEquals(criteria.maxAge());
+        }
+        if (criteria.namePrefix() != null && !criteria.namePrefix().isEmpty()) {
+            result = result.and("name").like(UserSpecifications.prefixPattern(criteria.namePrefix()));
+        }
+        if (criteria.createdFrom() != null) {
+            result = result.and("createdAt").greaterThanOrEquals(criteria.createdFrom());
+        }
+        if (criteria.createdTo() != null) {
+            result = result.and("createdAt").lessThan(criteria.createdTo());
+        }
+        return result;
+    }
+
+    /**
+     * Восстанавливает порядок ранжирования индекса и вытесняет из индекса уже удалённых пользователей.
+     */
+    private List<UserRow> inIndexOrder(List<Long> ids, Map<Long, UserRow> rows) {
+        return ids.stream()
+                .map(id -> {
+                    UserRow row = rows.get(id);
+                    if (row == null) {
+                        log.warn("Evicting stale user {} from name index", id);
+                        userNameIndex.evict(id);
+                    }
+                    return row;
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,80 @@
+package ru.astondevs.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.astondevs.config.KafkaConfig;
+import ru.astondevs.config.UserCacheConfig;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
+import ru.astondevs.service.UserCacheInvalidationService;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserCacheInvalidationServiceImpl implements UserCacheInvalidationService {
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaConfig kafkaConfig;
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        publishInvalidation(event.user().id());
+    }
+
+    /**
+     * Пакетное удаление не проходит через @CacheEvict, поэтому локальная запись вытесняется здесь же,
+     * не дожидаясь возврата собственного широковещательного сообщения.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        evict(event.user().id());
+        publishInvalidation(event.user().id());
+    }
+
+    @Override
+    public void publishInvalidation(Long id) {
+        String topic = kafkaConfig.getUserCacheInvalidation();
+        kafkaTemplate.send(topic, String.valueOf(id))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to publish cache invalidation for user id {}: {}", id, ex.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Уникальная группа на каждый экземпляр превращает топик в широковещательный канал:
+     * сообщение получает каждый узел, а не один из группы. Пропущенные до старта
+     * сообщения не нужны, поэтому чтение начинается с конца топика.
+     */
+    @Override
+    @KafkaListener(
+            topics = "${spring.kafka.topics.userCacheInvalidation}",
+            groupId = "user-cache-${random.uuid}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void evictLocally(String message) {
+        Long id;
+        try {
+            id = Long.valueOf(message);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid cache invalidation message: {}", message);
+            return;
+        }
+        evict(id);
+    }
+
+    private void evict(Long id) {
+        Cache cache = cacheManager.getCache(UserCacheConfig.USERS_CACHE);
+        if (cache != null) {
+            cache.evict(id);
+            log.debug("Evicted user id {} from local cache", id);
+        }
+    }
+}
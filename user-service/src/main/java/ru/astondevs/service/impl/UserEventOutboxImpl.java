@@ -0,0 +1,186 @@
+package ru.astondevs.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.astondevs.config.UserOutboxProperties;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.entity.UserOutboxEvent;
+import ru.astondevs.repository.UserOutboxRepository;
+import ru.astondevs.service.KafkaProducer;
+import ru.astondevs.service.UserEventOutbox;
+
+/**
+ * Ретранслятор забирает пачку в короткой транзакции (FOR UPDATE SKIP LOCKED и отметка claimed_until)
+ * и отправляет её уже после коммита, не удерживая блокировки строк и соединение с базой на время
+ * ожидания брокера. Отправленными отмечается только подтверждённый префикс пачки: событие после
+ * неподтверждённого уйдёт повторно вслед за ним, и события одного email не обгоняют друг друга.
+ */
+@Slf4j
+@Service
+public class UserEventOutboxImpl implements UserEventOutbox {
+    private final UserOutboxRepository userOutboxRepository;
+    private final KafkaProducer kafkaProducer;
+    private final UserOutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<Long, CompletableFuture<Void>> sentWaiters = new ConcurrentHashMap<>();
+
+    public UserEventOutboxImpl(UserOutboxRepository userOutboxRepository, KafkaProducer kafkaProducer,
+                               UserOutboxProperties properties, PlatformTransactionManager transactionManager) {
+        this.userOutboxRepository = userOutboxRepository;
+        this.kafkaProducer = kafkaProducer;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long append(UserEventDto event) {
+        return userOutboxRepository.save(new UserOutboxEvent(event)).getId();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<UserEventDto> events) {
+        List<UserOutboxEvent> outboxEvents = new ArrayList<>(events.size());
+        for (UserEventDto event : events) {
+            outboxEvents.add(new UserOutboxEvent(event));
+        }
+        userOutboxRepository.saveAll(outboxEvents);
+    }
+
+    /**
+     * Ожидание регистрируется до проверки в базе, поэтому отметка, сделанная между коммитом
+     * события и вызовом метода, не теряется: её найдёт ближайший проход {@link #poll()}.
+     */
+    @Override
+    public CompletableFuture<Void> awaitSent(long eventId, Duration timeout) {
+        CompletableFuture<Void> sent = new CompletableFuture<>();
+        sentWaiters.put(eventId, sent);
+        return sent.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> sentWaiters.remove(eventId, sent));
+    }
+
+    @Override
+    public int relayPending() {
+        long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+        List<UserOutboxEvent> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<UserOutboxEvent> pending =
+                    userOutboxRepository.findPendingForUpdate(now, PageRequest.ofSize(properties.getBatchSize()));
+            if (!pending.isEmpty()) {
+                userOutboxRepository.claim(ids(pending), now.plus(properties.getClaimTimeout()));
+            }
+            return pending;
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        int acked = awaitAcks(batch, send(batch), deadline);
+        List<Long> ids = ids(batch);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (acked > 0) {
+                userOutboxRepository.markSent(ids.subList(0, acked), LocalDateTime.now());
+            }
+            if (acked < ids.size()) {
+                userOutboxRepository.release(ids.subList(acked, ids.size()));
+            }
+        });
+        completeWaiters(ids.subList(0, acked));
+        log.debug("Relayed {} of {} outbox events", acked, batch.size());
+        return acked;
+    }
+
+    /**
+     * Выбирает пачки, пока они полные, затем завершает ожидания событий, отправленных другими
+     * экземплярами, и ждёт users.outbox.poll-interval.
+     */
+    @Scheduled(fixedDelayString = "${users.outbox.poll-interval:200ms}")
+    public void poll() {
+        int delivered;
+        do {
+            delivered = relayPending();
+        } while (delivered == properties.getBatchSize());
+        if (!sentWaiters.isEmpty()) {
+            completeWaiters(userOutboxRepository.findSentIds(List.copyOf(sentWaiters.keySet())));
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${users.outbox.purge-interval:1h}")
+    @Transactional
+    public int purgeSent() {
+        int purged = userOutboxRepository.deleteSentBefore(LocalDateTime.now().minus(properties.getRetention()));
+        if (purged > 0) {
+            log.info("Purged {} sent outbox events", purged);
+        }
+        return purged;
+    }
+
+    /**
+     * Пачка уходит через продюсер пакетного профиля; события после неначатой отправки не отправляются.
+     */
+    private List<CompletableFuture<Void>> send(List<UserOutboxEvent> batch) {
+        List<UserEventDto> events = new ArrayList<>(batch.size());
+        for (UserOutboxEvent event : batch) {
+            events.add(event.toEvent());
+        }
+        try {
+            return kafkaProducer.sendUserEvents(events);
+        } catch (RuntimeException e) {
+            return List.of(CompletableFuture.failedFuture(e));
+        }
+    }
+
+    /**
+     * Ждёт подтверждений по порядку до первого неподтверждённого события или до срока прохода
+     * и возвращает длину подтверждённого префикса.
+     */
+    private int awaitAcks(List<UserOutboxEvent> batch, List<CompletableFuture<Void>> acks, long deadline) {
+        for (int i = 0; i < acks.size(); i++) {
+            try {
+                acks.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox event {} not acknowledged, it and {} later events will retry: {}",
+                        batch.get(i).getId(), batch.size() - i - 1, e.toString());
+                return i;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return i;
+            }
+        }
+        return acks.size();
+    }
+
+    private void completeWaiters(List<Long> sentIds) {
+        for (Long id : sentIds) {
+            CompletableFuture<Void> sent = sentWaiters.get(id);
+            if (sent != null) {
+                sent.complete(null);
+            }
+        }
+    }
+
+    private static List<Long> ids(List<UserOutboxEvent> events) {
+        List<Long> ids = new ArrayList<>(events.size());
+        for (UserOutboxEvent event : events) {
+            ids.add(event.getId());
+        }
+        return ids;
+    }
+}
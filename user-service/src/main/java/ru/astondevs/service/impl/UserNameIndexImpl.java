@@ -0,0 +1,140 @@
+package ru.astondevs.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.event.UserCreatedEvent;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.service.UserNameIndex;
+import ru.astondevs.util.TrigramIndex;
+
+/**
+ * Индекс строится из базы заново при старте и затем каждые users.name-index.rebuild-interval
+ * и подменяет прежний целиком. Локальные события применяются сразу, а изменения, сделанные
+ * другими экземплярами, попадают в индекс только при перестроении: в топике userEvents нет ни ID,
+ * ни имени. Поэтому чужие изменения отстают не больше чем на интервал плюс время построения.
+ * Найденные ID проверяются по базе, так что устаревший индекс лишь пропускает новые имена
+ * или возвращает лишние ID, но не выдаёт неверных данных.
+ * Пока индекс строится, события пишутся и в него, и в действующий; версии записей не дают строке
+ * из потока затереть более новое имя из события. Пользователь, удалённый во время построения, может
+ * вернуться в индекс из потока — такие ID отсеиваются при чтении через {@link #evict(Long)}.
+ * События применяются после коммита: откаченное удаление или переименование индекс не меняет.
+ */
+@Slf4j
+@Service
+public class UserNameIndexImpl implements UserNameIndex {
+    /**
+     * Минимальная доля триграмм запроса, найденных в имени: пропускает одну-две опечатки в слове.
+     */
+    static final double MIN_SCORE = 0.5;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private volatile TrigramIndex index = new TrigramIndex(MIN_SCORE);
+    private volatile TrigramIndex nextIndex;
+
+    public UserNameIndexImpl(UserRepository userRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        Gauge.builder("users.name.index.size", this, impl -> impl.index.size())
+                .description("Количество пользователей в индексе имён")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    @Override
+    public void evict(Long id) {
+        remove(id);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.nanoTime();
+        TrigramIndex built = new TrigramIndex(MIN_SCORE);
+        nextIndex = built;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<UserResponseDto> users = userRepository.streamAllResponses()) {
+                    users.forEach(user -> put(built, user));
+                }
+            });
+            index = built;
+        } finally {
+            nextIndex = null;
+        }
+        log.info("Name index built with {} users in {} ms", built.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Перестраивает индекс, чтобы подхватить изменения других экземпляров. Первый запуск — через интервал
+     * после старта, когда прогрев уже выполнен.
+     */
+    @Scheduled(initialDelayString = "${users.name-index.rebuild-interval:5m}",
+            fixedDelayString = "${users.name-index.rebuild-interval:5m}")
+    public void rebuild() {
+        try {
+            warmUp();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild name index: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        put(event.user());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        put(event.user());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        remove(event.user().id());
+    }
+
+    /**
+     * Сначала строящийся индекс, затем действующий: если построение завершилось между чтениями,
+     * оба чтения дают новый индекс, и запись просто повторяется.
+     */
+    private void put(UserResponseDto user) {
+        TrigramIndex building = nextIndex;
+        if (building != null) {
+            put(building, user);
+        }
+        put(index, user);
+    }
+
+    private void remove(Long id) {
+        TrigramIndex building = nextIndex;
+        if (building != null) {
+            building.remove(id);
+        }
+        index.remove(id);
+    }
+
+    private static void put(TrigramIndex target, UserResponseDto user) {
+        target.put(user.id(), user.name(), user.version() == null ? 0L : user.version());
+    }
+}
@@ -1,38 +1,272 @@
 package ru.astondevs.service.impl;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.astondevs.config.UserAsyncExecutor;
+import ru.astondevs.config.UserAsyncProperties;
+import ru.astondevs.dto.UserBatchCreateResult;
+import ru.astondevs.dto.UserBatchDeleteResult;
+import ru.astondevs.dto.UserBatchItemResult;
 import ru.astondevs.dto.UserCreateDto;
 import ru.astondevs.dto.UserEventDto;
 import ru.astondevs.dto.UserResponseDto;
-import ru.astondevs.service.KafkaProducer;
+import ru.astondevs.exception.ResourceNotFoundException;
+import ru.astondevs.service.UserEventOutbox;
+import ru.astondevs.service.UserNameIndex;
 import ru.astondevs.service.UserService;
 import ru.astondevs.service.UserServiceFacade;
+import ru.astondevs.util.UserValidator;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class UserServiceFacadeImpl implements UserServiceFacade {
+    /**
+     * Размер части пакета: одна транзакция, один запрос на проверку email и 10 JDBC-пачек по 50 вставок.
+     */
+    public static final int BATCH_CHUNK_SIZE = 500;
+    /**
+     * Таймер асинхронных операций с тегами operation (create, delete) и outcome (success, error, timeout).
+     */
+    public static final String ASYNC_TIMER = "users.async.operations";
 
     private final UserService userService;
-    private final KafkaProducer kafkaProducer;
+    private final UserValidator userValidator;
+    private final UserNameIndex userNameIndex;
+    private final UserEventOutbox userEventOutbox;
+    private final UserAsyncExecutor userAsyncExecutor;
+    private final UserAsyncProperties userAsyncProperties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
 
+    public UserServiceFacadeImpl(UserService userService, UserValidator userValidator, UserNameIndex userNameIndex,
+                                 UserEventOutbox userEventOutbox, UserAsyncExecutor userAsyncExecutor,
+                                 UserAsyncProperties userAsyncProperties, MeterRegistry meterRegistry,
+                                 PlatformTransactionManager transactionManager) {
+        this.userService = userService;
+        this.userValidator = userValidator;
+        this.userNameIndex = userNameIndex;
+        this.userEventOutbox = userEventOutbox;
+        this.userAsyncExecutor = userAsyncExecutor;
+        this.userAsyncProperties = userAsyncProperties;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Событие пишется в user_outbox в транзакции создания: транзакция не ждёт брокера,
+     * а событие не теряется, если Kafka недоступна, и не уходит, если транзакция откатилась.
+     */
     @Override
     @Transactional
     public UserResponseDto createUserAndPublishEvent(UserCreateDto dto) {
         log.info("Creating user and publishing event for email: {}", dto.email());
         UserResponseDto createdUser = userService.createUser(dto);
-        kafkaProducer.sendUserAddEvent(new UserEventDto("create", dto.email()));
+        userEventOutbox.append(new UserEventDto("create", dto.email()));
         return createdUser;
     }
 
+    /**
+     * Поток пула держит только транзакцию с записью в outbox; результат завершается, когда
+     * ретранслятор отметит событие подтверждённым брокером, и ни один поток этого не ждёт.
+     */
+    @Override
+    public CompletableFuture<UserResponseDto> createUserAndPublishEventAsync(UserCreateDto dto) {
+        log.info("Creating user asynchronously for email: {}", dto.email());
+        CompletableFuture<UserResponseDto> result = CompletableFuture
+                .supplyAsync(() -> transactionTemplate.execute(status -> {
+                    UserResponseDto createdUser = userService.createUser(dto);
+                    return new Appended<>(createdUser, userEventOutbox.append(new UserEventDto("create", dto.email())));
+                }), userAsyncExecutor.executor())
+                .thenCompose(this::awaitSent);
+        return timed("create", result);
+    }
+
+    @Override
+    public UserBatchCreateResult createUsersAndPublishEvents(List<UserCreateDto> dtos) {
+        userValidator.validateBatchSize(dtos == null ? 0 : dtos.size());
+        log.info("Creating {} users in batch", dtos.size());
+        List<UserBatchItemResult> results = new ArrayList<>(dtos.size());
+        for (int from = 0; from < dtos.size(); from += BATCH_CHUNK_SIZE) {
+            List<UserCreateDto> chunk = dtos.subList(from, Math.min(from + BATCH_CHUNK_SIZE, dtos.size()));
+            results.addAll(createChunk(chunk, from));
+        }
+        return UserBatchCreateResult.of(results);
+    }
+
     @Override
     @Transactional
     public void deleteUserAndPublishEvent(Long id) {
         log.info("Deleting user and publishing event for user id: {}", id);
         UserResponseDto deletedUser = userService.deleteAndReturnUserById(id);
-        kafkaProducer.sendUserDeleteEvent(new UserEventDto("delete", deletedUser.email()));
+        userEventOutbox.append(new UserEventDto("delete", deletedUser.email()));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteUserAndPublishEventAsync(Long id) {
+        log.info("Deleting user asynchronously, id: {}", id);
+        CompletableFuture<Void> result = CompletableFuture
+                .supplyAsync(() -> transactionTemplate.execute(status -> {
+                    UserResponseDto deletedUser = userService.deleteAndReturnUserById(id);
+                    return new Appended<Void>(null,
+                            userEventOutbox.append(new UserEventDto("delete", deletedUser.email())));
+                }), userAsyncExecutor.executor())
+                .thenCompose(this::awaitSent);
+        return timed("delete", result);
+    }
+
+    @Override
+    public UserBatchDeleteResult deleteUsersAndPublishEvents(List<Long> ids) {
+        userValidator.validateIdBatch(ids);
+        List<Long> uniqueIds = List.copyOf(new LinkedHashSet<>(ids));
+        log.info("Deleting {} users in batch", uniqueIds.size());
+        List<Long> deleted = new ArrayList<>(uniqueIds.size());
+        List<Long> notFound = new ArrayList<>();
+        for (int from = 0; from < uniqueIds.size(); from += BATCH_CHUNK_SIZE) {
+            List<Long> chunk = uniqueIds.subList(from, Math.min(from + BATCH_CHUNK_SIZE, uniqueIds.size()));
+            Set<Long> deletedIds = transactionTemplate.execute(status -> {
+                List<UserResponseDto> deletedUsers = userService.deleteUsersByIds(chunk);
+                Set<Long> chunkDeleted = new LinkedHashSet<>();
+                List<UserEventDto> events = new ArrayList<>(deletedUsers.size());
+                for (UserResponseDto user : deletedUsers) {
+                    chunkDeleted.add(user.id());
+                    events.add(new UserEventDto("delete", user.email()));
+                }
+                if (!events.isEmpty()) {
+                    userEventOutbox.appendAll(events);
+                }
+                return chunkDeleted;
+            });
+            for (Long id : chunk) {
+                (deletedIds.contains(id) ? deleted : notFound).add(id);
+            }
+        }
+        return new UserBatchDeleteResult(deleted, notFound);
+    }
+
+    @Override
+    public List<UserResponseDto> findUsersByName(String query, int limit) {
+        userValidator.validateNameQuery(query, limit);
+        List<UserResponseDto> users = new ArrayList<>(limit);
+        for (Long id : userNameIndex.search(query, limit)) {
+            try {
+                users.add(userService.getUserById(id));
+            } catch (ResourceNotFoundException e) {
+                log.warn("Evicting stale user {} from name index", id);
+                userNameIndex.evict(id);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Результат завершается, когда ретранслятор отметит событие отправленным, но не позже users.async.timeout.
+     */
+    private <T> CompletableFuture<T> awaitSent(Appended<T> appended) {
+        return userEventOutbox.awaitSent(appended.eventId(), userAsyncProperties.getTimeout())
+                .thenApply(sent -> appended.value());
+    }
+
+    /**
+     * Ограничивает операцию users.async.timeout и записывает её длительность с исходом.
+     */
+    private <T> CompletableFuture<T> timed(String operation, CompletableFuture<T> operationResult) {
+        long started = System.nanoTime();
+        return operationResult
+                .orTimeout(userAsyncProperties.getTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> Timer.builder(ASYNC_TIMER)
+                        .description("Длительность асинхронных операций с пользователями до подтверждения Kafka")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome(error))
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - started, TimeUnit.NANOSECONDS));
+    }
+
+    private static String outcome(Throwable error) {
+        if (error == null) {
+            return "success";
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof TimeoutException ? "timeout" : "error";
+    }
+
+    /**
+     * Нарушение уникального индекса означает, что фильтр email пропустил адрес, занятый на другом
+     * экземпляре. Тогда часть сохраняется заново по одному пользователю, и ошибкой отмечается
+     * только сам дубликат.
+     */
+    private List<UserBatchItemResult> createChunk(List<UserCreateDto> chunk, int startIndex) {
+        try {
+            return createInTransaction(chunk, startIndex);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Users batch starting at {} hit a taken email, saving it item by item: {}",
+                    startIndex, e.getMessage());
+            List<UserBatchItemResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(createItem(chunk.get(i), startIndex + i));
+            }
+            return results;
+        } catch (DataAccessException e) {
+            log.error("Failed to save users batch starting at {}: {}", startIndex, e.getMessage());
+            List<UserBatchItemResult> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                UserCreateDto dto = chunk.get(i);
+                failed.add(UserBatchItemResult.failed(startIndex + i, dto == null ? null : dto.email(),
+                        "Не удалось сохранить пользователя"));
+            }
+            return failed;
+        }
+    }
+
+    private UserBatchItemResult createItem(UserCreateDto dto, int index) {
+        String email = dto == null ? null : dto.email();
+        try {
+            return createInTransaction(Collections.singletonList(dto), index).get(0);
+        } catch (DataIntegrityViolationException e) {
+            return UserBatchItemResult.failed(index, email, "Email уже существует");
+        } catch (DataAccessException e) {
+            log.error("Failed to save user at {}: {}", index, e.getMessage());
+            return UserBatchItemResult.failed(index, email, "Не удалось сохранить пользователя");
+        }
+    }
+
+    /**
+     * Сохраняет пользователей и записывает события о созданных в outbox одной транзакцией.
+     */
+    private List<UserBatchItemResult> createInTransaction(List<UserCreateDto> dtos, int startIndex) {
+        return transactionTemplate.execute(status -> {
+            List<UserBatchItemResult> results = userService.createUsers(dtos, startIndex);
+            List<UserEventDto> events = new ArrayList<>(results.size());
+            for (UserBatchItemResult result : results) {
+                if (result.success()) {
+                    events.add(new UserEventDto("create", result.email()));
+                }
+            }
+            if (!events.isEmpty()) {
+                userEventOutbox.appendAll(events);
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Результат операции и идентификатор её события в outbox.
+     */
+    private record Appended<T>(T value, long eventId) {
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,43 @@
 package ru.astondevs.service.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
+import ru.astondevs.config.UserCacheConfig;
+import ru.astondevs.dto.UserBatchItemResult;
 import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserField;
 import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserSearchCriteria;
 import ru.astondevs.dto.UserUpdateDto;
 import ru.astondevs.entity.User;
+import ru.astondevs.event.UserCreatedEvent;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
+import ru.astondevs.exception.PreconditionFailedException;
 import ru.astondevs.exception.ResourceNotFoundException;
 import ru.astondevs.repository.UserRepository;
+import ru.astondevs.repository.UserSpecifications;
+import ru.astondevs.service.EmailExistenceFilter;
 import ru.astondevs.service.UserService;
 import ru.astondevs.util.UserConverter;
 import ru.astondevs.util.UserValidator;
@@ -25,6 +51,8 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserValidator userValidator;
     private final UserConverter userConverter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmailExistenceFilter emailExistenceFilter;
 
     @Override
     @Transactional
@@ -32,52 +60,225 @@ public class UserServiceImpl implements UserService {
         log.info("Creating user with email: {}", dto.email());
         userValidator.validateCreateDto(dto);
         User user = userConverter.toEntity(dto);
-        User savedUser = userRepository.save(user);
+        User savedUser = userRepository.saveAndFlush(user);
         log.info("Created user with id: {}", user.getId());
-        return userConverter.toResponseDto(savedUser);
+        UserResponseDto createdUser = userConverter.toResponseDto(savedUser);
+        eventPublisher.publishEvent(new UserCreatedEvent(createdUser));
+        return createdUser;
+    }
+
+    @Override
+    @Transactional
+    public List<UserBatchItemResult> createUsers(List<UserCreateDto> dtos, int startIndex) {
+        UserBatchItemResult[] results = new UserBatchItemResult[dtos.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            UserCreateDto dto = dtos.get(i);
+            Optional<String> violation = userValidator.findBatchItemViolation(dto);
+            if (violation.isPresent()) {
+                results[i] = UserBatchItemResult.failed(startIndex + i, dto == null ? null : dto.email(), violation.get());
+            } else if (candidates.putIfAbsent(dto.email(), i) != null) {
+                results[i] = UserBatchItemResult.failed(startIndex + i, dto.email(), "Email повторяется в запросе");
+            }
+        }
+
+        List<String> probablyTaken = candidates.keySet().stream()
+                .filter(emailExistenceFilter::mightExist)
+                .toList();
+        Set<String> existingEmails = probablyTaken.isEmpty()
+                ? Set.of()
+                : userRepository.findExistingEmails(probablyTaken);
+        List<User> users = new ArrayList<>(candidates.size());
+        List<Integer> positions = new ArrayList<>(candidates.size());
+        candidates.forEach((email, i) -> {
+            if (existingEmails.contains(email)) {
+                results[i] = UserBatchItemResult.failed(startIndex + i, email, "Email уже существует");
+            } else {
+                users.add(userConverter.toEntity(dtos.get(i)));
+                positions.add(i);
+            }
+        });
+
+        List<User> savedUsers = userRepository.saveAll(users);
+        for (int k = 0; k < savedUsers.size(); k++) {
+            int i = positions.get(k);
+            User savedUser = savedUsers.get(k);
+            results[i] = UserBatchItemResult.created(startIndex + i, savedUser.getEmail(), savedUser.getId());
+            eventPublisher.publishEvent(new UserCreatedEvent(userConverter.toResponseDto(savedUser)));
+        }
+        log.info("Created {} of {} users in batch starting at {}", savedUsers.size(), dtos.size(), startIndex);
+        return Arrays.asList(results);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = UserCacheConfig.USERS_CACHE, key = "#id", sync = true)
     public UserResponseDto getUserById(Long id) {
-        User user = findUserOrThrow(id);
-        return userConverter.toResponseDto(user);
+        return userRepository.findResponseById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Пользователь не найден"));
     }
 
+    /**
+     * Полный набор полей кэшируется под тем же ключом, что и {@link #getUserById(Long)}.
+     */
     @Override
     @Transactional(readOnly = true)
-    public List<UserResponseDto> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(userConverter::toResponseDto)
-                .toList();
+    @Cacheable(cacheNames = UserCacheConfig.USERS_CACHE, key = "#id", sync = true,
+            condition = "#fields.containsAll(T(ru.astondevs.dto.UserField).ALL)")
+    public UserResponseDto getUserById(Long id, Set<UserField> fields) {
+        if (fields.containsAll(UserField.ALL)) {
+            return getUserById(id);
+        }
+        return userRepository.findResponse(UserSpecifications.hasId(id), fields)
+                .orElseThrow(() -> new ResourceNotFoundException("Пользователь не найден"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long getUserVersion(Long id) {
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Пользователь не найден"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserResponseDto getUserByEmail(String email) {
+        return userRepository.findResponseByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Пользователь не найден"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserResponseDto getUserByEmail(String email, Set<UserField> fields) {
+        if (fields.containsAll(UserField.ALL)) {
+            return getUserByEmail(email);
+        }
+        return userRepository.findResponse(UserSpecifications.hasEmail(email), fields)
+                .orElseThrow(() -> new ResourceNotFoundException("Пользователь не найден"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserResponseDto> getAllUsers(Long after, int limit) {
+        userValidator.validatePageRequest(after, limit);
+        long cursor = after == null ? 0L : after;
+        return userRepository.findResponsesAfter(cursor, PageRequest.ofSize(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserResponseDto> getAllUsers(Long after, int limit, Set<UserField> fields) {
+        if (fields.containsAll(UserField.ALL)) {
+            return getAllUsers(after, limit);
+        }
+        userValidator.validatePageRequest(after, limit);
+        long cursor = after == null ? 0L : after;
+        return userRepository.searchResponses(Specification.allOf(), cursor, limit, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserResponseDto> searchUsers(UserSearchCriteria criteria, Long after, int limit) {
+        userValidator.validatePageRequest(after, limit);
+        userValidator.validateSearchCriteria(criteria);
+        long cursor = after == null ? 0L : after;
+        return userRepository.searchResponses(UserSpecifications.matching(criteria), cursor, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserResponseDto> searchUsers(UserSearchCriteria criteria, Long after, int limit,
+                                              Set<UserField> fields) {
+        if (fields.containsAll(UserField.ALL)) {
+            return searchUsers(criteria, after, limit);
+        }
+        userValidator.validatePageRequest(after, limit);
+        userValidator.validateSearchCriteria(criteria);
+        long cursor = after == null ? 0L : after;
+        return userRepository.searchResponses(UserSpecifications.matching(criteria), cursor, limit, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllUsers(Consumer<UserResponseDto> consumer) {
+        log.info("Exporting all users");
+        try (Stream<UserResponseDto> users = userRepository.streamAllResponses()) {
+            users.forEach(consumer);
+        }
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = UserCacheConfig.USERS_CACHE, key = "#id")
     public UserResponseDto updateUser(Long id, UserUpdateDto dto) {
-        log.info("Updating user id: {}", id);
-        userValidator.validateUpdateDto(dto);
-        User user = findUserOrThrow(id);
-        userConverter.updateEntity(user, dto);
-        log.info("Updated user id: {}", id);
-        return userConverter.toResponseDto(user);
+        return update(id, dto, null);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = UserCacheConfig.USERS_CACHE, key = "#id")
+    public UserResponseDto updateUser(Long id, UserUpdateDto dto, Long expectedVersion) {
+        return update(id, dto, expectedVersion);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = UserCacheConfig.USERS_CACHE, key = "#id")
     public void deleteById(Long id) {
         log.info("Deleting user id: {}", id);
         User user = findUserOrThrow(id);
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserDeletedEvent(userConverter.toResponseDto(user)));
         log.info("Deleted user id: {}", id);
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = UserCacheConfig.USERS_CACHE, key = "#id")
     public UserResponseDto deleteAndReturnUserById(Long id) {
         User user = findUserOrThrow(id);
         userRepository.delete(user);
-        return userConverter.toResponseDto(user);
+        UserResponseDto deletedUser = userConverter.toResponseDto(user);
+        eventPublisher.publishEvent(new UserDeletedEvent(deletedUser));
+        return deletedUser;
+    }
+
+    @Override
+    @Transactional
+    public List<UserResponseDto> deleteUsersByIds(Collection<Long> ids) {
+        List<UserResponseDto> users = userRepository.findResponsesByIdIn(ids);
+        if (users.isEmpty()) {
+            return users;
+        }
+        int deleted = userRepository.deleteAllByIdIn(users.stream().map(UserResponseDto::id).toList());
+        users.forEach(user -> eventPublisher.publishEvent(new UserDeletedEvent(user)));
+        log.info("Deleted {} of {} requested users", deleted, ids.size());
+        return users;
+    }
+
+    private UserResponseDto update(Long id, UserUpdateDto dto, Long expectedVersion) {
+        log.info("Updating user id: {}", id);
+        userValidator.validateUpdateDto(dto);
+        User user = findUserOrThrow(id);
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            log.warn("Version mismatch for user id {}: expected {}, actual {}", id, expectedVersion, user.getVersion());
+            throw new PreconditionFailedException("Версия пользователя не совпадает с If-Match");
+        }
+        UserResponseDto previousUser = userConverter.toResponseDto(user);
+        userConverter.updateEntity(user, dto);
+        try {
+            userRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion == null) {
+                throw e;
+            }
+            log.warn("User id {} was modified concurrently after version {}", id, expectedVersion);
+            throw new PreconditionFailedException("Версия пользователя не совпадает с If-Match");
+        }
+        UserResponseDto updatedUser = userConverter.toResponseDto(user);
+        eventPublisher.publishEvent(new UserUpdatedEvent(updatedUser, previousUser));
+        log.info("Updated user id: {}", id);
+        return updatedUser;
     }
 
     private User findUserOrThrow(Long id) {
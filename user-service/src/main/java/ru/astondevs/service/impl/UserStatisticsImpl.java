@@ -0,0 +1,177 @@
+package ru.astondevs.service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserStatsDto;
+import ru.astondevs.event.UserCreatedEvent;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
+import ru.astondevs.repository.UserAgeCount;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.repository.UserSignupCount;
+import ru.astondevs.service.UserStatistics;
+
+/**
+ * Счётчики на LongAdder: каждый поток пишет в свою ячейку, поэтому параллельные регистрации
+ * не конкурируют за одну кэш-линию, а сумма собирается только при чтении статистики.
+ * События учитываются после коммита, чтобы откаченные изменения не попадали в счётчики.
+ * Счётчики видят только события своего экземпляра: в топике userEvents нет ни возраста, ни даты
+ * регистрации. Поэтому каждые users.stats.reseed-interval {@link #seed()} строит новые счётчики
+ * агрегирующими запросами и подменяет ими текущие целиком. Изменения других экземпляров, а также
+ * локальные изменения, закоммиченные во время seed и учтённые дважды или пропущенные, отражаются
+ * в статистике не позже чем через интервал плюс время запросов.
+ */
+@Slf4j
+@Service
+public class UserStatisticsImpl implements UserStatistics {
+    static final int AGE_BUCKET_WIDTH = 10;
+    private static final int MAX_AGE = 120;
+    private static final int AGE_BUCKETS = MAX_AGE / AGE_BUCKET_WIDTH;
+    private static final int UNKNOWN_AGE_BUCKET = AGE_BUCKETS;
+    private static final String UNKNOWN_AGE_LABEL = "unknown";
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private volatile Counters counters = new Counters();
+
+    public UserStatisticsImpl(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public UserStatsDto snapshot() {
+        Counters current = counters;
+        Map<String, Long> ageHistogram = new LinkedHashMap<>();
+        for (int i = 0; i < current.ageBuckets.length; i++) {
+            ageHistogram.put(bucketLabel(i), current.ageBuckets[i].sum());
+        }
+        Map<LocalDate, Long> signups = new TreeMap<>();
+        current.signupsPerDay.forEach((day, count) -> {
+            long sum = count.sum();
+            if (sum > 0) {
+                signups.put(day, sum);
+            }
+        });
+        return new UserStatsDto(current.total.sum(), ageHistogram, signups);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long started = System.nanoTime();
+        Counters seeded = new Counters();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (UserAgeCount ageCount : userRepository.countByAge()) {
+                seeded.total.add(ageCount.count());
+                seeded.ageBuckets[bucketOf(ageCount.age())].add(ageCount.count());
+            }
+            for (UserSignupCount signupCount : userRepository.countByCreationDay()) {
+                seeded.signupsPerDay.computeIfAbsent(signupCount.day(), day -> new LongAdder())
+                        .add(signupCount.count());
+            }
+        });
+        counters = seeded;
+        log.info("User statistics seeded with {} users in {} ms", seeded.total.sum(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Первый запуск — через интервал после старта, когда начальный seed уже выполнен.
+     */
+    @Scheduled(initialDelayString = "${users.stats.reseed-interval:1m}",
+            fixedDelayString = "${users.stats.reseed-interval:1m}")
+    public void reseed() {
+        try {
+            seed();
+        } catch (RuntimeException e) {
+            log.error("Failed to reseed user statistics: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        count(event.user(), 1);
+    }
+
+    /**
+     * Меняется только гистограмма возрастов: дата регистрации после создания не изменяется.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        if (event.previous() == null) {
+            return;
+        }
+        int from = bucketOf(event.previous().age());
+        int to = bucketOf(event.user().age());
+        if (from != to) {
+            Counters current = counters;
+            current.ageBuckets[from].decrement();
+            current.ageBuckets[to].increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        count(event.user(), -1);
+    }
+
+    private void count(UserResponseDto user, int delta) {
+        Counters current = counters;
+        current.total.add(delta);
+        current.ageBuckets[bucketOf(user.age())].add(delta);
+        LocalDateTime createdAt = user.createdAt();
+        if (createdAt != null) {
+            current.signupsPerDay.computeIfAbsent(createdAt.toLocalDate(), day -> new LongAdder()).add(delta);
+        }
+    }
+    /**
+     * Интервалы по 10 лет; 120 попадает в последний интервал 110-120.
+     */
+    private static int bucketOf(Integer age) {
+        if (age == null) {
+            return UNKNOWN_AGE_BUCKET;
+        }
+        return Math.min(Math.max(age, 0) / AGE_BUCKET_WIDTH, AGE_BUCKETS - 1);
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket == UNKNOWN_AGE_BUCKET) {
+            return UNKNOWN_AGE_LABEL;
+        }
+        int from = bucket * AGE_BUCKET_WIDTH;
+        int to = bucket == AGE_BUCKETS - 1 ? MAX_AGE : from + AGE_BUCKET_WIDTH - 1;
+        return from + "-" + to;
+    }
+
+    /**
+     * Набор счётчиков, который seed заменяет целиком: событие, пришедшее во время замены,
+     * попадает либо в старый набор, либо в новый, но не в их смесь.
+     */
+    private static final class Counters {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder[] ageBuckets = new LongAdder[AGE_BUCKETS + 1];
+        private final ConcurrentMap<LocalDate, LongAdder> signupsPerDay = new ConcurrentHashMap<>();
+
+        private Counters() {
+            Arrays.setAll(ageBuckets, i -> new LongAdder());
+        }
+    }
+}
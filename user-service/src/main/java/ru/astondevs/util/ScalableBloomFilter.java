@@ -0,0 +1,188 @@
+package ru.astondevs.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный масштабируемый фильтр Блума для строк.
+ * Отвечает «точно нет» или «возможно есть»; ложноотрицательных ответов не бывает.
+ * Когда текущий слой заполняется до расчётной ёмкости, добавляется новый слой вдвое большей
+ * ёмкости с вдвое меньшей вероятностью ложного срабатывания, поэтому суммарная вероятность
+ * остаётся ограниченной (не выше удвоенной целевой) при любом росте числа элементов.
+ * Удаление элементов не поддерживается.
+ */
+public class ScalableBloomFilter {
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final List<Layer> layers = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param initialCapacity ожидаемое количество элементов первого слоя
+     * @param falsePositiveProbability целевая вероятность ложного срабатывания первого слоя
+     */
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveProbability) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Ёмкость фильтра должна быть положительной");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Вероятность ложного срабатывания должна быть в пределах (0, 1)");
+        }
+        layers.add(new Layer(initialCapacity, falsePositiveProbability));
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+        for (Layer layer : layers) {
+            if (layer.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+        for (Layer layer : layers) {
+            if (layer.mightContain(h1, h2)) {
+                return;
+            }
+        }
+        currentLayer().put(h1, h2);
+    }
+
+    /**
+     * Доля установленных битов по всем слоям.
+     */
+    public double fillRatio() {
+        long setBits = 0;
+        long bitCount = 0;
+        for (Layer layer : layers) {
+            setBits += layer.setBits.get();
+            bitCount += layer.bitCount;
+        }
+        return (double) setBits / bitCount;
+    }
+
+    /**
+     * Оценка текущей вероятности ложного срабатывания по фактическому заполнению слоёв.
+     */
+    public double expectedFalsePositiveProbability() {
+        double allLayersMiss = 1.0;
+        for (Layer layer : layers) {
+            allLayersMiss *= 1.0 - layer.expectedFalsePositiveProbability();
+        }
+        return 1.0 - allLayersMiss;
+    }
+
+    /**
+     * Приблизительное количество добавленных элементов.
+     */
+    public long approximateElementCount() {
+        return layers.stream().mapToLong(layer -> layer.insertions.get()).sum();
+    }
+
+    public int layerCount() {
+        return layers.size();
+    }
+
+    private Layer currentLayer() {
+        Layer last = layers.get(layers.size() - 1);
+        if (last.insertions.get() < last.capacity) {
+            return last;
+        }
+        synchronized (layers) {
+            last = layers.get(layers.size() - 1);
+            if (last.insertions.get() >= last.capacity) {
+                last = new Layer(last.capacity * GROWTH_FACTOR, last.falsePositiveProbability * TIGHTENING_RATIO);
+                layers.add(last);
+            }
+            return last;
+        }
+    }
+
+    /**
+     * 64-битный FNV-1a по символам строки с финальным перемешиванием из MurmurHash3.
+     */
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private static final class Layer {
+        private final long capacity;
+        private final double falsePositiveProbability;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+        private final AtomicLong setBits = new AtomicLong();
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Layer(long capacity, double falsePositiveProbability) {
+            this.capacity = capacity;
+            this.falsePositiveProbability = falsePositiveProbability;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray(Math.toIntExact((optimalBits + 63) / 64));
+            this.bitCount = (long) words.length() * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        /**
+         * Индексы битов по схеме двойного хеширования Кирша — Митценмахера: h1 + i * h2.
+         */
+        private boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(combined, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        private void put(long h1, long h2) {
+            long combined = h1;
+            boolean changed = false;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(combined, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word;
+                do {
+                    word = words.get(index);
+                } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+                if ((word & mask) == 0) {
+                    setBits.incrementAndGet();
+                    changed = true;
+                }
+                combined += h2;
+            }
+            if (changed) {
+                insertions.incrementAndGet();
+            }
+        }
+
+        private double expectedFalsePositiveProbability() {
+            return Math.pow((double) setBits.get() / bitCount, hashCount);
+        }
+    }
+}
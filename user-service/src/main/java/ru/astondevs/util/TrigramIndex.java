@@ -0,0 +1,255 @@
+package ru.astondevs.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Потокобезопасный инвертированный индекс триграмм для поиска по подстроке с допуском опечаток.
+ * Строки нормализуются (нижний регистр, только буквы и цифры), каждое слово дополняется пробелами,
+ * как в pg_trgm: «  слово ». Оценка совпадения — доля триграмм запроса, найденных в строке;
+ * строка, содержащая запрос целиком, получает максимальную оценку.
+ * Триграмма упаковывается в long (по 16 бит на символ), а триграммы записи хранятся отсортированным
+ * массивом, поэтому оценка кандидата — слияние двух коротких массивов без аллокаций.
+ * Каждая запись хранит версию, поэтому устаревшее значение не перезапишет более новое.
+ */
+public class TrigramIndex {
+    private static final double EPSILON = 1e-9;
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingDouble(Match::score).reversed()
+            .thenComparingInt(Match::length)
+            .thenComparingLong(Match::id);
+
+    private final Map<Long, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final double minScore;
+
+    /**
+     * @param minScore минимальная доля совпавших триграмм запроса, от 0 (не включительно) до 1
+     */
+    public TrigramIndex(double minScore) {
+        if (minScore <= 0 || minScore > 1) {
+            throw new IllegalArgumentException("Порог совпадения должен быть в пределах (0, 1]");
+        }
+        this.minScore = minScore;
+    }
+
+    /**
+     * Добавляет или заменяет строку с указанным ID, если версия не старше сохранённой.
+     */
+    public void put(long id, String value, long version) {
+        String normalized = normalize(value);
+        entries.compute(id, (key, current) -> {
+            if (current != null && current.version() > version) {
+                return current;
+            }
+            if (current != null && current.normalized().equals(normalized)) {
+                return new Entry(normalized, current.trigrams(), version);
+            }
+            if (current != null) {
+                unlink(current.trigrams(), id);
+            }
+            long[] trigrams = trigrams(normalized);
+            for (long trigram : trigrams) {
+                postings.compute(trigram, (code, ids) -> {
+                    Set<Long> linked = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                    linked.add(id);
+                    return linked;
+                });
+            }
+            return new Entry(normalized, trigrams, version);
+        });
+    }
+
+    public void remove(long id) {
+        entries.computeIfPresent(id, (key, current) -> {
+            unlink(current.trigrams(), id);
+            return null;
+        });
+    }
+
+    /**
+     * Возвращает ID лучших совпадений: по убыванию оценки, затем по длине строки и ID.
+     * Сначала просматриваются строки с самой редкой внутренней триграммой запроса (только в них может
+     * быть подстрока запроса), затем списки триграмм от коротких к длинным. Строка с оценкой не ниже
+     * порога обязана встретиться в одном из первых {@code n - ceil(порог * n) + 1} списков, а порог
+     * поднимается до оценки худшего из уже найденных N совпадений, поэтому длинные списки частых
+     * триграмм обычно не читаются вовсе.
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        long[] queryTrigrams = trigrams(normalized);
+        if (queryTrigrams.length == 0) {
+            return List.of();
+        }
+        List<Set<Long>> lists = new ArrayList<>(queryTrigrams.length);
+        for (long trigram : queryTrigrams) {
+            lists.add(postings.getOrDefault(trigram, Set.of()));
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Search search = new Search(normalized, queryTrigrams, limit);
+        search.collect(rarestInnerPosting(normalized));
+        for (int i = 0; i < lists.size(); i++) {
+            int required = (int) Math.ceil(search.threshold() * queryTrigrams.length - EPSILON);
+            if (i > queryTrigrams.length - required) {
+                break;
+            }
+            search.collect(lists.get(i));
+        }
+        return search.top.stream().sorted(BEST_FIRST).map(Match::id).toList();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Самый короткий список среди триграмм внутри слов запроса, без дополняющих пробелов.
+     */
+    private Set<Long> rarestInnerPosting(String query) {
+        Set<Long> rarest = null;
+        for (String word : query.split(" ")) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                Set<Long> posting = postings.getOrDefault(
+                        code(word.charAt(i), word.charAt(i + 1), word.charAt(i + 2)), Set.of());
+                if (rarest == null || posting.size() < rarest.size()) {
+                    rarest = posting;
+                }
+            }
+        }
+        return rarest == null ? Set.of() : rarest;
+    }
+
+    private void unlink(long[] trigrams, long id) {
+        for (long trigram : trigrams) {
+            postings.computeIfPresent(trigram, (code, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    static String normalize(String value) {
+        StringBuilder normalized = new StringBuilder(value.length());
+        boolean space = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = Character.toLowerCase(value.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        int length = normalized.length();
+        return space && length > 0 ? normalized.substring(0, length - 1) : normalized.toString();
+    }
+
+    /**
+     * Отсортированные без повторов коды триграмм всех слов, каждое дополнено как «  слово ».
+     */
+    static long[] trigrams(String normalized) {
+        if (normalized.isEmpty()) {
+            return new long[0];
+        }
+        long[] codes = new long[normalized.length() * 3];
+        int count = 0;
+        char previous2 = ' ';
+        char previous = ' ';
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            if (c == ' ' && previous == ' ') {
+                continue;
+            }
+            codes[count++] = code(previous2, previous, c);
+            previous2 = c == ' ' ? ' ' : previous;
+            previous = c;
+        }
+        long[] sorted = Arrays.copyOf(codes, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    private static long code(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    private static int sharedCount(long[] left, long[] right) {
+        int shared = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] == right[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    private final class Search {
+        private final String query;
+        private final long[] queryTrigrams;
+        private final int limit;
+        private final PriorityQueue<Match> top;
+        private final Set<Long> seen = new HashSet<>();
+
+        private Search(String query, long[] queryTrigrams, int limit) {
+            this.query = query;
+            this.queryTrigrams = queryTrigrams;
+            this.limit = limit;
+            this.top = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        }
+
+        private double threshold() {
+            return top.size() < limit ? minScore : top.peek().score();
+        }
+
+        private void collect(Set<Long> ids) {
+            for (Long id : ids) {
+                if (!seen.add(id)) {
+                    continue;
+                }
+                Entry entry = entries.get(id);
+                if (entry == null) {
+                    continue;
+                }
+                double score = entry.normalized().contains(query)
+                        ? 1.0
+                        : (double) sharedCount(queryTrigrams, entry.trigrams()) / queryTrigrams.length;
+                if (score < minScore) {
+                    continue;
+                }
+                Match match = new Match(id, score, entry.normalized().length());
+                if (top.size() < limit) {
+                    top.add(match);
+                } else if (BEST_FIRST.compare(match, top.peek()) < 0) {
+                    top.poll();
+                    top.add(match);
+                }
+            }
+        }
+    }
+
+    private record Entry(String normalized, long[] trigrams, long version) {
+    }
+
+    private record Match(long id, double score, int length) {
+    }
+}
@@ -1,10 +1,12 @@
 package ru.astondevs.util;
 
+import java.time.LocalDateTime;
 import org.springframework.stereotype.Component;
 import ru.astondevs.dto.UserCreateDto;
 import ru.astondevs.dto.UserResponseDto;
 import ru.astondevs.dto.UserUpdateDto;
 import ru.astondevs.entity.User;
+import ru.astondevs.entity.UserRow;
 
 @Component
 public class UserConverter {
@@ -23,9 +25,40 @@ public class UserConverter {
                 .email(user.getEmail())
                 .age(user.getAge())
                 .createdAt(user.getCreatedAt())
+                .version(user.getVersion())
                 .build();
     }
 
+    public UserRow toRow(UserCreateDto dto) {
+        return UserRow.builder()
+                .name(dto.name())
+                .email(dto.email())
+                .age(dto.age())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    public UserResponseDto fromRow(UserRow row) {
+        return UserResponseDto.builder()
+                .id(row.id())
+                .name(row.name())
+                .email(row.email())
+                .age(row.age())
+                .createdAt(row.createdAt())
+                .version(row.version())
+                .build();
+    }
+
+    /**
+     * Неизменяемый аналог {@link #updateEntity}: возвращает строку с заполненными полями из DTO.
+     */
+    public UserRow updateRow(UserRow row, UserUpdateDto dto) {
+        return row
+                .withName(dto.name() != null ? dto.name() : row.name())
+                .withEmail(dto.email() != null ? dto.email() : row.email())
+                .withAge(dto.age() != null ? dto.age() : row.age());
+    }
+
     public void updateEntity(User user, UserUpdateDto dto) {
         if (dto.name() != null) {
             user.setName(dto.name());
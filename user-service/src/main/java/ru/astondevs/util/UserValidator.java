@@ -1,24 +1,32 @@
 package ru.astondevs.util;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserSearchCriteria;
 import ru.astondevs.dto.UserUpdateDto;
 import ru.astondevs.exception.DuplicateEmailException;
 import ru.astondevs.repository.UserRepository;
+import ru.astondevs.service.EmailExistenceFilter;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class UserValidator {
+    public static final int MAX_PAGE_LIMIT = 100;
+    public static final int MAX_BATCH_SIZE = 50_000;
+
+    private final Validator validator;
     private final UserRepository userRepository;
+    private final EmailExistenceFilter emailExistenceFilter;
 
     public void validateCreateDto(UserCreateDto dto) {
-        if (userRepository.existsByEmail(dto.email())) {
-            log.error("Email already exists: {}", dto.email());
-            throw new DuplicateEmailException("Email уже существует");
-        }
+        validateEmailIsFree(dto.email());
         if (dto.age() != null && (dto.age() < 0 || dto.age() > 120)) {
             log.error("Invalid age provided: {}", dto.age());
             throw new IllegalArgumentException("Возраст должен быть в пределах от 0 до 120 лет");
@@ -26,13 +34,96 @@ public class UserValidator {
     }
 
     public void validateUpdateDto(UserUpdateDto dto) {
+        validateUpdateHasFields(dto);
+        if (dto.email() != null) {
+            validateEmailIsFree(dto.email());
+        }
+    }
+
+    /**
+     * Проверка обновления без обращения к базе; занятость email реактивный слой проверяет сам.
+     */
+    public void validateUpdateHasFields(UserUpdateDto dto) {
         if (dto.name() == null && dto.email() == null && dto.age() == null) {
             log.warn("No fields provided for update");
             throw new IllegalArgumentException("Нужно заполнить хотя бы одно поле");
         }
-        if (dto.email() != null && userRepository.existsByEmail(dto.email())) {
-            log.error("Email conflict during update: {}", dto.email());
+    }
+
+    /**
+     * Ранний отказ для занятого email без попытки вставки. Запрос к базе выполняется только
+     * при срабатывании фильтра; гонки между проверкой и записью закрывает уникальный индекс.
+     */
+    private void validateEmailIsFree(String email) {
+        if (emailExistenceFilter.mightExist(email) && userRepository.existsByEmail(email)) {
+            log.error("Email already exists: {}", email);
             throw new DuplicateEmailException("Email уже существует");
         }
     }
-}
\ No newline at end of file
+
+    public void validatePageRequest(Long after, int limit) {
+        if (after != null && after < 0) {
+            log.warn("Invalid page cursor: {}", after);
+            throw new IllegalArgumentException("Параметр after не может быть отрицательным");
+        }
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            log.warn("Invalid page limit: {}", limit);
+            throw new IllegalArgumentException("Параметр limit должен быть в пределах от 1 до " + MAX_PAGE_LIMIT);
+        }
+    }
+
+    public void validateNameQuery(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            log.warn("Empty name query");
+            throw new IllegalArgumentException("Параметр q не может быть пустым");
+        }
+        validatePageRequest(null, limit);
+    }
+
+    public void validateSearchCriteria(UserSearchCriteria criteria) {
+        if (criteria.minAge() != null && criteria.maxAge() != null && criteria.minAge() > criteria.maxAge()) {
+            log.warn("Invalid age range: {}..{}", criteria.minAge(), criteria.maxAge());
+            throw new IllegalArgumentException("Параметр minAge не может быть больше maxAge");
+        }
+        if (criteria.createdFrom() != null && criteria.createdTo() != null
+                && !criteria.createdFrom().isBefore(criteria.createdTo())) {
+            log.warn("Invalid creation window: {}..{}", criteria.createdFrom(), criteria.createdTo());
+            throw new IllegalArgumentException("Параметр createdFrom должен быть раньше createdTo");
+        }
+    }
+
+    public void validateBatchSize(int size) {
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            log.warn("Invalid batch size: {}", size);
+            throw new IllegalArgumentException("Пакет должен содержать от 1 до " + MAX_BATCH_SIZE + " пользователей");
+        }
+    }
+
+    public void validateIdBatch(List<Long> ids) {
+        validateBatchSize(ids == null ? 0 : ids.size());
+        if (ids.contains(null)) {
+            log.warn("Batch contains null id");
+            throw new IllegalArgumentException("Список ID не должен содержать пустых значений");
+        }
+    }
+
+    /**
+     * Проверяет элемент пакетного запроса без исключений, чтобы одна ошибка не отклоняла весь пакет.
+     * Уникальность email здесь не проверяется: для пакета она проверяется одним запросом.
+     *
+     * @return описание нарушений или пустой Optional, если элемент корректен
+     */
+    public Optional<String> findBatchItemViolation(UserCreateDto dto) {
+        if (dto == null) {
+            return Optional.of("Данные пользователя не заданы");
+        }
+        return validator.validate(dto).stream()
+                .map(UserValidator::describe)
+                .sorted()
+                .reduce((first, second) -> first + "; " + second);
+    }
+
+    private static String describe(ConstraintViolation<UserCreateDto> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+}
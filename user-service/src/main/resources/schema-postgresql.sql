@@ -0,0 +1,19 @@
+-- Выполняется на PostgreSQL после того, как Hibernate (ddl-auto: update) обновил схему по сущностям
+-- (spring.sql.init.platform: postgresql, spring.jpa.defer-datasource-initialization: true).
+--
+-- ix_users_name обслуживает поиск по префиксу имени: name LIKE 'префикс%' (UserSpecifications.nameStartsWith).
+-- При сортировке базы, отличной от "C", обычный B-tree индекс для LIKE не используется, а класс операторов
+-- text_pattern_ops через JPA @Index не задаётся. Hibernate создаёт индекс без него, поэтому здесь индекс
+-- пересоздаётся с text_pattern_ops, если он ещё не такой; при следующих запусках блок ничего не делает.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1
+                   FROM pg_indexes
+                   WHERE schemaname = current_schema()
+                     AND indexname = 'ix_users_name'
+                     AND indexdef LIKE '%text_pattern_ops%') THEN
+        DROP INDEX IF EXISTS ix_users_name;
+        CREATE INDEX ix_users_name ON users (name text_pattern_ops);
+    END IF;
+END
+$$
@@ -0,0 +1,136 @@
+package ru.astondevs.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserResponseWrapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JMH-сравнение JSON с бинарными CBOR и Smile на странице из 50 пользователей: время кодирования
+ * и декодирования в типизированные DTO. Размеры тела печатаются до запуска JMH — и для данных
+ * пользователей, и для ответа со ссылками, каким его отдаёт GET /api/users.
+ * Бенчмарк выполняется в JVM тестов (forks = 0), как и {@link UserResponseSerializationBenchmarkTest}.
+ * Запуск: mvn test -Pbenchmark -pl user-service -am
+ */
+@Tag("benchmark")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserBinaryFormatBenchmarkTest {
+    private static final int PAGE_SIZE = 50;
+    private static final TypeReference<List<UserResponseDto>> USER_LIST = new TypeReference<>() {
+    };
+
+    @Test
+    void compareFormats() throws Exception {
+        List<UserResponseDto> users = users();
+        int jsonSize = 0;
+        for (String format : List.of("json", "cbor", "smile")) {
+            ObjectMapper mapper = mapper(format);
+            int size = mapper.writeValueAsBytes(users).length;
+            int wrappedSize = mapper.writeValueAsBytes(UserResponseWrapper.wrapAll(users)).length;
+            jsonSize = format.equals("json") ? size : jsonSize;
+            System.out.printf(Locale.ROOT, "[benchmark] %-5s users %6d bytes, with links %6d bytes (%.0f%% of JSON)%n",
+                    format, size, wrappedSize, 100.0 * size / jsonSize);
+            assertThat(size).isLessThanOrEqualTo(jsonSize);
+        }
+
+        Options options = new OptionsBuilder()
+                .include(UserBinaryFormatBenchmarkTest.class.getName() + ".*")
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertThat(results).hasSize(6);
+    }
+
+    @Benchmark
+    public byte[] encode(Page page) throws Exception {
+        return page.writer.writeValueAsBytes(page.users);
+    }
+
+    @Benchmark
+    public List<UserResponseDto> decode(Page page) throws Exception {
+        return page.reader.readValue(page.encoded);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Page {
+        @Param({"json", "cbor", "smile"})
+        public String format;
+
+        private List<UserResponseDto> users;
+        private ObjectWriter writer;
+        private ObjectReader reader;
+        private byte[] encoded;
+
+        @Setup
+        public void setUp() throws Exception {
+            users = users();
+            ObjectMapper mapper = mapper(format);
+            writer = mapper.writer();
+            reader = mapper.readerFor(USER_LIST);
+            encoded = writer.writeValueAsBytes(users);
+        }
+    }
+
+    private static List<UserResponseDto> users() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<UserResponseDto> users = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            users.add(new UserResponseDto(id, "User " + id, "user" + id + "@gmail.com", 30,
+                    createdAt.plusMinutes(id)));
+        }
+        return users;
+    }
+
+    /**
+     * Настройки как у ObjectMapper приложения: даты строками ISO-8601.
+     */
+    private static ObjectMapper mapper(String format) {
+        ObjectMapper json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> null;
+        };
+        return factory == null ? json : json.copyWith(factory);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.astondevs.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import ru.astondevs.dto.UserEventDeserializer;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.UserEventSerializer;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JMH-сравнение прежнего пути события через Kafka — writeValueAsString и StringSerializer у продюсера,
+ * StringDeserializer и readValue у потребителя — с {@link UserEventSerializer} и {@link UserEventDeserializer}.
+ * Профилировщик GC выводит gc.alloc.rate.norm — байты на операцию; размеры сообщения печатаются до запуска JMH.
+ * Запуск: mvn test -Pbenchmark -pl user-service -am
+ */
+@Tag("benchmark")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserEventSerializationBenchmarkTest {
+    private static final String TOPIC = "userEvents-topic";
+    private static final UserEventDto EVENT = new UserEventDto("create", "unknown.nvme@gmail.com");
+
+    @Test
+    void compareEncodings() throws Exception {
+        Codecs codecs = new Codecs();
+        int jsonSize = codecs.jsonBytes.length;
+        int binarySize = codecs.binaryBytes.length;
+        System.out.printf(Locale.ROOT, "[benchmark] json %d bytes, binary %d bytes (%.0f%% of JSON)%n",
+                jsonSize, binarySize, 100.0 * binarySize / jsonSize);
+        assertThat(binarySize).isLessThan(jsonSize);
+
+        Options options = new OptionsBuilder()
+                .include(UserEventSerializationBenchmarkTest.class.getName() + ".*")
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertThat(results).hasSize(4);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode(Codecs codecs) throws Exception {
+        return codecs.stringSerializer.serialize(TOPIC, codecs.objectMapper.writeValueAsString(EVENT));
+    }
+
+    @Benchmark
+    public byte[] binaryEncode(Codecs codecs) {
+        return codecs.serializer.serialize(TOPIC, EVENT);
+    }
+
+    @Benchmark
+    public UserEventDto jsonDecode(Codecs codecs) throws Exception {
+        return codecs.objectMapper.readValue(codecs.stringDeserializer.deserialize(TOPIC, codecs.jsonBytes),
+                UserEventDto.class);
+    }
+
+    @Benchmark
+    public UserEventDto binaryDecode(Codecs codecs) {
+        return codecs.deserializer.deserialize(TOPIC, codecs.binaryBytes);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Codecs {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final StringSerializer stringSerializer = new StringSerializer();
+        private final StringDeserializer stringDeserializer = new StringDeserializer();
+        private final UserEventSerializer serializer = new UserEventSerializer();
+        private final UserEventDeserializer deserializer = new UserEventDeserializer();
+        private final byte[] jsonBytes;
+        private final byte[] binaryBytes;
+
+        public Codecs() {
+            try {
+                jsonBytes = stringSerializer.serialize(TOPIC, objectMapper.writeValueAsString(EVENT));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            binaryBytes = serializer.serialize(TOPIC, EVENT);
+        }
+    }
+}
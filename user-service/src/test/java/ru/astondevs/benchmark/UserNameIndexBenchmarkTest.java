@@ -0,0 +1,103 @@
+package ru.astondevs.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.astondevs.util.TrigramIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение поиска top-N по триграммному индексу с полным перебором имён по подстроке,
+ * аналогом LIKE '%x%' без индекса: для ранжирования перебор не может остановиться на первых N совпадениях.
+ * Время индекса растёт с размером списков триграмм запроса: редкие фамилии и опечатки в них отвечают
+ * за десятки микросекунд, а частые имена вроде «maria» требуют оценить каждое совпадение.
+ * Запуск: mvn test -Pbenchmark -pl user-service -am
+ */
+@Tag("benchmark")
+class UserNameIndexBenchmarkTest {
+    private static final int USERS = 200_000;
+    private static final int LIMIT = 10;
+    private static final int WARMUP = 100;
+    private static final int ITERATIONS = 300;
+    private static final String[] FIRST_NAMES = {"Ibragim", "Ivan", "Maria", "Anna", "Petr", "Olga", "Sergey",
+            "Elena", "Dmitry", "Natalia", "Alexey", "Irina", "Mikhail", "Tatiana", "Nikolay", "Svetlana"};
+    private static final String[] SYLLABLES = {"ka", "ro", "mi", "dze", "va", "shi", "lo", "ne", "ta", "ga",
+            "dzhi", "ber", "kol", "sa", "ra", "bo", "li", "ser", "mat", "gu", "pet", "niz", "khu", "zhe", "fro",
+            "ply", "tsu", "yam", "chor", "vik", "dub", "lef", "mor", "shev", "ost", "grin", "bel", "zar", "kuz",
+            "tim", "ush", "yel", "pol", "rud", "sob", "tokh", "uml", "vas", "zub", "khar"};
+    private static final String[] SUFFIXES = {"ov", "ev", "in", "ova", "eva", "ina", "sky"};
+
+    private final TrigramIndex index = new TrigramIndex(0.5);
+    private final List<String> names = new ArrayList<>(USERS);
+    private final List<String> queries = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < USERS; i++) {
+            StringBuilder lastName = new StringBuilder();
+            for (int s = 0, count = 2 + random.nextInt(2); s < count; s++) {
+                lastName.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            lastName.append(SUFFIXES[random.nextInt(SUFFIXES.length)]);
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + lastName;
+            names.add(name);
+            index.put(i, name, 0);
+        }
+        String lastName = names.get(7).split(" ")[1];
+        String other = names.get(11).split(" ")[1];
+        queries.add(lastName);
+        queries.add(lastName.substring(1, lastName.length() - 1));
+        queries.add(other.substring(0, 2) + other.charAt(3) + other.charAt(2) + other.substring(4));
+        queries.add(names.get(3));
+        queries.add("maria");
+    }
+
+    @Test
+    void search_TrigramIndexVsFullScan() {
+        double indexTotal = 0;
+        double scanTotal = 0;
+        for (String query : queries) {
+            double indexMicros = measure(() -> index.search(query, LIMIT));
+            double scanMicros = measure(() -> fullScan(query));
+            System.out.printf(Locale.ROOT, "[benchmark] %-24s index %8.1f us, full scan %8.1f us%n",
+                    "'" + query + "'", indexMicros, scanMicros);
+            indexTotal += indexMicros;
+            scanTotal += scanMicros;
+        }
+
+        System.out.printf(Locale.ROOT, "[benchmark] mean speedup x%.1f%n", scanTotal / indexTotal);
+        assertThat(indexTotal).isLessThan(scanTotal);
+    }
+
+    private List<Long> fullScan(String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<Long> found = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).toLowerCase(Locale.ROOT).contains(needle)) {
+                found.add((long) i);
+            }
+        }
+        return found.subList(0, Math.min(LIMIT, found.size()));
+    }
+
+    private double measure(Supplier<List<Long>> search) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += search.get().size();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += search.get().size();
+        }
+        assertThat(sink).isNotNegative();
+        return (System.nanoTime() - started) / 1_000.0 / ITERATIONS;
+    }
+}
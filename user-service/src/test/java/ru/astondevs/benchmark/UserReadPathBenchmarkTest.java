@@ -0,0 +1,136 @@
+package ru.astondevs.benchmark;
+
+import com.sun.management.ThreadMXBean;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.astondevs.entity.User;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.util.UserConverter;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение пути чтения через управляемые сущности (findById или keyset-запрос сущностей + UserConverter)
+ * с проекциями, строящими UserResponseDto прямо из результата запроса.
+ * Каждая операция выполняется в отдельной read-only транзакции, как HTTP-запрос.
+ * Запуск: mvn test -Pbenchmark -pl user-service -am
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserReadPathBenchmarkTest {
+    private static final int USERS = 10_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final UserConverter userConverter = new UserConverter();
+    private TransactionTemplate readOnlyTx;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        if (userRepository.count() == 0) {
+            List<User> users = new ArrayList<>(USERS);
+            for (int i = 0; i < USERS; i++) {
+                users.add(User.builder().name("User " + i).email("user" + i + "@gmail.com").age(i % 100).build());
+            }
+            userRepository.saveAll(users);
+        }
+        ids = userRepository.findAll().stream().map(User::getId).sorted().toList();
+    }
+
+    @Test
+    void getUserById_ProjectionVsEntity() {
+        Result entity = measure("findById + toResponseDto",
+                i -> userConverter.toResponseDto(userRepository.findById(id(i)).orElseThrow()));
+        Result projection = measure("findResponseById",
+                i -> userRepository.findResponseById(id(i)).orElseThrow());
+
+        report(entity, projection);
+    }
+
+    @Test
+    void getAllUsers_ProjectionVsEntity() {
+        Result entity = measure("keyset entities + toResponseDto",
+                i -> entityManager.createQuery("select u from User u where u.id > :after order by u.id", User.class)
+                        .setParameter("after", pageCursor(i))
+                        .setMaxResults(PAGE_SIZE + 1)
+                        .getResultStream()
+                        .map(userConverter::toResponseDto)
+                        .toList());
+        Result projection = measure("findResponsesAfter",
+                i -> userRepository.findResponsesAfter(pageCursor(i), PageRequest.ofSize(PAGE_SIZE)).getContent());
+
+        report(entity, projection);
+        assertThat(projection.bytesPerOp()).isLessThan(entity.bytesPerOp());
+    }
+
+    private Long id(int i) {
+        return ids.get(i % ids.size());
+    }
+
+    private Long pageCursor(int i) {
+        return id(i % (USERS / PAGE_SIZE) * PAGE_SIZE) - 1;
+    }
+
+    private Result measure(String name, IntFunction<Object> operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            readOnlyTx.execute(status -> operation.apply(0));
+        }
+        ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] latencies = new long[ITERATIONS];
+        long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            int index = i;
+            long start = System.nanoTime();
+            readOnlyTx.execute(status -> operation.apply(index));
+            latencies[i] = System.nanoTime() - start;
+        }
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        Arrays.sort(latencies);
+        double meanMicros = Arrays.stream(latencies).average().orElse(0) / 1_000;
+        double p99Micros = latencies[(int) (ITERATIONS * 0.99)] / 1_000.0;
+        return new Result(name, (double) allocated / ITERATIONS, meanMicros, p99Micros);
+    }
+
+    private static void report(Result baseline, Result candidate) {
+        System.out.printf("%-32s %12s %10s %10s%n", "path", "bytes/op", "mean, us", "p99, us");
+        for (Result result : List.of(baseline, candidate)) {
+            System.out.printf("%-32s %12.0f %10.1f %10.1f%n",
+                    result.name(), result.bytesPerOp(), result.meanMicros(), result.p99Micros());
+        }
+        System.out.printf("allocation reduction: %.1f%%, mean latency reduction: %.1f%%%n",
+                100 * (1 - candidate.bytesPerOp() / baseline.bytesPerOp()),
+                100 * (1 - candidate.meanMicros() / baseline.meanMicros()));
+    }
+
+    private record Result(String name, double bytesPerOp, double meanMicros, double p99Micros) {
+    }
+}
@@ -0,0 +1,117 @@
+package ru.astondevs.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.hateoas.Link;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserResponseWrapper;
+import ru.astondevs.dto.UserResponseWrapperSerializer;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JMH-сравнение сериализации страницы пользователей: прежняя обёртка со списком из четырёх {@link Link}
+ * на каждого пользователя против {@link UserResponseWrapper} с {@link UserResponseWrapperSerializer},
+ * а также представление без ссылок. Профилировщик GC выводит gc.alloc.rate.norm — байты на операцию.
+ * Бенчмарк выполняется в JVM тестов (forks = 0): форк surefire не передаёт дочерней JVM свой classpath,
+ * поэтому абсолютные цифры шумнее, чем при отдельном запуске, но соотношение вариантов сохраняется.
+ * Запуск: mvn test -Pbenchmark -pl user-service -am
+ */
+@Tag("benchmark")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserResponseSerializationBenchmarkTest {
+    private static final int PAGE_SIZE = 50;
+
+    @Test
+    void compareSerialization() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(UserResponseSerializationBenchmarkTest.class.getName() + ".*")
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertThat(results).hasSize(3);
+    }
+
+    @Benchmark
+    public void linkObjects(Page page) throws Exception {
+        List<LinkListWrapper> wrapped = new ArrayList<>(page.users.size());
+        for (UserResponseDto user : page.users) {
+            wrapped.add(LinkListWrapper.wrap(user));
+        }
+        page.writer.writeValue(OutputStream.nullOutputStream(), wrapped);
+    }
+
+    @Benchmark
+    public void streamedLinks(Page page) throws Exception {
+        page.writer.writeValue(OutputStream.nullOutputStream(), UserResponseWrapper.wrapAll(page.users));
+    }
+
+    @Benchmark
+    public void withoutLinks(Page page) throws Exception {
+        page.plainWriter.writeValue(OutputStream.nullOutputStream(), UserResponseWrapper.wrapAll(page.users));
+    }
+
+    @State(Scope.Benchmark)
+    public static class Page {
+        private final List<UserResponseDto> users = new ArrayList<>(PAGE_SIZE);
+        private ObjectWriter writer;
+        private ObjectWriter plainWriter;
+
+        @Setup
+        public void setUp() {
+            LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+            for (long id = 1; id <= PAGE_SIZE; id++) {
+                users.add(new UserResponseDto(id, "User " + id, "user" + id + "@gmail.com", 30,
+                        createdAt.plusMinutes(id)));
+            }
+            ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+            writer = objectMapper.writer();
+            plainWriter = writer.withAttribute(UserResponseWrapperSerializer.WITHOUT_LINKS, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Обёртка в прежнем виде: ссылки создаются при обёртывании и сериализуются как обычные объекты.
+     */
+    record LinkListWrapper(UserResponseDto content, List<Link> links) {
+        static LinkListWrapper wrap(UserResponseDto dto) {
+            return new LinkListWrapper(dto, List.of(
+                    Link.of("/api/users/" + dto.id()).withSelfRel(),
+                    Link.of("/api/users").withRel("users"),
+                    Link.of("/api/users/" + dto.id()).withRel("update"),
+                    Link.of("/api/users/" + dto.id()).withRel("delete")
+            ));
+        }
+    }
+}
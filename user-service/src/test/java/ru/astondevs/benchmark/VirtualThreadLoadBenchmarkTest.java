@@ -0,0 +1,169 @@
+package ru.astondevs.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочное сравнение модели «поток Tomcat из пула на запрос» с виртуальными потоками
+ * (spring.threads.virtual.enabled). Измеряется модель потоков, а не приложение: обработчик лишь ждёт
+ * время, сопоставимое с запросом к базе или SMTP, поэтому при пуле в 200 потоков лишние запросы ждут
+ * в очереди, а виртуальные потоки упираются только в CPU.
+ * В приложении ожидание занимает соединение из пула Hikari, и в профиле virtual-threads пул ограничен
+ * (spring.datasource.hikari.maximum-pool-size). Второй замер повторяет это ограничение семафором
+ * того же размера и проверяет, что пропускная способность упирается в размер пула / время запроса,
+ * а не растёт с числом виртуальных потоков.
+ * Сравнение запускается лишь на Java 21+, на Java 17 измеряется только пул.
+ * Запуск: mvn test -Pbenchmark -pl user-service -am
+ */
+@Slf4j
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+    private static final long BLOCKING_MILLIS = 20;
+    /**
+     * Как spring.datasource.hikari.maximum-pool-size в профиле virtual-threads.
+     */
+    private static final int CONNECTION_POOL_SIZE = 50;
+    private static final int CONCURRENCY = 500;
+    private static final int WARMUP = 1_000;
+    private static final int REQUESTS = 5_000;
+
+    @Test
+    void platformThreadPool_BlockingEndpoint() throws Exception {
+        Result platform = load("platform threads", false, 0);
+
+        assertThat(platform.throughput()).isPositive();
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreads_VsPlatformThreadPool() throws Exception {
+        Result platform = load("platform threads", false, 0);
+        Result virtual = load("virtual threads", true, 0);
+
+        log.info(String.format(Locale.ROOT, "[benchmark] throughput x%.1f, p99 x%.1f",
+                virtual.throughput() / platform.throughput(), platform.p99Millis() / virtual.p99Millis()));
+        assertThat(virtual.throughput()).isGreaterThan(platform.throughput());
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreads_BoundedByConnectionPool() throws Exception {
+        Result pooled = load("virtual threads, pool " + CONNECTION_POOL_SIZE, true, CONNECTION_POOL_SIZE);
+
+        double ceiling = CONNECTION_POOL_SIZE * 1000.0 / BLOCKING_MILLIS;
+        log.info(String.format(Locale.ROOT, "[benchmark] pool ceiling %.0f req/s, reached %.0f%%",
+                ceiling, pooled.throughput() * 100 / ceiling));
+        assertThat(pooled.throughput()).isLessThanOrEqualTo(ceiling);
+    }
+
+    /**
+     * @param connectionPoolSize Сколько запросов обработчик выполняет одновременно; 0 — без ограничения.
+     */
+    private Result load(String name, boolean virtualThreads, int connectionPoolSize) throws Exception {
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(BlockingApplication.class)
+                        .properties("server.port=0",
+                                "spring.main.banner-mode=off",
+                                "spring.threads.virtual.enabled=" + virtualThreads,
+                                "benchmark.connection-pool-size=" + connectionPoolSize)
+                        .run()) {
+            URI uri = URI.create("http://localhost:" + context.getWebServer().getPort() + "/blocking");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            run(client, uri, WARMUP);
+
+            long started = System.nanoTime();
+            long[] latencies = run(client, uri, REQUESTS);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            Arrays.sort(latencies);
+            Result result = new Result(REQUESTS / seconds, latencies[REQUESTS * 99 / 100] / 1e6);
+            log.info(String.format(Locale.ROOT, "[benchmark] %-24s %8.0f req/s, p50 %6.1f ms, p99 %6.1f ms",
+                    name, result.throughput(), latencies[REQUESTS / 2] / 1e6, result.p99Millis()));
+            return result;
+        }
+    }
+
+    private static long[] run(HttpClient client, URI uri, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[requests];
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        return latencies;
+    }
+
+    private record Result(double throughput, double p99Millis) {
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class})
+    @Import(BlockingController.class)
+    static class BlockingApplication {
+    }
+
+    /**
+     * Ожидание, как у запроса к базе; при заданном размере пула — только с занятым «соединением».
+     */
+    @RestController
+    static class BlockingController {
+        private final Semaphore connections;
+
+        BlockingController(@Value("${benchmark.connection-pool-size}") int connectionPoolSize) {
+            this.connections = connectionPoolSize > 0 ? new Semaphore(connectionPoolSize, true) : null;
+        }
+
+        @GetMapping("/blocking")
+        String blocking() throws InterruptedException {
+            if (connections == null) {
+                Thread.sleep(BLOCKING_MILLIS);
+                return "ok";
+            }
+            connections.acquire();
+            try {
+                Thread.sleep(BLOCKING_MILLIS);
+            } finally {
+                connections.release();
+            }
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package ru.astondevs.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.astondevs.TestApplication;
+import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserStatsDto;
+import ru.astondevs.dto.UserUpdateDto;
+import ru.astondevs.exception.DuplicateEmailException;
+import ru.astondevs.exception.PreconditionFailedException;
+import ru.astondevs.exception.ResourceNotFoundException;
+import ru.astondevs.service.ReactiveUserService;
+import ru.astondevs.service.UserStatistics;
+import ru.astondevs.service.impl.ReactiveUserServiceImpl;
+import ru.astondevs.service.impl.UserStatisticsImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveUserController.class)
+@ActiveProfiles("reactive")
+@Import(ReactiveUserControllerTest.TestConfig.class)
+@ContextConfiguration(classes = TestApplication.class)
+class ReactiveUserControllerTest {
+    static class TestConfig {
+        @Bean
+        public ReactiveUserService reactiveUserService() {
+            return Mockito.mock(ReactiveUserServiceImpl.class);
+        }
+
+        @Bean
+        public UserStatistics userStatistics() {
+            return Mockito.mock(UserStatisticsImpl.class);
+        }
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    @Autowired
+    private UserStatistics userStatistics;
+
+    private final UserResponseDto testUser = new UserResponseDto(
+            1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now(), 3L);
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(userService, userStatistics);
+    }
+
+    @Test
+    void createUser_ValidRequest_Returns201WithLocation() {
+        when(userService.createUser(any())).thenReturn(Mono.just(testUser));
+
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().location("/api/users/1")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.email").isEqualTo("unknown.nvme@gmail.com")
+                .jsonPath("$.version").doesNotExist();
+    }
+
+    @Test
+    void createUser_InvalidRequest_Returns400WithFieldErrors() {
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserCreateDto("I", "not-an-email", 121))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors[?(@.field == 'name')]").exists()
+                .jsonPath("$.errors[?(@.field == 'email')]").exists()
+                .jsonPath("$.errors[?(@.field == 'age')]").exists();
+
+        verify(userService, never()).createUser(any());
+    }
+
+    @Test
+    void createUser_DuplicateEmail_Returns409() {
+        when(userService.createUser(any()))
+                .thenReturn(Mono.error(new DuplicateEmailException("Email уже существует")));
+
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void getUserById_ReturnsUserWithETag() {
+        when(userService.getUserById(1L)).thenReturn(Mono.just(testUser));
+
+        webTestClient.get().uri("/api/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Ibra");
+    }
+
+    @Test
+    void getUserById_Smile_ReturnsETagOfSmileRepresentation() {
+        when(userService.getUserById(1L)).thenReturn(Mono.just(testUser));
+
+        webTestClient.get().uri("/api/users/1")
+                .accept(MediaType.parseMediaType("application/x-jackson-smile"))
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("application/x-jackson-smile")
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3@application/x-jackson-smile\"");
+    }
+
+    @Test
+    void getUserById_MatchingIfNoneMatch_Returns304() {
+        when(userService.getUserById(1L)).thenReturn(Mono.just(testUser));
+
+        webTestClient.get().uri("/api/users/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getUserById_NotFound_Returns404() {
+        when(userService.getUserById(99L))
+                .thenReturn(Mono.error(new ResourceNotFoundException("Пользователь не найден")));
+
+        webTestClient.get().uri("/api/users/99")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Пользователь не найден");
+    }
+
+    @Test
+    void getAllUsers_WithNextPage_ReturnsNextLinkHeader() {
+        when(userService.getAllUsers(null, 1))
+                .thenReturn(Mono.just(new SliceImpl<>(List.of(testUser), PageRequest.ofSize(1), true)));
+
+        webTestClient.get().uri("/api/users?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.LINK,
+                        "</api/users?limit=1>;rel=\"self\", </api/users?after=1&limit=1>;rel=\"next\"")
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1);
+    }
+
+    @Test
+    void getAllUsers_InvalidLimit_Returns400() {
+        when(userService.getAllUsers(null, 0))
+                .thenReturn(Mono.error(new IllegalArgumentException("Параметр limit должен быть в пределах от 1 до 100")));
+
+        webTestClient.get().uri("/api/users?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getStats_ReturnsCountersSnapshot() {
+        when(userStatistics.snapshot()).thenReturn(new UserStatsDto(2L, Map.of("20-29", 2L), Map.of()));
+
+        webTestClient.get().uri("/api/users/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalUsers").isEqualTo(2)
+                .jsonPath("$.ageHistogram['20-29']").isEqualTo(2);
+    }
+
+    @Test
+    void exportUsers_StreamsNdjson() {
+        UserResponseDto second = new UserResponseDto(2L, "Vibra", "vibra@gmail.com", 30, LocalDateTime.now());
+        when(userService.exportAllUsers()).thenReturn(Flux.just(testUser, second));
+
+        webTestClient.get().uri("/api/users/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(UserResponseDto.class)
+                .value(users -> assertThat(users).extracting(UserResponseDto::id).containsExactly(1L, 2L));
+    }
+
+    @Test
+    void updateUser_WithIfMatch_PassesExpectedVersion() {
+        UserUpdateDto dto = new UserUpdateDto("Vibra", null, null);
+        when(userService.updateUser(eq(1L), any(), eq(3L))).thenReturn(Mono.just(new UserResponseDto(1L, "Vibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now(), 4L)));
+
+        webTestClient.patch().uri("/api/users/1")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"4\"");
+    }
+
+    @Test
+    void updateUser_WeakIfMatch_Returns412WithoutUpdate() {
+        webTestClient.patch().uri("/api/users/1")
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserUpdateDto("Vibra", null, null))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        verify(userService, never()).updateUser(any(), any(), any());
+    }
+
+    @Test
+    void updateUser_StaleVersion_Returns412() {
+        when(userService.updateUser(eq(1L), any(), isNull()))
+                .thenReturn(Mono.error(new PreconditionFailedException("Версия пользователя не совпадает с If-Match")));
+
+        webTestClient.patch().uri("/api/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserUpdateDto("Vibra", null, null))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void deleteUser_Returns204WithUsersLink() {
+        when(userService.deleteUser(1L)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("/api/users/1")
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectHeader().valueEquals(HttpHeaders.LINK, "</api/users>;rel=\"users\"");
+    }
+}
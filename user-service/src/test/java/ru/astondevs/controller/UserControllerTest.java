@@ -1,51 +1,87 @@
 package ru.astondevs.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.astondevs.TestApplication;
 import ru.astondevs.config.KafkaConfig;
+import ru.astondevs.config.UserExportProperties;
+import ru.astondevs.dto.UserBatchCreateResult;
+import ru.astondevs.dto.UserBatchDeleteResult;
+import ru.astondevs.dto.UserBatchItemResult;
 import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserField;
 import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserResponseWrapper;
+import ru.astondevs.dto.UserSearchCriteria;
+import ru.astondevs.dto.UserStatsDto;
 import ru.astondevs.dto.UserUpdateDto;
 import ru.astondevs.exception.DuplicateEmailException;
+import ru.astondevs.exception.PreconditionFailedException;
 import ru.astondevs.exception.ResourceNotFoundException;
 import ru.astondevs.service.KafkaProducer;
 import ru.astondevs.service.UserService;
 import ru.astondevs.service.UserServiceFacade;
+import ru.astondevs.service.UserStatistics;
 import ru.astondevs.service.impl.KafkaProducerImpl;
 import ru.astondevs.service.impl.UserServiceFacadeImpl;
 import ru.astondevs.service.impl.UserServiceImpl;
+import ru.astondevs.service.impl.UserStatisticsImpl;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -64,6 +100,16 @@ public class UserControllerTest {
             return Mockito.mock(UserServiceFacadeImpl.class);
         }
 
+        @Bean
+        public UserStatistics userStatistics() {
+            return Mockito.mock(UserStatisticsImpl.class);
+        }
+
+        @Bean
+        public UserExportProperties userExportProperties() {
+            return new UserExportProperties();
+        }
+
         @Bean
         public KafkaProducer kafkaProducer() {
             return Mockito.mock(KafkaProducerImpl.class);
@@ -72,8 +118,7 @@ public class UserControllerTest {
         @Bean
         public KafkaConfig kafkaConfig() {
             KafkaConfig kafkaConfig = Mockito.mock(KafkaConfig.class);
-            when(kafkaConfig.getUserAdd()).thenReturn("userAdd-topic");
-            when(kafkaConfig.getUserDelete()).thenReturn("userDelete-topic");
+            when(kafkaConfig.getUserEvents()).thenReturn("userEvents-topic");
             return kafkaConfig;
         }
     }
@@ -93,6 +138,11 @@ public class UserControllerTest {
     @Autowired
     private KafkaProducer kafkaProducer;
 
+    @Autowired
+    private UserStatistics userStatistics;
+
+    private final UserCreateDto validCreateDto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
+
     private final UserResponseDto testUser = new UserResponseDto(
             1L,
             "Ibra",
@@ -206,9 +256,54 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.content.age").value(age));
     }
 
+    @Test
+    void createUsers_Batch_ReturnsPerItemResults() throws Exception {
+        List<UserCreateDto> dtos = List.of(
+                new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25),
+                new UserCreateDto("I", "bad", 25));
+        when(userServiceFacade.createUsersAndPublishEvents(dtos)).thenReturn(UserBatchCreateResult.of(List.of(
+                UserBatchItemResult.created(0, "unknown.nvme@gmail.com", 1L),
+                UserBatchItemResult.failed(1, "bad", "name: Name must be between 2 and 50 characters"))));
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.items[1].success").value(false))
+                .andExpect(jsonPath("$.items[1].error").value("name: Name must be between 2 and 50 characters"));
+    }
+
+    @Test
+    void createUsers_EmptyBatch_Returns400() throws Exception {
+        when(userServiceFacade.createUsersAndPublishEvents(List.of()))
+                .thenThrow(new IllegalArgumentException("Пакет должен содержать от 1 до 50000 пользователей"));
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Пакет должен содержать от 1 до 50000 пользователей"));
+    }
+
+    @Test
+    void deleteUsers_Batch_ReturnsDeletedAndNotFound() throws Exception {
+        when(userServiceFacade.deleteUsersAndPublishEvents(List.of(1L, 2L)))
+                .thenReturn(new UserBatchDeleteResult(List.of(1L), List.of(2L)));
+
+        mockMvc.perform(delete("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted[0]").value(1L))
+                .andExpect(jsonPath("$.notFound[0]").value(2L));
+    }
+
     @Test
     void getUserById_ExistingUser_Returns200() throws Exception {
-        when(userService.getUserById(1L)).thenReturn(testUser);
+        when(userService.getUserById(1L, UserField.ALL)).thenReturn(testUser);
 
         mockMvc.perform(get("/api/users/1"))
                 .andExpect(status().isOk())
@@ -217,6 +312,92 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.content.name").value("Ibra"));
     }
 
+    @Test
+    void getUserById_ReturnsStrongETagFromVersion() throws Exception {
+        when(userService.getUserById(1L, UserField.ALL)).thenReturn(versionedUser(3L));
+
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        verify(userService, never()).getUserVersion(any());
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "*/*|application/json|\"3\"",
+            "application/hal+json|application/hal+json|\"3@application/hal+json\"",
+            "application/vnd.astondevs.plain+json|application/vnd.astondevs.plain+json|\"3@application/vnd.astondevs.plain+json\"",
+            "application/cbor|application/cbor|\"3@application/cbor\"",
+            "application/x-jackson-smile|application/x-jackson-smile|\"3@application/x-jackson-smile\"",
+            "application/json;q=0.5, application/cbor|application/cbor|\"3@application/cbor\"",
+            "text/html, */*;q=0.8|application/json|\"3\""})
+    void getUserById_ETagFollowsNegotiatedRepresentation(String accept, String contentType, String eTag)
+            throws Exception {
+        when(userService.getUserById(1L, UserField.ALL)).thenReturn(versionedUser(3L));
+
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.ACCEPT, accept))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(contentType))
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void getUserById_IfNoneMatchOfAnotherRepresentation_Returns200() throws Exception {
+        when(userService.getUserVersion(1L)).thenReturn(3L);
+        when(userService.getUserById(1L, UserField.ALL)).thenReturn(versionedUser(3L));
+
+        mockMvc.perform(get("/api/users/1")
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3@application/cbor\""));
+    }
+
+    @Test
+    void getUserById_MatchingIfNoneMatch_Returns304WithoutLoadingUser() throws Exception {
+        when(userService.getUserVersion(1L)).thenReturn(3L);
+
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+
+        verify(userService, never()).getUserById(any(), any());
+    }
+
+    @Test
+    void getUserById_StaleIfNoneMatch_Returns200() throws Exception {
+        when(userService.getUserVersion(1L)).thenReturn(3L);
+        when(userService.getUserById(1L, UserField.ALL)).thenReturn(versionedUser(3L));
+
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.content.id").value(1L))
+                .andExpect(jsonPath("$.content.version").doesNotExist());
+    }
+
+    @Test
+    void getUserById_IfNoneMatchForMissingUser_Returns404() throws Exception {
+        when(userService.getUserVersion(999L)).thenThrow(new ResourceNotFoundException("Пользователь не найден"));
+
+        mockMvc.perform(get("/api/users/999").header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getUserByEmail_ExistingUser_Returns200() throws Exception {
+        when(userService.getUserByEmail("unknown.nvme@gmail.com", UserField.ALL)).thenReturn(testUser);
+
+        mockMvc.perform(get("/api/users/by-email").param("email", "unknown.nvme@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.id").value(1L))
+                .andExpect(jsonPath("$.content.name").value("Ibra"));
+    }
+
     @Test
     void getAllUsers_WithResults_ReturnsFullList() throws Exception {
         List<UserResponseDto> users = List.of(
@@ -224,25 +405,125 @@ public class UserControllerTest {
                 new UserResponseDto(2L, "User 2", "user2@gmail.com", 25, LocalDateTime.now())
         );
 
-        when(userService.getAllUsers()).thenReturn(users);
+        when(userService.getAllUsers(null, 20, UserField.ALL))
+                .thenReturn(new SliceImpl<>(users, PageRequest.ofSize(20), false));
 
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$._embedded.users.length()").value(2))
-                .andExpect(jsonPath("$._embedded.users[1].content.email").value("user2@gmail.com"));
+                .andExpect(jsonPath("$._embedded.users[1].content.email").value("user2@gmail.com"))
+                .andExpect(jsonPath("$._links.self.href").value("/api/users?limit=20"))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
     }
 
     @Test
     void getAllUsers_EmptyList_ReturnsEmptyArray() throws Exception {
-        when(userService.getAllUsers()).thenReturn(Collections.emptyList());
+        when(userService.getAllUsers(null, 20, UserField.ALL))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.ofSize(20), false));
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$._embedded").doesNotExist());
     }
 
+    @Test
+    void getAllUsers_HasNextPage_ReturnsNextLinkWithLastId() throws Exception {
+        List<UserResponseDto> users = List.of(
+                new UserResponseDto(6L, "User 6", "user6@gmail.com", 25, LocalDateTime.now()),
+                new UserResponseDto(9L, "User 9", "user9@gmail.com", 30, LocalDateTime.now())
+        );
+        when(userService.getAllUsers(5L, 2, UserField.ALL))
+                .thenReturn(new SliceImpl<>(users, PageRequest.ofSize(2), true));
+
+        mockMvc.perform(get("/api/users").param("after", "5").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.users.length()").value(2))
+                .andExpect(jsonPath("$._links.self.href").value("/api/users?after=5&limit=2"))
+                .andExpect(jsonPath("$._links.next.href").value("/api/users?after=9&limit=2"));
+    }
+
+    @Test
+    void getAllUsers_InvalidLimit_Returns400() throws Exception {
+        when(userService.getAllUsers(null, 1000, UserField.ALL))
+                .thenThrow(new IllegalArgumentException("Параметр limit должен быть в пределах от 1 до 100"));
+
+        mockMvc.perform(get("/api/users").param("limit", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Параметр limit должен быть в пределах от 1 до 100"));
+    }
+
+    @Test
+    void searchUsers_BindsFiltersAndKeepsThemInNextLink() throws Exception {
+        UserSearchCriteria criteria = new UserSearchCriteria(18, 30, "Ib", LocalDateTime.of(2025, 1, 1, 0, 0), null);
+        when(userService.searchUsers(criteria, null, 1, UserField.ALL))
+                .thenReturn(new SliceImpl<>(List.of(testUser), PageRequest.ofSize(1), true));
+
+        mockMvc.perform(get("/api/users/search")
+                        .param("minAge", "18")
+                        .param("maxAge", "30")
+                        .param("namePrefix", "Ib")
+                        .param("createdFrom", "2025-01-01T00:00:00")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.users.length()").value(1))
+                .andExpect(jsonPath("$._links.self.href")
+                        .value("/api/users/search?minAge=18&maxAge=30&namePrefix=Ib&createdFrom=2025-01-01T00:00&limit=1"))
+                .andExpect(jsonPath("$._links.next.href")
+                        .value("/api/users/search?minAge=18&maxAge=30&namePrefix=Ib&createdFrom=2025-01-01T00:00&after=1&limit=1"));
+    }
+
+    @Test
+    void searchUsers_InvalidAgeRange_Returns400() throws Exception {
+        when(userService.searchUsers(new UserSearchCriteria(40, 30, null, null, null), null, 20, UserField.ALL))
+                .thenThrow(new IllegalArgumentException("Параметр minAge не может быть больше maxAge"));
+
+        mockMvc.perform(get("/api/users/search").param("minAge", "40").param("maxAge", "30"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Параметр minAge не может быть больше maxAge"));
+    }
+
+    @Test
+    void findUsersByName_ReturnsMatchesInIndexOrder() throws Exception {
+        UserResponseDto vibra = new UserResponseDto(2L, "Vibra", "vibra@gmail.com", 30, LocalDateTime.now());
+        when(userServiceFacade.findUsersByName("ibra", 10)).thenReturn(List.of(testUser, vibra));
+
+        mockMvc.perform(get("/api/users/name-search").param("q", "ibra"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.users.length()").value(2))
+                .andExpect(jsonPath("$._embedded.users[1].content.name").value("Vibra"))
+                .andExpect(jsonPath("$._links.self.href").value("/api/users/name-search?q=ibra&limit=10"));
+    }
+
+    @Test
+    void exportUsers_WritesOneJsonObjectPerLine() throws Exception {
+        UserResponseDto secondUser = new UserResponseDto(2L, "User 2", "user2@gmail.com", 30, LocalDateTime.now());
+        doAnswer(inv -> {
+            Consumer<UserResponseDto> consumer = inv.getArgument(0);
+            consumer.accept(testUser);
+            consumer.accept(secondUser);
+            return null;
+        }).when(userService).exportAllUsers(any());
+
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals("user2@gmail.com", objectMapper.readTree(lines[1]).get("email").asText());
+    }
+
     @Test
     void getUserById_NonExistingUser_Returns404() throws Exception {
-        when(userService.getUserById(999L))
+        when(userService.getUserById(999L, UserField.ALL))
                 .thenThrow(new ResourceNotFoundException("Пользователь не найден"));
 
         mockMvc.perform(get("/api/users/999"))
@@ -257,7 +538,7 @@ public class UserControllerTest {
                 1L, "Ibragim Gadzhiev", "unknown.nvme@gmail.com", 30, testUser.createdAt()
         );
 
-        when(userService.updateUser(1L, updateDto)).thenReturn(updatedUser);
+        when(userService.updateUser(1L, updateDto, null)).thenReturn(updatedUser);
 
         mockMvc.perform(patch("/api/users/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -278,7 +559,7 @@ public class UserControllerTest {
 
     @Test
     void updateUser_EmptyBody_Returns400() throws Exception {
-        when(userService.updateUser(eq(1L), any(UserUpdateDto.class)))
+        when(userService.updateUser(eq(1L), any(UserUpdateDto.class), isNull()))
                 .thenThrow(new IllegalArgumentException("Нужно заполнить хотя бы одно поле"));
 
         mockMvc.perform(patch("/api/users/1")
@@ -292,7 +573,7 @@ public class UserControllerTest {
     void updateUser_DuplicateEmail_Returns409() throws Exception {
         UserUpdateDto updateDto = new UserUpdateDto(null, "duplicate@gmail.com", null);
 
-        when(userService.updateUser(anyLong(), any()))
+        when(userService.updateUser(anyLong(), any(), any()))
                 .thenThrow(new DuplicateEmailException("Email уже используется"));
 
         mockMvc.perform(patch("/api/users/1")
@@ -309,7 +590,7 @@ public class UserControllerTest {
                 1L, testUser.name(), testUser.email(), 35, testUser.createdAt()
         );
 
-        when(userService.updateUser(1L, updateDto)).thenReturn(updatedUser);
+        when(userService.updateUser(1L, updateDto, null)).thenReturn(updatedUser);
 
         mockMvc.perform(patch("/api/users/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -318,6 +599,69 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.content.email").value(testUser.email()));
     }
 
+    @Test
+    void updateUser_MatchingIfMatch_PassesExpectedVersion() throws Exception {
+        UserUpdateDto updateDto = new UserUpdateDto(null, null, 35);
+        when(userService.updateUser(1L, updateDto, 3L)).thenReturn(versionedUser(4L));
+
+        mockMvc.perform(patch("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void updateUser_IfMatchOfAnyRepresentation_PassesExpectedVersion() throws Exception {
+        UserUpdateDto updateDto = new UserUpdateDto(null, null, 35);
+        when(userService.updateUser(1L, updateDto, 3L)).thenReturn(versionedUser(4L));
+
+        mockMvc.perform(patch("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3;id;name@application/cbor\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateUser_StaleIfMatch_Returns412() throws Exception {
+        UserUpdateDto updateDto = new UserUpdateDto(null, null, 35);
+        when(userService.updateUser(1L, updateDto, 2L))
+                .thenThrow(new PreconditionFailedException("Версия пользователя не совпадает с If-Match"));
+
+        mockMvc.perform(patch("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Версия пользователя не совпадает с If-Match"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"W/\"3\"", "\"abc\"", "3"})
+    void updateUser_UnusableIfMatch_Returns412WithoutUpdate(String ifMatch) throws Exception {
+        mockMvc.perform(patch("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, ifMatch)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserUpdateDto(null, null, 35))))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(userService, never()).updateUser(any(), any(), any());
+    }
+
+    @Test
+    void updateUser_WildcardIfMatch_UpdatesWithoutVersionCheck() throws Exception {
+        UserUpdateDto updateDto = new UserUpdateDto(null, null, 35);
+        when(userService.updateUser(1L, updateDto, null)).thenReturn(versionedUser(4L));
+
+        mockMvc.perform(patch("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void deleteUser_ExistingUser_Returns204() throws Exception {
         mockMvc.perform(delete("/api/users/1"))
@@ -354,5 +698,219 @@ public class UserControllerTest {
                 Arguments.of(new UserUpdateDto(null, null, -10), "age")
         );
     }
-}
 
+    private UserResponseDto versionedUser(Long version) {
+        return new UserResponseDto(testUser.id(), testUser.name(), testUser.email(), testUser.age(),
+                testUser.createdAt(), version);
+    }
+
+    @Test
+    void getStats_ReturnsCountersSnapshot() throws Exception {
+        Map<String, Long> ageHistogram = new LinkedHashMap<>();
+        ageHistogram.put("20-29", 2L);
+        ageHistogram.put("unknown", 1L);
+        when(userStatistics.snapshot()).thenReturn(
+                new UserStatsDto(3L, ageHistogram, Map.of(LocalDate.of(2025, 5, 1), 3L)));
+
+        mockMvc.perform(get("/api/users/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalUsers").value(3))
+                .andExpect(jsonPath("$.ageHistogram['20-29']").value(2))
+                .andExpect(jsonPath("$.ageHistogram.unknown").value(1))
+                .andExpect(jsonPath("$.signupsPerDay['2025-05-01']").value(3));
+
+        verify(userService, never()).getAllUsers(any(), anyInt(), any());
+    }
+
+    @Test
+    void getUserById_DefaultRepresentation_IncludesLinks() throws Exception {
+        when(userService.getUserById(1L, UserField.ALL)).thenReturn(testUser);
+
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.links.length()").value(4))
+                .andExpect(jsonPath("$.links[0].rel").value("self"))
+                .andExpect(jsonPath("$.links[0].href").value("/api/users/1"))
+                .andExpect(jsonPath("$.links[1].rel").value("users"))
+                .andExpect(jsonPath("$.links[1].href").value("/api/users"));
+    }
+
+    @Test
+    void getUserById_PlainJsonAccepted_ReturnsUserWithoutLinks() throws Exception {
+        when(userService.getUserById(1L, UserField.ALL)).thenReturn(testUser);
+
+        mockMvc.perform(get("/api/users/1").accept(UserResponseWrapper.PLAIN_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(UserResponseWrapper.PLAIN_JSON))
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(jsonPath("$.email").value("unknown.nvme@gmail.com"))
+                .andExpect(jsonPath("$.links").doesNotExist())
+                .andExpect(jsonPath("$.content").doesNotExist());
+    }
+
+    @Test
+    void getAllUsers_ItemLinksKeepRelInHalCollection() throws Exception {
+        when(userService.getAllUsers(null, 20, UserField.ALL))
+                .thenReturn(new SliceImpl<>(List.of(testUser), PageRequest.ofSize(20), false));
+
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.users[0].links[3].rel").value("delete"))
+                .andExpect(jsonPath("$._embedded.users[0].links[3].href").value("/api/users/1"));
+    }
+
+    @Test
+    void getAllUsers_PlainJsonAccepted_ReturnsItemsWithoutLinks() throws Exception {
+        when(userService.getAllUsers(null, 20, UserField.ALL))
+                .thenReturn(new SliceImpl<>(List.of(testUser), PageRequest.ofSize(20), true));
+
+        mockMvc.perform(get("/api/users").accept(UserResponseWrapper.PLAIN_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(UserResponseWrapper.PLAIN_JSON))
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content[0].links").doesNotExist())
+                .andExpect(jsonPath("$.links[?(@.rel == 'next')].href").value("/api/users?after=1&limit=20"));
+    }
+
+    @Test
+    void getUserById_WithFields_ReturnsOnlyRequestedFieldsAndFieldETag() throws Exception {
+        UserResponseDto partialUser = new UserResponseDto(1L, "Ibra", null, null, null, 3L);
+        when(userService.getUserById(1L, EnumSet.of(UserField.ID, UserField.NAME))).thenReturn(partialUser);
+
+        mockMvc.perform(get("/api/users/1").param("fields", "name,id"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3;id;name\""))
+                .andExpect(jsonPath("$.content.id").value(1L))
+                .andExpect(jsonPath("$.content.name").value("Ibra"))
+                .andExpect(jsonPath("$.content.email").doesNotExist())
+                .andExpect(jsonPath("$.content.createdAt").doesNotExist())
+                .andExpect(jsonPath("$.links[0].href").value("/api/users/1"));
+    }
+
+    @Test
+    void getAllUsers_WithFields_KeepsFieldsInNextLink() throws Exception {
+        UserResponseDto partialUser = new UserResponseDto(1L, "Ibra", null, null, null, 0L);
+        when(userService.getAllUsers(null, 20, EnumSet.of(UserField.ID, UserField.NAME)))
+                .thenReturn(new SliceImpl<>(List.of(partialUser), PageRequest.ofSize(20), true));
+
+        mockMvc.perform(get("/api/users").param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.users[0].content.name").value("Ibra"))
+                .andExpect(jsonPath("$._embedded.users[0].content.age").doesNotExist())
+                .andExpect(jsonPath("$._links.next.href").value("/api/users?after=1&limit=20&fields=id,name"));
+    }
+
+    @Test
+    void getUserById_UnknownField_Returns400() throws Exception {
+        mockMvc.perform(get("/api/users/1").param("fields", "id,password"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).getUserById(any(), any());
+    }
+
+    @Test
+    void getUserById_CborAccepted_ReturnsSameStructureInCbor() throws Exception {
+        when(userService.getUserById(1L, UserField.ALL)).thenReturn(testUser);
+
+        byte[] body = mockMvc.perform(get("/api/users/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode user = new CBORMapper().readTree(body);
+        assertEquals("unknown.nvme@gmail.com", user.at("/content/email").asText());
+        assertEquals("/api/users/1", user.at("/links/0/href").asText());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/x-jackson-smile", "application/cbor"})
+    void getAllUsers_BinaryAccepted_ReturnsSameHalStructureAsJson(String mediaType) throws Exception {
+        when(userService.getAllUsers(null, 20, UserField.ALL))
+                .thenReturn(new SliceImpl<>(List.of(testUser), PageRequest.ofSize(20), false));
+
+        byte[] body = mockMvc.perform(get("/api/users").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+        String json = mockMvc.perform(get("/api/users").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        ObjectMapper reader = mediaType.equals("application/cbor") ? new CBORMapper() : new SmileMapper();
+        JsonNode page = reader.readTree(body);
+        assertEquals("Ibra", page.at("/_embedded/users/0/content/name").asText());
+        assertEquals("/api/users?limit=20", page.at("/_links/self/href").asText());
+        assertEquals(objectMapper.readTree(json), page);
+    }
+
+    @Test
+    void createUserAsync_CompletesAfterKafkaAck_Returns201() throws Exception {
+        CompletableFuture<UserResponseDto> created = new CompletableFuture<>();
+        when(userServiceFacade.createUserAndPublishEventAsync(any(UserCreateDto.class))).thenReturn(created);
+
+        MvcResult result = mockMvc.perform(post("/api/users/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validCreateDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        created.complete(testUser);
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/users/1"))
+                .andExpect(jsonPath("$.content.email").value("unknown.nvme@gmail.com"));
+    }
+
+    @Test
+    void createUserAsync_Timeout_Returns503() throws Exception {
+        when(userServiceFacade.createUserAndPublishEventAsync(any(UserCreateDto.class)))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+        MvcResult result = mockMvc.perform(post("/api/users/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validCreateDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void createUserAsync_PoolSaturated_Returns503() throws Exception {
+        when(userServiceFacade.createUserAndPublishEventAsync(any(UserCreateDto.class)))
+                .thenThrow(new RejectedExecutionException());
+
+        mockMvc.perform(post("/api/users/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validCreateDto)))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void deleteUserAsync_ExistingUser_Returns204() throws Exception {
+        when(userServiceFacade.deleteUserAndPublishEventAsync(1L)).thenReturn(CompletableFuture.completedFuture(null));
+
+        MvcResult result = mockMvc.perform(delete("/api/users/async/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Link", "</api/users>;rel=\"users\""));
+    }
+
+    @Test
+    void deleteUserAsync_MissingUser_Returns404() throws Exception {
+        when(userServiceFacade.deleteUserAndPublishEventAsync(999L)).thenReturn(CompletableFuture.supplyAsync(() -> {
+            throw new ResourceNotFoundException("Пользователь не найден");
+        }));
+
+        MvcResult result = mockMvc.perform(delete("/api/users/async/999"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,276 @@
+package ru.astondevs.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import reactor.test.StepVerifier;
+import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserSearchCriteria;
+import ru.astondevs.dto.UserUpdateDto;
+import ru.astondevs.entity.UserRow;
+import ru.astondevs.event.UserCreatedEvent;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
+import ru.astondevs.exception.DuplicateEmailException;
+import ru.astondevs.exception.PreconditionFailedException;
+import ru.astondevs.repository.ReactiveUserRepository;
+import ru.astondevs.repository.UserRowIdAssigner;
+import ru.astondevs.service.EmailExistenceFilter;
+import ru.astondevs.service.ReactiveUserEventOutbox;
+import ru.astondevs.service.ReactiveUserService;
+import ru.astondevs.service.UserNameIndex;
+import ru.astondevs.service.impl.ReactiveUserEventOutboxImpl;
+import ru.astondevs.service.impl.ReactiveUserServiceImpl;
+import ru.astondevs.util.UserConverter;
+import ru.astondevs.util.UserValidator;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверяет реактивный сервис на R2DBC поверх H2 в режиме PostgreSQL со схемой, которую создаёт Hibernate,
+ * включая запись событий в user_outbox в одной транзакции с изменением пользователя.
+ */
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///reactive-users;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("reactive")
+@Import({ReactiveUserServiceImpl.class, ReactiveUserEventOutboxImpl.class, UserRowIdAssigner.class,
+        UserConverter.class, ReactiveUserServiceIntegrationTest.TestConfig.class})
+class ReactiveUserServiceIntegrationTest {
+    static class TestConfig {
+        @Bean
+        public UserValidator userValidator() {
+            return new UserValidator(null, null, null);
+        }
+
+        @Bean
+        public EmailExistenceFilter emailExistenceFilter() {
+            EmailExistenceFilter filter = Mockito.mock(EmailExistenceFilter.class);
+            when(filter.mightExist(anyString())).thenReturn(true);
+            return filter;
+        }
+
+        @Bean
+        public UserNameIndex userNameIndex() {
+            return Mockito.mock(UserNameIndex.class);
+        }
+
+        @Bean
+        public ListenerThreads listenerThreads() {
+            return new ListenerThreads();
+        }
+    }
+
+    /**
+     * Запоминает потоки, на которых слушатели получают события пользователей.
+     */
+    static class ListenerThreads {
+        private final List<String> names = new CopyOnWriteArrayList<>();
+
+        @EventListener({UserCreatedEvent.class, UserUpdatedEvent.class, UserDeletedEvent.class})
+        public void onUserEvent() {
+            names.add(Thread.currentThread().getName());
+        }
+    }
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private UserNameIndex userNameIndex;
+
+    @Autowired
+    private ReactiveUserEventOutbox userEventOutbox;
+
+    @Autowired
+    private ListenerThreads listenerThreads;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(userNameIndex);
+        listenerThreads.names.clear();
+        execute("create sequence if not exists users_seq start with 1 increment by 50");
+        execute("create sequence if not exists user_outbox_seq start with 1 increment by 50");
+        createOutboxTable();
+        execute("create table if not exists users (id bigint primary key, name varchar(255) not null, "
+                + "email varchar(255) not null, age integer, created_at timestamp(6), "
+                + "version bigint default 0 not null)");
+        execute("create unique index if not exists ux_users_email on users (email)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        execute("delete from users");
+        execute("delete from user_outbox");
+    }
+
+    @Test
+    void createUser_AssignsIdFromSequenceAndWritesOutboxEvent() {
+        UserResponseDto first = userService.createUser(new UserCreateDto("Ibra", "ibra@gmail.com", 25)).block();
+        UserResponseDto second = userService.createUser(new UserCreateDto("Vibra", "vibra@gmail.com", 30)).block();
+
+        assertThat(first.id()).isNotNull();
+        assertThat(second.id()).isGreaterThan(first.id());
+        assertThat(first.createdAt()).isNotNull();
+        assertThat(first.version()).isNotNull();
+        assertThat(outboxEvents()).containsExactly(
+                new UserEventDto("create", "ibra@gmail.com"), new UserEventDto("create", "vibra@gmail.com"));
+        StepVerifier.create(userService.getUserByEmail("vibra@gmail.com"))
+                .assertNext(user -> assertThat(user.id()).isEqualTo(second.id()))
+                .verifyComplete();
+    }
+
+    @Test
+    void userEvents_ArePublishedOffTheCallingThread() {
+        UserResponseDto created = userService.createUser(new UserCreateDto("Ibra", "ibra@gmail.com", 25)).block();
+        userService.updateUser(created.id(), new UserUpdateDto("Vibra", null, null), null).block();
+        userService.deleteUser(created.id()).block();
+
+        assertThat(listenerThreads.names).hasSize(3).allMatch(name -> name.startsWith("boundedElastic"));
+    }
+
+    @Test
+    void createUser_OutboxFails_RollsBackUser() {
+        execute("drop table user_outbox");
+        try {
+            StepVerifier.create(userService.createUser(new UserCreateDto("Ibra", "ibra@gmail.com", 25)))
+                    .expectError()
+                    .verify();
+
+            assertThat(userRepository.count().block()).isZero();
+        } finally {
+            createOutboxTable();
+        }
+    }
+
+    @Test
+    void append_WithoutTransaction_Fails() {
+        StepVerifier.create(userEventOutbox.append(new UserEventDto("create", "ibra@gmail.com")))
+                .expectError(IllegalTransactionStateException.class)
+                .verify();
+    }
+
+    @Test
+    void createUser_TakenEmail_FailsWithDuplicateEmail() {
+        userService.createUser(new UserCreateDto("Ibra", "taken@gmail.com", 25)).block();
+
+        StepVerifier.create(userService.createUser(new UserCreateDto("Vibra", "taken@gmail.com", 30)))
+                .expectError(DuplicateEmailException.class)
+                .verify();
+    }
+
+    @Test
+    void getAllUsers_ReturnsKeysetPages() {
+        for (int i = 0; i < 5; i++) {
+            userService.createUser(new UserCreateDto("User" + i, "user" + i + "@gmail.com", 20 + i)).block();
+        }
+
+        var firstPage = userService.getAllUsers(null, 3).block();
+        var lastId = firstPage.getContent().get(2).id();
+        var secondPage = userService.getAllUsers(lastId, 3).block();
+
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.hasNext()).isFalse();
+        assertThat(secondPage.getContent()).extracting(UserResponseDto::email)
+                .containsExactly("user3@gmail.com", "user4@gmail.com");
+    }
+
+    @Test
+    void searchUsers_CombinesFiltersAndEscapesPrefix() {
+        userService.createUser(new UserCreateDto("Ivan", "ivan@gmail.com", 30)).block();
+        userService.createUser(new UserCreateDto("Iva%n", "percent@gmail.com", 30)).block();
+        userService.createUser(new UserCreateDto("Ivanna", "ivanna@gmail.com", 50)).block();
+
+        var page = userService.searchUsers(new UserSearchCriteria(20, 40, "Iva%", null, null), null, 10).block();
+
+        assertThat(page.getContent()).extracting(UserResponseDto::email).containsExactly("percent@gmail.com");
+    }
+
+    @Test
+    void updateUser_StaleVersion_IsRejected() {
+        UserResponseDto created = userService.createUser(new UserCreateDto("Ibra", "ibra@gmail.com", 25)).block();
+        UserResponseDto updated = userService.updateUser(created.id(), new UserUpdateDto("Vibra", null, null),
+                created.version()).block();
+
+        assertThat(updated.version()).isEqualTo(created.version() + 1);
+        StepVerifier.create(userService.updateUser(created.id(), new UserUpdateDto("Stale", null, null),
+                        created.version()))
+                .expectError(PreconditionFailedException.class)
+                .verify();
+    }
+
+    @Test
+    void save_StaleRow_FailsWithOptimisticLocking() {
+        UserResponseDto created = userService.createUser(new UserCreateDto("Ibra", "ibra@gmail.com", 25)).block();
+        UserRow stale = userRepository.findById(created.id()).block();
+        userRepository.save(stale.withName("Concurrent")).block();
+
+        StepVerifier.create(userRepository.save(stale.withName("Overwrite")))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @Test
+    void findUsersByName_KeepsIndexOrderAndEvictsDeleted() {
+        UserResponseDto ibra = userService.createUser(new UserCreateDto("Ibra", "ibra@gmail.com", 25)).block();
+        UserResponseDto vibra = userService.createUser(new UserCreateDto("Vibra", "vibra@gmail.com", 30)).block();
+        when(userNameIndex.search(anyString(), anyInt())).thenReturn(List.of(vibra.id(), 999_999L, ibra.id()));
+
+        StepVerifier.create(userService.findUsersByName("ibra", 10).map(UserResponseDto::id))
+                .expectNext(vibra.id(), ibra.id())
+                .verifyComplete();
+        verify(userNameIndex).evict(999_999L);
+    }
+
+    @Test
+    void deleteUser_RemovesRowAndWritesOutboxEvent() {
+        UserResponseDto created = userService.createUser(new UserCreateDto("Ibra", "ibra@gmail.com", 25)).block();
+
+        userService.deleteUser(created.id()).block();
+
+        assertThat(userRepository.existsById(created.id()).block()).isFalse();
+        assertThat(outboxEvents()).containsExactly(
+                new UserEventDto("create", "ibra@gmail.com"), new UserEventDto("delete", "ibra@gmail.com"));
+    }
+
+    private List<UserEventDto> outboxEvents() {
+        return databaseClient.sql("select operation, email from user_outbox order by id")
+                .map(row -> new UserEventDto(row.get("operation", String.class), row.get("email", String.class)))
+                .all()
+                .collectList()
+                .block();
+    }
+
+    private void createOutboxTable() {
+        execute("create table if not exists user_outbox (id bigint primary key, operation varchar(16) not null, "
+                + "email varchar(255) not null, created_at timestamp(6) not null, sent_at timestamp(6), "
+                + "claimed_until timestamp(6))");
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+}
@@ -0,0 +1,130 @@
+package ru.astondevs.integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import ru.astondevs.config.EmailFilterProperties;
+import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserUpdateDto;
+import ru.astondevs.exception.DuplicateEmailException;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.service.EmailExistenceFilter;
+import ru.astondevs.service.UserService;
+import ru.astondevs.service.impl.EmailExistenceFilterImpl;
+import ru.astondevs.service.impl.UserServiceImpl;
+import ru.astondevs.util.UserConverter;
+import ru.astondevs.util.UserValidator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Проверяет, что уникальный индекс ux_users_email не пропускает дубликаты при параллельной регистрации:
+ * все потоки проходят фильтр email одновременно, и отказ приходит либо от проверки existsByEmail,
+ * либо от индекса.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserServiceImpl.class, UserValidator.class, UserConverter.class, LocalValidatorFactoryBean.class,
+        EmailExistenceFilterImpl.class, EmailFilterProperties.class, SimpleMeterRegistry.class})
+class UserEmailUniquenessIntegrationTest {
+    private static final int ROUNDS = 20;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailExistenceFilter emailExistenceFilter;
+
+    @Autowired
+    private UserConverter userConverter;
+
+    @BeforeEach
+    void setUp() {
+        emailExistenceFilter.warmUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createUser_ParallelRequestsWithSameEmail_OnlyOneSucceeds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String email = "race" + round + "@gmail.com";
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<UserResponseDto>> attempts = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    attempts.add(executor.submit(() -> {
+                        start.await();
+                        return userService.createUser(new UserCreateDto("Racer", email, 30));
+                    }));
+                }
+                start.countDown();
+
+                int created = 0;
+                for (Future<UserResponseDto> attempt : attempts) {
+                    try {
+                        attempt.get(30, TimeUnit.SECONDS);
+                        created++;
+                    } catch (ExecutionException e) {
+                        assertThat(e.getCause()).isInstanceOfAny(
+                                DataIntegrityViolationException.class, DuplicateEmailException.class);
+                    }
+                }
+                assertThat(created).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(userRepository.count()).isEqualTo(ROUNDS);
+    }
+
+    @Test
+    void updateUser_ToTakenEmail_IsRejectedByIndex() {
+        userService.createUser(new UserCreateDto("Ibra", "taken@gmail.com", 25));
+        UserResponseDto other = userService.createUser(new UserCreateDto("Vibra", "free@gmail.com", 30));
+
+        assertThatThrownBy(() -> userService.updateUser(other.id(), new UserUpdateDto(null, "taken@gmail.com", null)))
+                .isInstanceOf(DuplicateEmailException.class);
+        assertThat(userRepository.findByEmail("free@gmail.com")).isPresent();
+    }
+
+    @Test
+    void createUsers_EmailTakenOnAnotherInstance_FailsWithIntegrityViolation() {
+        userRepository.saveAndFlush(userConverter.toEntity(new UserCreateDto("Remote", "remote@gmail.com", 25)));
+        assertThat(emailExistenceFilter.mightExist("remote@gmail.com")).isFalse();
+
+        assertThatThrownBy(() -> userService.createUsers(List.of(
+                new UserCreateDto("Ibra", "fresh@gmail.com", 25),
+                new UserCreateDto("Copy", "remote@gmail.com", 30)), 0))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(userRepository.findByEmail("fresh@gmail.com")).isEmpty();
+    }
+}
@@ -0,0 +1,205 @@
+package ru.astondevs.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.astondevs.config.UserOutboxProperties;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.entity.UserOutboxEvent;
+import ru.astondevs.repository.UserOutboxRepository;
+import ru.astondevs.service.KafkaProducer;
+import ru.astondevs.service.UserEventOutbox;
+import ru.astondevs.service.impl.UserEventOutboxImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверяет outbox на настоящей базе: события видны ретранслятору только после коммита,
+ * отправленными отмечается только подтверждённый префикс пачки, забранные события пропускаются
+ * до истечения срока, а ожидание отправки завершается и своим ретранслятором, и чужим. H2 не поддерживает SKIP LOCKED (Hibernate выдаёт для него
+ * обычный FOR UPDATE), поэтому пропуск заблокированных строк здесь не проверяется.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserEventOutboxImpl.class, UserOutboxProperties.class})
+class UserEventOutboxIntegrationTest {
+    private static final UserEventDto CREATED = new UserEventDto("create", "ibra@gmail.com");
+    private static final UserEventDto DELETED = new UserEventDto("delete", "vibra@gmail.com");
+
+    @MockitoBean
+    private KafkaProducer kafkaProducer;
+
+    @Autowired
+    private UserEventOutbox userEventOutbox;
+
+    @Autowired
+    private UserOutboxRepository userOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void relayPending_SendsCommittedEventsInOrderAndMarksThemSent() {
+        when(kafkaProducer.sendUserEvents(List.of(CREATED, DELETED))).thenReturn(List.of(acked(), acked()));
+        appendCommitted(CREATED, DELETED);
+
+        assertThat(userEventOutbox.relayPending()).isEqualTo(2);
+        assertThat(userEventOutbox.relayPending()).isZero();
+
+        assertThat(userOutboxRepository.findAll()).allSatisfy(event -> assertThat(event.getSentAt()).isNotNull());
+        verify(kafkaProducer, times(1)).sendUserEvents(anyList());
+    }
+
+    @Test
+    void relayPending_FirstEventFails_LaterAckIsNotMarkedAndBatchIsRetried() {
+        when(kafkaProducer.sendUserEvents(List.of(CREATED, DELETED)))
+                .thenReturn(List.of(CompletableFuture.failedFuture(new IllegalStateException("broker down")), acked()))
+                .thenReturn(List.of(acked(), acked()));
+        appendCommitted(CREATED, DELETED);
+
+        assertThat(userEventOutbox.relayPending()).isZero();
+        assertThat(userOutboxRepository.findAll()).allSatisfy(event -> {
+            assertThat(event.getSentAt()).isNull();
+            assertThat(event.getClaimedUntil()).isNull();
+        });
+
+        assertThat(userEventOutbox.relayPending()).isEqualTo(2);
+        verify(kafkaProducer, times(2)).sendUserEvents(List.of(CREATED, DELETED));
+    }
+
+    @Test
+    void relayPending_LaterEventFails_MarksAcknowledgedPrefixOnly() {
+        when(kafkaProducer.sendUserEvents(List.of(CREATED, DELETED)))
+                .thenReturn(List.of(acked(), CompletableFuture.failedFuture(new IllegalStateException("not enough replicas"))));
+        when(kafkaProducer.sendUserEvents(List.of(DELETED))).thenReturn(List.of(acked()));
+        appendCommitted(CREATED, DELETED);
+
+        assertThat(userEventOutbox.relayPending()).isEqualTo(1);
+        assertThat(userEventOutbox.relayPending()).isEqualTo(1);
+
+        verify(kafkaProducer).sendUserEvents(List.of(DELETED));
+    }
+
+    @Test
+    void relayPending_ClaimedEventsAreSkippedUntilClaimExpires() {
+        when(kafkaProducer.sendUserEvents(List.of(CREATED))).thenReturn(List.of(acked()));
+        appendCommitted(CREATED);
+        List<Long> ids = userOutboxRepository.findAll().stream().map(UserOutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status ->
+                userOutboxRepository.claim(ids, LocalDateTime.now().plusMinutes(1)));
+
+        assertThat(userEventOutbox.relayPending()).isZero();
+
+        transactionTemplate.executeWithoutResult(status ->
+                userOutboxRepository.claim(ids, LocalDateTime.now().minusSeconds(1)));
+        assertThat(userEventOutbox.relayPending()).isEqualTo(1);
+    }
+
+    @Test
+    void append_RolledBackTransaction_LeavesNothingToRelay() {
+        transactionTemplate.executeWithoutResult(status -> {
+            userEventOutbox.append(CREATED);
+            status.setRollbackOnly();
+        });
+
+        assertThat(userEventOutbox.relayPending()).isZero();
+        verify(kafkaProducer, times(0)).sendUserEvents(anyList());
+    }
+
+    @Test
+    void appendAll_KeepsOrderForRelay() {
+        when(kafkaProducer.sendUserEvents(List.of(DELETED, CREATED))).thenReturn(List.of(acked(), acked()));
+        transactionTemplate.executeWithoutResult(status -> userEventOutbox.appendAll(List.of(DELETED, CREATED)));
+
+        assertThat(userEventOutbox.relayPending()).isEqualTo(2);
+    }
+
+    @Test
+    void awaitSent_CompletesAfterRelayMarksEventSent() throws Exception {
+        when(kafkaProducer.sendUserEvents(List.of(CREATED))).thenReturn(List.of(acked()));
+        Long id = transactionTemplate.execute(status -> userEventOutbox.append(CREATED));
+
+        CompletableFuture<Void> sent = userEventOutbox.awaitSent(id, Duration.ofSeconds(5));
+        assertThat(sent).isNotDone();
+        userEventOutbox.relayPending();
+
+        sent.get(5, TimeUnit.SECONDS);
+        assertThat(userOutboxRepository.findSentIds(List.of(id))).containsExactly(id);
+    }
+
+    @Test
+    void awaitSent_EventSentByAnotherInstance_CompletesOnNextPoll() throws Exception {
+        Long id = transactionTemplate.execute(status -> userEventOutbox.append(CREATED));
+        CompletableFuture<Void> sent = userEventOutbox.awaitSent(id, Duration.ofSeconds(5));
+        transactionTemplate.executeWithoutResult(status ->
+                userOutboxRepository.markSent(List.of(id), LocalDateTime.now()));
+
+        ((UserEventOutboxImpl) userEventOutbox).poll();
+
+        sent.get(5, TimeUnit.SECONDS);
+        verify(kafkaProducer, times(0)).sendUserEvents(anyList());
+    }
+
+    @Test
+    void awaitSent_EventNotSent_TimesOut() {
+        Long id = transactionTemplate.execute(status -> userEventOutbox.append(CREATED));
+
+        CompletableFuture<Void> sent = userEventOutbox.awaitSent(id, Duration.ofMillis(50));
+
+        assertThatThrownBy(() -> sent.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    void append_WithoutTransaction_Throws() {
+        assertThatThrownBy(() -> userEventOutbox.append(CREATED))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    private static CompletableFuture<Void> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void appendCommitted(UserEventDto... events) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (UserEventDto event : events) {
+                userEventOutbox.append(event);
+            }
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package ru.astondevs.integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import ru.astondevs.config.EmailFilterProperties;
+import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserUpdateDto;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.service.UserNameIndex;
+import ru.astondevs.service.UserService;
+import ru.astondevs.service.impl.EmailExistenceFilterImpl;
+import ru.astondevs.service.impl.UserNameIndexImpl;
+import ru.astondevs.service.impl.UserServiceImpl;
+import ru.astondevs.util.UserConverter;
+import ru.astondevs.util.UserValidator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что индекс имён меняется только после коммита: откаченные удаление и переименование
+ * оставляют в нём то, что лежит в базе.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserServiceImpl.class, UserValidator.class, UserConverter.class, LocalValidatorFactoryBean.class,
+        EmailExistenceFilterImpl.class, EmailFilterProperties.class, SimpleMeterRegistry.class,
+        UserNameIndexImpl.class})
+class UserNameIndexIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserNameIndex userNameIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Индекс живёт в общем контексте, а deleteAll не публикует событий, поэтому у каждого теста свои имена.
+     */
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void rolledBackDelete_KeepsUserInIndex() {
+        UserResponseDto user = userService.createUser(new UserCreateDto("Ibragim", "ibra@gmail.com", 25));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.deleteById(user.id());
+            status.setRollbackOnly();
+        });
+
+        assertThat(userRepository.existsById(user.id())).isTrue();
+        assertThat(userNameIndex.search("Ibragim", 10)).containsExactly(user.id());
+    }
+
+    @Test
+    void rolledBackRename_KeepsOldName() {
+        UserResponseDto user = userService.createUser(new UserCreateDto("Magomed", "magomed@gmail.com", 25));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.updateUser(user.id(), new UserUpdateDto("Vladislav", null, null));
+            status.setRollbackOnly();
+        });
+
+        assertThat(userNameIndex.search("Vladislav", 10)).isEmpty();
+        assertThat(userNameIndex.search("Magomed", 10)).containsExactly(user.id());
+    }
+
+    @Test
+    void committedChanges_ReachIndex() {
+        UserResponseDto user = userService.createUser(new UserCreateDto("Ruslan", "ruslan@gmail.com", 25));
+
+        userService.updateUser(user.id(), new UserUpdateDto("Rustam", null, null));
+
+        assertThat(userNameIndex.search("Rustam", 10)).containsExactly(user.id());
+        userService.deleteById(user.id());
+        assertThat(userNameIndex.search("Rustam", 10)).isEmpty();
+    }
+}
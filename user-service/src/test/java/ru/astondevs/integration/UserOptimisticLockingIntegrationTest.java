@@ -0,0 +1,84 @@
+package ru.astondevs.integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import ru.astondevs.config.EmailFilterProperties;
+import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserUpdateDto;
+import ru.astondevs.entity.User;
+import ru.astondevs.exception.PreconditionFailedException;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.service.UserService;
+import ru.astondevs.service.impl.EmailExistenceFilterImpl;
+import ru.astondevs.service.impl.UserServiceImpl;
+import ru.astondevs.util.UserConverter;
+import ru.astondevs.util.UserValidator;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Проверяет, что версия записи не даёт параллельным обновлениям затирать друг друга.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserServiceImpl.class, UserValidator.class, UserConverter.class, LocalValidatorFactoryBean.class,
+        EmailExistenceFilterImpl.class, EmailFilterProperties.class, SimpleMeterRegistry.class})
+class UserOptimisticLockingIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void updateUser_WithStaleExpectedVersion_IsRejected() {
+        UserResponseDto created = userService.createUser(new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25));
+        UserResponseDto updated = userService.updateUser(created.id(), new UserUpdateDto("Vibra", null, null),
+                created.version());
+
+        assertThat(updated.version()).isEqualTo(created.version() + 1);
+        assertThatThrownBy(() -> userService.updateUser(created.id(), new UserUpdateDto("Stale", null, null),
+                created.version()))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(userService.getUserById(created.id()).name()).isEqualTo("Vibra");
+    }
+
+    @Test
+    void flush_AfterConcurrentCommit_DetectsLostUpdate() {
+        UserResponseDto created = userService.createUser(new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            User user = userRepository.findById(created.id()).orElseThrow();
+            CompletableFuture.runAsync(() ->
+                    userService.updateUser(created.id(), new UserUpdateDto("Concurrent", null, null))).join();
+            user.setName("Overwrite");
+            userRepository.flush();
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(userService.getUserById(created.id()).name()).isEqualTo("Concurrent");
+    }
+}
@@ -0,0 +1,224 @@
+package ru.astondevs.integration;
+
+import jakarta.persistence.Table;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.astondevs.dto.UserField;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserSearchCriteria;
+import ru.astondevs.entity.User;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.repository.UserSpecifications;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет поиск пользователей на H2: корректность фильтров и keyset-пагинации, ровно один SQL-запрос
+ * на страницу, выбор только запрошенных колонок, а также то, что каждый фильтр выполняется по своему индексу:
+ * EXPLAIN ANALYZE с реальными значениями параметров называет индекс и число прочитанных строк.
+ * В PostgreSQL префиксный поиск требует text_pattern_ops, которого в H2 нет, поэтому для него проверяется
+ * DDL скрипта schema-postgresql.sql.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.astondevs.integration.UserSearchIntegrationTest$CapturingStatementInspector")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSearchIntegrationTest {
+    private static final int USERS = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.saveAll(IntStream.range(0, USERS)
+                .mapToObj(i -> new User(null, "Name" + i, "user" + i + "@gmail.com", i % 100, null, null))
+                .toList());
+        jdbcTemplate.execute("ANALYZE");
+        CapturingStatementInspector.STATEMENTS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void searchByAgeRange_WalksAllPagesWithOneQueryEach() {
+        UserSearchCriteria criteria = new UserSearchCriteria(30, 31, null, null, null);
+
+        List<UserResponseDto> found = new ArrayList<>();
+        long after = 0;
+        int pages = 0;
+        Slice<UserResponseDto> page;
+        do {
+            page = userRepository.searchResponses(UserSpecifications.matching(criteria), after, 7);
+            found.addAll(page.getContent());
+            after = page.getContent().get(page.getNumberOfElements() - 1).id();
+            pages++;
+        } while (page.hasNext());
+
+        assertThat(found).hasSize(20)
+                .allSatisfy(user -> assertThat(user.age()).isBetween(30, 31));
+        assertThat(found).extracting(UserResponseDto::id).isSorted().doesNotHaveDuplicates();
+        assertThat(pages).isEqualTo(3);
+        assertThat(CapturingStatementInspector.STATEMENTS).hasSize(pages);
+    }
+
+    @Test
+    void searchByNamePrefix_MatchesPrefixOnlyAndEscapesWildcards() {
+        Slice<UserResponseDto> page = userRepository.searchResponses(
+                UserSpecifications.matching(new UserSearchCriteria(null, null, "Name99", null, null)), 0, 100);
+        Slice<UserResponseDto> wildcard = userRepository.searchResponses(
+                UserSpecifications.matching(new UserSearchCriteria(null, null, "Nam_", null, null)), 0, 100);
+
+        assertThat(page.getContent()).extracting(UserResponseDto::name)
+                .containsExactlyInAnyOrder("Name99", "Name990", "Name991", "Name992", "Name993",
+                        "Name994", "Name995", "Name996", "Name997", "Name998", "Name999");
+        assertThat(wildcard.getContent()).isEmpty();
+    }
+
+    @Test
+    void searchByCreatedAtWindow_RespectsBounds() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Slice<UserResponseDto> recent = userRepository.searchResponses(UserSpecifications.matching(
+                new UserSearchCriteria(null, null, null, now.minusHours(1), now.plusHours(1))), 0, 100);
+        Slice<UserResponseDto> past = userRepository.searchResponses(UserSpecifications.matching(
+                new UserSearchCriteria(null, null, null, now.minusDays(2), now.minusDays(1))), 0, 100);
+
+        assertThat(recent.getContent()).hasSize(100);
+        assertThat(recent.hasNext()).isTrue();
+        assertThat(past.getContent()).isEmpty();
+    }
+
+    @Test
+    void searchWithFields_SelectsOnlyRequestedColumns() {
+        Slice<UserResponseDto> page = userRepository.searchResponses(
+                UserSpecifications.matching(new UserSearchCriteria(30, 31, null, null, null)), 0, 5,
+                EnumSet.of(UserField.ID, UserField.NAME));
+
+        assertThat(page.getContent()).hasSize(5).allSatisfy(user -> {
+            assertThat(user.id()).isNotNull();
+            assertThat(user.name()).startsWith("Name");
+            assertThat(user.version()).isNotNull();
+            assertThat(user.email()).isNull();
+            assertThat(user.age()).isNull();
+        });
+        assertThat(page.hasNext()).isTrue();
+        assertThat(CapturingStatementInspector.STATEMENTS).hasSize(1);
+        assertThat(selectList(CapturingStatementInspector.STATEMENTS.get(0)))
+                .contains("name")
+                .doesNotContain("email", "age", "created_at");
+    }
+
+    @Test
+    void findResponseByEmail_WithFields_ReadsOnlyRequestedColumns() {
+        Optional<UserResponseDto> user = userRepository.findResponse(
+                UserSpecifications.hasEmail("user42@gmail.com"), EnumSet.of(UserField.AGE));
+
+        assertThat(user).hasValueSatisfying(found -> {
+            assertThat(found.age()).isEqualTo(42);
+            assertThat(found.name()).isNull();
+        });
+        assertThat(selectList(CapturingStatementInspector.STATEMENTS.get(0)))
+                .contains("age")
+                .doesNotContain("name", "email", "created_at");
+    }
+
+    @Test
+    void supportedFilters_UseTheirIndexesAndScanOnlyMatchingRows() {
+        jdbcTemplate.update("UPDATE users SET created_at = DATEADD('DAY', -2, created_at) WHERE MOD(age, 10) <> 0");
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = now.minusHours(1);
+        Map<String, IndexedFilter> filters = Map.of(
+                "IX_USERS_AGE_ID", new IndexedFilter(new UserSearchCriteria(18, 30, null, null, null),
+                        "age BETWEEN 18 AND 30", 18, 30),
+                "IX_USERS_NAME", new IndexedFilter(new UserSearchCriteria(null, null, "Name1", null, null),
+                        "name LIKE 'Name1%'", "Name1%"),
+                "IX_USERS_CREATED_AT_ID", new IndexedFilter(new UserSearchCriteria(null, null, null, from, now),
+                        "created_at >= DATEADD('HOUR', -1, LOCALTIMESTAMP)", from, now));
+
+        filters.forEach((index, filter) -> {
+            CapturingStatementInspector.STATEMENTS.clear();
+            userRepository.searchResponses(UserSpecifications.matching(filter.criteria()), 0, 20);
+
+            assertThat(CapturingStatementInspector.STATEMENTS).hasSize(1);
+            List<Object> parameters = new ArrayList<>(List.of(filter.parameters()));
+            parameters.add(21);
+            String plan = jdbcTemplate.queryForObject("EXPLAIN ANALYZE " + CapturingStatementInspector.STATEMENTS.get(0),
+                    String.class, parameters.toArray());
+            Integer matching = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE " + filter.condition(), Integer.class);
+            assertThat(plan).as(index).contains("PUBLIC." + index + ":");
+            // Диапазонный скан читает ещё по строке на каждой границе диапазона.
+            assertThat(scanCount(plan)).as(index).isLessThanOrEqualTo(matching + 2).isLessThan(USERS / 5);
+        });
+    }
+
+    @Test
+    void postgresSchemaScript_RebuildsNameIndexWithPatternOps() throws IOException {
+        String script = new ClassPathResource("schema-postgresql.sql").getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(script)
+                .contains("indexname = 'ix_users_name'")
+                .contains("indexdef LIKE '%text_pattern_ops%'")
+                .contains("CREATE INDEX ix_users_name ON users (name text_pattern_ops);");
+        assertThat(User.class.getAnnotation(Table.class).indexes())
+                .anySatisfy(index -> {
+                    assertThat(index.name()).isEqualTo("ix_users_name");
+                    assertThat(index.columnList()).isEqualTo("name");
+                });
+    }
+
+    /**
+     * Фильтр поиска, значения его параметров в порядке SQL и то же условие для подсчёта подходящих строк.
+     */
+    private record IndexedFilter(UserSearchCriteria criteria, String condition, Object... parameters) {
+    }
+
+    private static int scanCount(String plan) {
+        Matcher matcher = Pattern.compile("scanCount: (\\d+)").matcher(plan);
+        assertThat(matcher.find()).as(plan).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private static String selectList(String sql) {
+        String lower = sql.toLowerCase();
+        return lower.substring(0, lower.indexOf(" from "));
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -11,6 +11,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import ru.astondevs.dto.UserCreateDto;
 import ru.astondevs.dto.UserResponseDto;
 import ru.astondevs.dto.UserUpdateDto;
@@ -41,6 +46,9 @@ class UserServiceIntegrationTest {
     @Mock
     private UserConverter userConverter;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -52,9 +60,9 @@ class UserServiceIntegrationTest {
     @Test
     void createUser_ShouldPersistUser() {
         UserCreateDto dto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
-        User user = new User(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
+        User user = new User(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now(), 0L);
         Mockito.when(userConverter.toEntity(dto)).thenReturn(user);
-        Mockito.when(userRepository.save(Mockito.any(User.class))).thenReturn(user);
+        Mockito.when(userRepository.saveAndFlush(Mockito.any(User.class))).thenReturn(user);
         Mockito.when(userConverter.toResponseDto(user)).thenReturn(new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now()));
 
         UserResponseDto response = userService.createUser(dto);
@@ -92,9 +100,8 @@ class UserServiceIntegrationTest {
 
     @Test
     void getUserById_ShouldReturnUser() {
-        User user = new User(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
-        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        Mockito.when(userConverter.toResponseDto(user)).thenReturn(new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now()));
+        Mockito.when(userRepository.findResponseById(1L))
+                .thenReturn(Optional.of(new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now())));
 
         UserResponseDto response = userService.getUserById(1L);
 
@@ -104,7 +111,7 @@ class UserServiceIntegrationTest {
 
     @Test
     void getUserById_ShouldThrowResourceNotFoundException() {
-        Mockito.when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        Mockito.when(userRepository.findResponseById(999L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.getUserById(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
@@ -113,19 +120,19 @@ class UserServiceIntegrationTest {
 
     @Test
     void getAllUsers_ShouldReturnUserList() {
-        User user = new User(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
-        Mockito.when(userRepository.findAll()).thenReturn(List.of(user));
-        Mockito.when(userConverter.toResponseDto(user)).thenReturn(new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now()));
+        UserResponseDto user = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
+        Mockito.when(userRepository.findResponsesAfter(Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(user), PageRequest.ofSize(20), false));
 
-        List<UserResponseDto> users = userService.getAllUsers();
+        Slice<UserResponseDto> users = userService.getAllUsers(null, 20);
 
-        assertThat(users).hasSize(1);
-        assertThat(users.get(0).name()).isEqualTo("Ibra");
+        assertThat(users.getContent()).hasSize(1);
+        assertThat(users.getContent().get(0).name()).isEqualTo("Ibra");
     }
 
     @Test
     void updateUser_ShouldUpdateFields() {
-        User user = new User(1L, "IbraVibra", "gadzhiev.ibragim.for.spam@yandex.ru", 20, LocalDateTime.now());
+        User user = new User(1L, "IbraVibra", "gadzhiev.ibragim.for.spam@yandex.ru", 20, LocalDateTime.now(), 0L);
         UserUpdateDto updateDto = new UserUpdateDto("Ibra", "unknown.nvme@gmail.com", 25);
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         Mockito.when(userConverter.toResponseDto(user)).thenReturn(new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, user.getCreatedAt()));
@@ -145,7 +152,7 @@ class UserServiceIntegrationTest {
             "Ibra, unknown.nvme@gmail.com, 25"
     })
     void updateUser_ShouldUpdateFields(String name, String email, Integer age) {
-        User user = new User(1L, "IbraVibra", "gadzhiev.ibragim.for.spam@yandex.ru", 20, LocalDateTime.now());
+        User user = new User(1L, "IbraVibra", "gadzhiev.ibragim.for.spam@yandex.ru", 20, LocalDateTime.now(), 0L);
         UserUpdateDto updateDto = new UserUpdateDto(name, email, age);
 
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
@@ -180,7 +187,7 @@ class UserServiceIntegrationTest {
 
     @Test
     void deleteUser_ShouldDeleteUserSuccessfully() {
-        User user = new User(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
+        User user = new User(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now(), 0L);
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         userService.deleteById(1L);
@@ -0,0 +1,77 @@
+package ru.astondevs.integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import ru.astondevs.config.EmailFilterProperties;
+import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserStatsDto;
+import ru.astondevs.dto.UserUpdateDto;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.service.UserService;
+import ru.astondevs.service.UserStatistics;
+import ru.astondevs.service.impl.EmailExistenceFilterImpl;
+import ru.astondevs.service.impl.UserServiceImpl;
+import ru.astondevs.service.impl.UserStatisticsImpl;
+import ru.astondevs.util.UserConverter;
+import ru.astondevs.util.UserValidator;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что счётчики, обновлённые событиями, совпадают с повторным подсчётом агрегирующими запросами.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserServiceImpl.class, UserValidator.class, UserConverter.class, LocalValidatorFactoryBean.class,
+        EmailExistenceFilterImpl.class, EmailFilterProperties.class, SimpleMeterRegistry.class,
+        UserStatisticsImpl.class})
+class UserStatisticsIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserStatistics userStatistics;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void incrementalCounters_MatchFreshAggregates() {
+        userService.createUser(new UserCreateDto("Ibra", "ibra@gmail.com", 25));
+        userStatistics.seed();
+
+        UserResponseDto vibra = userService.createUser(new UserCreateDto("Vibra", "vibra@gmail.com", 31));
+        UserResponseDto noAge = userService.createUser(new UserCreateDto("Nobody", "nobody@gmail.com", null));
+        userService.updateUser(vibra.id(), new UserUpdateDto(null, null, 67));
+        userService.deleteById(noAge.id());
+        UserStatsDto incremental = userStatistics.snapshot();
+
+        userStatistics.seed();
+        UserStatsDto recounted = userStatistics.snapshot();
+
+        assertThat(incremental).isEqualTo(recounted);
+        assertThat(recounted.totalUsers()).isEqualTo(2);
+        assertThat(recounted.ageHistogram())
+                .containsEntry("20-29", 1L)
+                .containsEntry("60-69", 1L)
+                .containsEntry("30-39", 0L)
+                .containsEntry("unknown", 0L);
+        assertThat(recounted.signupsPerDay()).containsEntry(LocalDate.now(), 2L);
+    }
+}
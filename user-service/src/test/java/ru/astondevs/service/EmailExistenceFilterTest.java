@@ -0,0 +1,110 @@
+package ru.astondevs.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.astondevs.config.EmailFilterProperties;
+import ru.astondevs.dto.UserEventDto;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.event.UserCreatedEvent;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.service.impl.EmailExistenceFilterImpl;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailExistenceFilterTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EmailExistenceFilterImpl emailExistenceFilter;
+
+    @BeforeEach
+    void setUp() {
+        emailExistenceFilter = new EmailExistenceFilterImpl(userRepository, transactionManager,
+                new EmailFilterProperties(), meterRegistry);
+    }
+
+    @Test
+    void mightExist_BeforeWarmUp_AlwaysTrue() {
+        assertThat(emailExistenceFilter.mightExist("unknown.nvme@gmail.com")).isTrue();
+    }
+
+    @Test
+    void warmUp_LoadsEmailsFromRepository() {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("unknown.nvme@gmail.com"));
+
+        emailExistenceFilter.warmUp();
+
+        assertThat(emailExistenceFilter.mightExist("unknown.nvme@gmail.com")).isTrue();
+        assertThat(emailExistenceFilter.mightExist("new@gmail.com")).isFalse();
+    }
+
+    @Test
+    void onUserCreatedAndUpdated_AddEmails() {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+        emailExistenceFilter.warmUp();
+
+        emailExistenceFilter.onUserCreated(new UserCreatedEvent(user("created@gmail.com")));
+        emailExistenceFilter.onUserUpdated(new UserUpdatedEvent(user("updated@gmail.com")));
+
+        assertThat(emailExistenceFilter.mightExist("created@gmail.com")).isTrue();
+        assertThat(emailExistenceFilter.mightExist("updated@gmail.com")).isTrue();
+    }
+
+    @Test
+    void onUserEvent_CreatedOnAnotherInstance_AddsEmail() {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+        emailExistenceFilter.warmUp();
+
+        emailExistenceFilter.onUserEvent(new UserEventDto("create", "remote@gmail.com"));
+        emailExistenceFilter.onUserEvent(new UserEventDto("delete", "deleted@gmail.com"));
+
+        assertThat(emailExistenceFilter.mightExist("remote@gmail.com")).isTrue();
+        assertThat(emailExistenceFilter.mightExist("deleted@gmail.com")).isFalse();
+    }
+
+    @Test
+    void onUserDeleted_AboveRatio_RebuildsOnExecutor() {
+        when(userRepository.streamAllEmails())
+                .thenReturn(Stream.of("unknown.nvme@gmail.com"))
+                .thenReturn(Stream.empty());
+        emailExistenceFilter.warmUp();
+
+        emailExistenceFilter.onUserDeleted(new UserDeletedEvent(user("unknown.nvme@gmail.com")));
+
+        verify(userRepository, timeout(5000).times(2)).streamAllEmails();
+        emailExistenceFilter.destroy();
+    }
+
+    @Test
+    void gauges_ReportFillRatioAndFalsePositiveProbability() {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("unknown.nvme@gmail.com"));
+        emailExistenceFilter.warmUp();
+
+        assertThat(meterRegistry.get("users.email.filter.fill.ratio").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("users.email.filter.false.positive.probability").gauge().value())
+                .isBetween(0.0, 0.01);
+    }
+
+    private static UserResponseDto user(String email) {
+        return new UserResponseDto(1L, "Ibra", email, 25, null);
+    }
+}
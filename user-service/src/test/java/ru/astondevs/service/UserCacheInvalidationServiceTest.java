@@ -0,0 +1,89 @@
+package ru.astondevs.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.core.KafkaTemplate;
+import ru.astondevs.config.KafkaConfig;
+import ru.astondevs.config.UserCacheConfig;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
+import ru.astondevs.service.impl.UserCacheInvalidationServiceImpl;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheInvalidationServiceTest {
+    private static final String TOPIC = "userCacheInvalidation-topic";
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Mock
+    private KafkaConfig kafkaConfig;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    private UserCacheInvalidationServiceImpl invalidationService;
+
+    private final UserResponseDto user = new UserResponseDto(7L, "Ibra", "unknown.nvme@gmail.com", 25, null);
+
+    @BeforeEach
+    void setUp() {
+        invalidationService = new UserCacheInvalidationServiceImpl(kafkaTemplate, kafkaConfig, cacheManager);
+    }
+
+    @Test
+    void onUserUpdated_PublishesUserIdToInvalidationTopic() {
+        when(kafkaConfig.getUserCacheInvalidation()).thenReturn(TOPIC);
+        when(kafkaTemplate.send(TOPIC, "7")).thenReturn(new CompletableFuture<>());
+
+        invalidationService.onUserUpdated(new UserUpdatedEvent(user));
+
+        verify(kafkaTemplate).send(TOPIC, "7");
+    }
+
+    @Test
+    void onUserDeleted_EvictsLocallyAndPublishesUserId() {
+        when(cacheManager.getCache(UserCacheConfig.USERS_CACHE)).thenReturn(cache);
+        when(kafkaConfig.getUserCacheInvalidation()).thenReturn(TOPIC);
+        when(kafkaTemplate.send(TOPIC, "7")).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        invalidationService.onUserDeleted(new UserDeletedEvent(user));
+
+        verify(cache).evict(7L);
+        verify(kafkaTemplate).send(TOPIC, "7");
+    }
+
+    @Test
+    void evictLocally_EvictsUserFromLocalCache() {
+        when(cacheManager.getCache(UserCacheConfig.USERS_CACHE)).thenReturn(cache);
+
+        invalidationService.evictLocally("7");
+
+        verify(cache).evict(7L);
+    }
+
+    @Test
+    void evictLocally_InvalidMessage_IsIgnored() {
+        invalidationService.evictLocally("not-a-number");
+
+        verify(cacheManager, never()).getCache(anyString());
+        verify(cache, never()).evict(any());
+    }
+}
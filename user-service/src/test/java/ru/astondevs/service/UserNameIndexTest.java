@@ -0,0 +1,100 @@
+package ru.astondevs.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.event.UserCreatedEvent;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.service.impl.UserNameIndexImpl;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserNameIndexTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserNameIndexImpl userNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        userNameIndex = new UserNameIndexImpl(userRepository, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void warmUp_IndexesUsersFromRepository() {
+        when(userRepository.streamAllResponses()).thenReturn(Stream.of(user(1L, "Ibra", 0L), user(2L, "Vibra", 0L)));
+
+        userNameIndex.warmUp();
+
+        assertThat(userNameIndex.search("ibra", 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void events_KeepIndexInSync() {
+        userNameIndex.onUserCreated(new UserCreatedEvent(user(1L, "Ibra", 0L)));
+        userNameIndex.onUserUpdated(new UserUpdatedEvent(user(1L, "Gadzhiev", 1L)));
+        userNameIndex.onUserCreated(new UserCreatedEvent(user(2L, "Petrov", 0L)));
+        userNameIndex.onUserDeleted(new UserDeletedEvent(user(2L, "Petrov", 0L)));
+
+        assertThat(userNameIndex.search("ibra", 10)).isEmpty();
+        assertThat(userNameIndex.search("gadzh", 10)).containsExactly(1L);
+        assertThat(userNameIndex.search("petrov", 10)).isEmpty();
+    }
+
+    @Test
+    void warmUp_DoesNotOverwriteNewerNameFromEvent() {
+        when(userRepository.streamAllResponses()).thenReturn(Stream.of(user(1L, "Ibra", 1L))
+                .peek(user -> userNameIndex.onUserUpdated(new UserUpdatedEvent(user(1L, "Petrov", 2L)))));
+
+        userNameIndex.warmUp();
+
+        assertThat(userNameIndex.search("petrov", 10)).containsExactly(1L);
+        assertThat(userNameIndex.search("ibra", 10)).isEmpty();
+    }
+
+    @Test
+    void rebuild_PicksUpChangesFromOtherInstances() {
+        when(userRepository.streamAllResponses())
+                .thenReturn(Stream.of(user(1L, "Ibra", 0L), user(2L, "Petrov", 0L)))
+                .thenReturn(Stream.of(user(1L, "Gadzhiev", 1L), user(3L, "Sidorov", 0L)));
+        userNameIndex.warmUp();
+
+        userNameIndex.rebuild();
+
+        assertThat(userNameIndex.search("ibra", 10)).isEmpty();
+        assertThat(userNameIndex.search("petrov", 10)).isEmpty();
+        assertThat(userNameIndex.search("gadzh", 10)).containsExactly(1L);
+        assertThat(userNameIndex.search("sidorov", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void rebuild_KeepsCurrentIndexWhenDatabaseFails() {
+        when(userRepository.streamAllResponses())
+                .thenReturn(Stream.of(user(1L, "Ibra", 0L)))
+                .thenThrow(new DataAccessResourceFailureException("База недоступна"));
+        userNameIndex.warmUp();
+
+        userNameIndex.rebuild();
+
+        assertThat(userNameIndex.search("ibra", 10)).containsExactly(1L);
+    }
+
+    private static UserResponseDto user(Long id, String name, Long version) {
+        return new UserResponseDto(id, name, "user" + id + "@gmail.com", 25, null, version);
+    }
+}
@@ -0,0 +1,157 @@
+package ru.astondevs.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.astondevs.config.UserCacheConfig;
+import ru.astondevs.config.UserCacheProperties;
+import ru.astondevs.dto.UserField;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserUpdateDto;
+import ru.astondevs.entity.User;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.service.impl.UserServiceImpl;
+import ru.astondevs.util.UserConverter;
+import ru.astondevs.util.UserValidator;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig(UserServiceCacheTest.TestConfig.class)
+class UserServiceCacheTest {
+    @Configuration
+    @Import({UserCacheConfig.class, UserServiceImpl.class})
+    static class TestConfig {
+        @Bean
+        public UserCacheProperties userCacheProperties() {
+            return new UserCacheProperties();
+        }
+
+        @Bean
+        public UserRepository userRepository() {
+            return Mockito.mock(UserRepository.class);
+        }
+
+        @Bean
+        public UserValidator userValidator() {
+            return Mockito.mock(UserValidator.class);
+        }
+
+        @Bean
+        public EmailExistenceFilter emailExistenceFilter() {
+            return Mockito.mock(EmailExistenceFilter.class);
+        }
+
+        @Bean
+        public UserConverter userConverter() {
+            return Mockito.mock(UserConverter.class);
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserConverter userConverter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final User user = User.builder().id(1L).name("Ibra").email("unknown.nvme@gmail.com").age(25).build();
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(userRepository, userConverter);
+        cacheManager.getCache(UserCacheConfig.USERS_CACHE).clear();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findResponseById(any())).thenAnswer(inv -> Optional.of(
+                new UserResponseDto(inv.getArgument(0), "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now())));
+        when(userConverter.toResponseDto(any(User.class))).thenAnswer(inv -> {
+            User u = inv.getArgument(0);
+            return new UserResponseDto(u.getId(), u.getName(), u.getEmail(), u.getAge(), LocalDateTime.now());
+        });
+    }
+
+    @Test
+    void getUserById_RepeatedCalls_HitCache() {
+        CacheStats before = nativeCache().stats();
+
+        UserResponseDto first = userService.getUserById(1L);
+        UserResponseDto second = userService.getUserById(1L);
+
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findResponseById(1L);
+        CacheStats stats = nativeCache().stats().minus(before);
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(stats.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getUserById_AllFieldsShareCacheEntry_FieldSubsetBypassesCache() {
+        UserResponseDto cached = userService.getUserById(1L);
+        when(userRepository.findResponse(any(), any())).thenReturn(
+                Optional.of(new UserResponseDto(1L, "Ibra", null, null, null, 0L)));
+
+        assertThat(userService.getUserById(1L, UserField.ALL)).isSameAs(cached);
+        assertThat(userService.getUserById(1L, EnumSet.of(UserField.NAME)).email()).isNull();
+
+        verify(userRepository, times(1)).findResponseById(1L);
+        verify(userRepository, times(1)).findResponse(any(), any());
+        assertThat(nativeCache().getIfPresent(1L)).isSameAs(cached);
+    }
+
+    @Test
+    void updateUser_EvictsOnlyUpdatedId() {
+        userService.getUserById(1L);
+        userService.getUserById(2L);
+
+        userService.updateUser(1L, new UserUpdateDto("Ibragim", null, null));
+
+        assertThat(nativeCache().getIfPresent(1L)).isNull();
+        assertThat(nativeCache().getIfPresent(2L)).isNotNull();
+    }
+
+    @Test
+    void deleteById_EvictsUser() {
+        userService.getUserById(1L);
+
+        userService.deleteById(1L);
+
+        assertThat(nativeCache().getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void deleteAndReturnUserById_EvictsUser() {
+        userService.getUserById(1L);
+
+        userService.deleteAndReturnUserById(1L);
+
+        assertThat(nativeCache().getIfPresent(1L)).isNull();
+    }
+
+    private Cache<Object, Object> nativeCache() {
+        TransactionAwareCacheDecorator decorator =
+                (TransactionAwareCacheDecorator) cacheManager.getCache(UserCacheConfig.USERS_CACHE);
+        return ((CaffeineCache) decorator.getTargetCache()).getNativeCache();
+    }
+}
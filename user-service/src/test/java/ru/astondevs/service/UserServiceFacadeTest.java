@@ -1,18 +1,47 @@
 package ru.astondevs.service;
 
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.astondevs.config.UserAsyncExecutor;
+import ru.astondevs.config.UserAsyncProperties;
+import ru.astondevs.dto.UserBatchCreateResult;
+import ru.astondevs.dto.UserBatchDeleteResult;
+import ru.astondevs.dto.UserBatchItemResult;
 import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserEventDto;
 import ru.astondevs.dto.UserResponseDto;
 import ru.astondevs.exception.ResourceNotFoundException;
 import ru.astondevs.service.impl.UserServiceFacadeImpl;
+import ru.astondevs.util.UserValidator;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,18 +51,43 @@ class UserServiceFacadeTest {
     private UserService userService;
 
     @Mock
-    private KafkaProducer kafkaProducer;
+    private UserValidator userValidator;
+
+    @Mock
+    private UserNameIndex userNameIndex;
+
+    @Mock
+    private UserEventOutbox userEventOutbox;
+
+    @Mock
+    private UserAsyncExecutor userAsyncExecutor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private UserAsyncProperties userAsyncProperties = new UserAsyncProperties();
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
 
     @InjectMocks
     private UserServiceFacadeImpl userServiceFacade;
 
     @BeforeEach
     void setUp() {
-        Mockito.reset(userService, kafkaProducer);
+        Mockito.reset(userService, userEventOutbox);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
     }
 
     @Test
-    void createUserAndPublishEvent_ShouldSendKafkaEvent() {
+    void createUserAndPublishEvent_ShouldWriteEventToOutbox() {
         UserCreateDto dto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
         UserResponseDto responseDto = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, null);
 
@@ -42,11 +96,11 @@ class UserServiceFacadeTest {
         userServiceFacade.createUserAndPublishEvent(dto);
 
         verify(userService).createUser(dto);
-        verify(kafkaProducer).sendUserAddEvent(Mockito.any());
+        verify(userEventOutbox).append(new UserEventDto("create", "unknown.nvme@gmail.com"));
     }
 
     @Test
-    void deleteUserAndPublishEvent_ShouldSendKafkaEvent() {
+    void deleteUserAndPublishEvent_ShouldWriteEventToOutbox() {
         Long userId = 1L;
         UserResponseDto responseDto = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, null);
 
@@ -55,7 +109,7 @@ class UserServiceFacadeTest {
         userServiceFacade.deleteUserAndPublishEvent(userId);
 
         verify(userService).deleteAndReturnUserById(userId);
-        verify(kafkaProducer).sendUserDeleteEvent(Mockito.any());
+        verify(userEventOutbox).append(new UserEventDto("delete", "unknown.nvme@gmail.com"));
     }
 
     @Test
@@ -69,4 +123,195 @@ class UserServiceFacadeTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Пользователь не найден");
     }
-}
\ No newline at end of file
+
+    @Test
+    void createUserAndPublishEventAsync_CompletesOnlyAfterOutboxRelay() throws Exception {
+        UserCreateDto dto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
+        UserResponseDto responseDto = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, null);
+        CompletableFuture<Void> sent = new CompletableFuture<>();
+        Mockito.when(userAsyncExecutor.executor()).thenReturn(executor);
+        Mockito.when(userService.createUser(dto)).thenReturn(responseDto);
+        Mockito.when(userEventOutbox.append(new UserEventDto("create", dto.email()))).thenReturn(7L);
+        Mockito.when(userEventOutbox.awaitSent(7L, userAsyncProperties.getTimeout())).thenReturn(sent);
+
+        CompletableFuture<UserResponseDto> result = userServiceFacade.createUserAndPublishEventAsync(dto);
+
+        verify(userEventOutbox, Mockito.timeout(5000)).awaitSent(7L, userAsyncProperties.getTimeout());
+        verify(transactionManager).commit(Mockito.any());
+        assertThat(result).isNotDone();
+        sent.complete(null);
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(responseDto);
+        assertThat(asyncTimerCount("create", "success")).isEqualTo(1);
+    }
+
+    @Test
+    void createUserAndPublishEventAsync_EventNotRelayed_TimesOut() {
+        userAsyncProperties.setTimeout(Duration.ofMillis(50));
+        UserCreateDto dto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
+        Mockito.when(userAsyncExecutor.executor()).thenReturn(executor);
+        Mockito.when(userService.createUser(dto))
+                .thenReturn(new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, null));
+        Mockito.when(userEventOutbox.append(Mockito.any())).thenReturn(7L);
+        Mockito.when(userEventOutbox.awaitSent(Mockito.eq(7L), Mockito.any())).thenReturn(new CompletableFuture<>());
+
+        CompletableFuture<UserResponseDto> result = userServiceFacade.createUserAndPublishEventAsync(dto);
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(asyncTimerCount("create", "timeout")).isEqualTo(1);
+    }
+
+    @Test
+    void deleteUserAndPublishEventAsync_UserNotFound_FailsWithoutPublishing() {
+        Mockito.when(userAsyncExecutor.executor()).thenReturn(executor);
+        Mockito.when(userService.deleteAndReturnUserById(999L))
+                .thenThrow(new ResourceNotFoundException("Пользователь не найден"));
+
+        CompletableFuture<Void> result = userServiceFacade.deleteUserAndPublishEventAsync(999L);
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ResourceNotFoundException.class);
+        verify(userEventOutbox, Mockito.never()).append(Mockito.any());
+        verify(transactionManager).rollback(Mockito.any());
+        assertThat(asyncTimerCount("delete", "error")).isEqualTo(1);
+    }
+
+    @Test
+    void createUsersAndPublishEvents_SplitsIntoChunksAndAppendsEventsPerChunk() {
+        List<UserCreateDto> dtos = IntStream.range(0, UserServiceFacadeImpl.BATCH_CHUNK_SIZE + 1)
+                .mapToObj(i -> new UserCreateDto("User" + i, "user" + i + "@gmail.com", 25))
+                .toList();
+        Mockito.when(userService.createUsers(anyList(), anyInt())).thenAnswer(invocation -> {
+            List<UserCreateDto> chunk = invocation.getArgument(0);
+            int startIndex = invocation.getArgument(1);
+            List<UserBatchItemResult> results = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(UserBatchItemResult.created(startIndex + i, chunk.get(i).email(), (long) startIndex + i));
+            }
+            return results;
+        });
+
+        UserBatchCreateResult result = userServiceFacade.createUsersAndPublishEvents(dtos);
+
+        assertThat(result.created()).isEqualTo(dtos.size());
+        assertThat(result.failed()).isZero();
+        assertThat(result.items()).extracting(UserBatchItemResult::index)
+                .containsExactlyElementsOf(IntStream.range(0, dtos.size()).boxed().toList());
+        verify(userValidator).validateBatchSize(dtos.size());
+        verify(userService, times(2)).createUsers(anyList(), anyInt());
+        verify(userService).createUsers(dtos.subList(UserServiceFacadeImpl.BATCH_CHUNK_SIZE, dtos.size()),
+                UserServiceFacadeImpl.BATCH_CHUNK_SIZE);
+        verify(userEventOutbox).appendAll(Mockito.argThat(events ->
+                events.size() == UserServiceFacadeImpl.BATCH_CHUNK_SIZE));
+        verify(userEventOutbox).appendAll(List.of(new UserEventDto("create", dtos.get(dtos.size() - 1).email())));
+        verify(transactionManager, times(2)).commit(Mockito.any());
+    }
+
+    @Test
+    void createUsersAndPublishEvents_FailedChunk_ReportsItemsAsFailed() {
+        List<UserCreateDto> dtos = List.of(new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25));
+        Mockito.when(userService.createUsers(dtos, 0))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        UserBatchCreateResult result = userServiceFacade.createUsersAndPublishEvents(dtos);
+
+        assertThat(result.items()).containsExactly(
+                UserBatchItemResult.failed(0, "unknown.nvme@gmail.com", "Не удалось сохранить пользователя"));
+        verify(userEventOutbox, Mockito.never()).appendAll(anyList());
+    }
+
+    @Test
+    void createUsersAndPublishEvents_EmailMissedByFilter_RetriesItemsAndFailsOnlyDuplicate() {
+        UserCreateDto fresh = new UserCreateDto("Ibra", "fresh@gmail.com", 25);
+        UserCreateDto taken = new UserCreateDto("Vibra", "taken@gmail.com", 30);
+        List<UserCreateDto> dtos = List.of(fresh, taken);
+        Mockito.when(userService.createUsers(dtos, 0))
+                .thenThrow(new DataIntegrityViolationException("duplicate key ux_users_email"));
+        Mockito.when(userService.createUsers(List.of(fresh), 0))
+                .thenReturn(List.of(UserBatchItemResult.created(0, "fresh@gmail.com", 1L)));
+        Mockito.when(userService.createUsers(List.of(taken), 1))
+                .thenThrow(new DataIntegrityViolationException("duplicate key ux_users_email"));
+
+        UserBatchCreateResult result = userServiceFacade.createUsersAndPublishEvents(dtos);
+
+        assertThat(result.items()).containsExactly(
+                UserBatchItemResult.created(0, "fresh@gmail.com", 1L),
+                UserBatchItemResult.failed(1, "taken@gmail.com", "Email уже существует"));
+        verify(userEventOutbox, times(1)).appendAll(anyList());
+        verify(userEventOutbox).appendAll(List.of(new UserEventDto("create", "fresh@gmail.com")));
+    }
+
+    @Test
+    void createUsersAndPublishEvents_InvalidSize_ThrowsException() {
+        Mockito.doThrow(new IllegalArgumentException("Пакет должен содержать от 1 до 50000 пользователей"))
+                .when(userValidator).validateBatchSize(0);
+
+        assertThatThrownBy(() -> userServiceFacade.createUsersAndPublishEvents(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(userService, Mockito.never()).createUsers(anyList(), anyInt());
+    }
+
+    @Test
+    void deleteUsersAndPublishEvents_AppendsEventsPerChunk() {
+        List<Long> ids = new ArrayList<>(IntStream.rangeClosed(1, UserServiceFacadeImpl.BATCH_CHUNK_SIZE + 1)
+                .mapToObj(Long::valueOf)
+                .toList());
+        ids.add(1L);
+        Mockito.when(userService.deleteUsersByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> chunk = invocation.getArgument(0);
+            return chunk.stream()
+                    .filter(id -> id != 2L)
+                    .map(id -> new UserResponseDto(id, "User" + id, "user" + id + "@gmail.com", 25, null))
+                    .toList();
+        });
+
+        UserBatchDeleteResult result = userServiceFacade.deleteUsersAndPublishEvents(ids);
+
+        assertThat(result.deleted()).hasSize(UserServiceFacadeImpl.BATCH_CHUNK_SIZE).doesNotContain(2L);
+        assertThat(result.notFound()).containsExactly(2L);
+        verify(userValidator).validateIdBatch(ids);
+        verify(userService, times(2)).deleteUsersByIds(anyList());
+        verify(userEventOutbox).appendAll(Mockito.argThat(events ->
+                events.size() == UserServiceFacadeImpl.BATCH_CHUNK_SIZE - 1));
+        verify(userEventOutbox).appendAll(List.of(new UserEventDto("delete", "user501@gmail.com")));
+        verify(transactionManager, times(2)).commit(Mockito.any());
+    }
+
+    @Test
+    void createUsersAndPublishEvents_OutboxFails_RollsBackChunk() {
+        List<UserCreateDto> dtos = List.of(new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25));
+        Mockito.when(userService.createUsers(dtos, 0))
+                .thenReturn(List.of(UserBatchItemResult.created(0, "unknown.nvme@gmail.com", 1L)));
+        Mockito.doThrow(new DataAccessResourceFailureException("connection lost"))
+                .when(userEventOutbox).appendAll(anyList());
+
+        UserBatchCreateResult result = userServiceFacade.createUsersAndPublishEvents(dtos);
+
+        assertThat(result.items()).containsExactly(
+                UserBatchItemResult.failed(0, "unknown.nvme@gmail.com", "Не удалось сохранить пользователя"));
+        verify(transactionManager).rollback(Mockito.any());
+        verify(transactionManager, Mockito.never()).commit(Mockito.any());
+    }
+
+    @Test
+    void findUsersByName_LoadsIndexedIdsAndEvictsStaleOnes() {
+        UserResponseDto ibra = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, null);
+        Mockito.when(userNameIndex.search("ibra", 10)).thenReturn(List.of(1L, 2L));
+        Mockito.when(userService.getUserById(1L)).thenReturn(ibra);
+        Mockito.when(userService.getUserById(2L)).thenThrow(new ResourceNotFoundException("Пользователь не найден"));
+
+        List<UserResponseDto> result = userServiceFacade.findUsersByName("ibra", 10);
+
+        assertThat(result).containsExactly(ibra);
+        verify(userValidator).validateNameQuery("ibra", 10);
+        verify(userNameIndex).evict(2L);
+    }
+
+    private long asyncTimerCount(String operation, String outcome) {
+        Timer timer = meterRegistry.find(UserServiceFacadeImpl.ASYNC_TIMER)
+                .tags("operation", operation, "outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -9,11 +9,24 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.astondevs.dto.UserBatchItemResult;
 import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserField;
 import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserSearchCriteria;
 import ru.astondevs.dto.UserUpdateDto;
 import ru.astondevs.entity.User;
+import ru.astondevs.event.UserCreatedEvent;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
 import ru.astondevs.exception.DuplicateEmailException;
+import ru.astondevs.exception.PreconditionFailedException;
 import ru.astondevs.exception.ResourceNotFoundException;
 import ru.astondevs.repository.UserRepository;
 import ru.astondevs.service.impl.UserServiceImpl;
@@ -21,11 +34,15 @@ import ru.astondevs.util.UserConverter;
 import ru.astondevs.util.UserValidator;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -48,9 +65,62 @@ public class UserServiceImplTest {
     @Mock
     private UserConverter userConverter;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EmailExistenceFilter emailExistenceFilter;
+
     @InjectMocks
     private UserServiceImpl userService;
 
+    @Test
+    void createUsers_MixedBatch_ReportsEachItem() {
+        UserCreateDto valid = new UserCreateDto("Ibra", "new@gmail.com", 25);
+        UserCreateDto invalid = new UserCreateDto("I", "bad", 25);
+        UserCreateDto taken = new UserCreateDto("Taken", "taken@gmail.com", 30);
+        UserCreateDto repeated = new UserCreateDto("Again", "new@gmail.com", 40);
+        User user = User.builder().name("Ibra").email("new@gmail.com").age(25).build();
+        User savedUser = User.builder().id(7L).name("Ibra").email("new@gmail.com").age(25).build();
+
+        when(userValidator.findBatchItemViolation(any())).thenReturn(Optional.empty());
+        when(userValidator.findBatchItemViolation(invalid)).thenReturn(Optional.of("name: too short"));
+        when(emailExistenceFilter.mightExist("new@gmail.com")).thenReturn(false);
+        when(emailExistenceFilter.mightExist("taken@gmail.com")).thenReturn(true);
+        when(userRepository.findExistingEmails(List.of("taken@gmail.com"))).thenReturn(Set.of("taken@gmail.com"));
+        when(userConverter.toResponseDto(savedUser))
+                .thenReturn(new UserResponseDto(7L, "Ibra", "new@gmail.com", 25, LocalDateTime.now()));
+        when(userConverter.toEntity(valid)).thenReturn(user);
+        when(userRepository.saveAll(List.of(user))).thenReturn(List.of(savedUser));
+
+        List<UserBatchItemResult> results = userService.createUsers(List.of(valid, invalid, taken, repeated), 500);
+
+        assertEquals(List.of(
+                UserBatchItemResult.created(500, "new@gmail.com", 7L),
+                UserBatchItemResult.failed(501, "bad", "name: too short"),
+                UserBatchItemResult.failed(502, "taken@gmail.com", "Email уже существует"),
+                UserBatchItemResult.failed(503, "new@gmail.com", "Email повторяется в запросе")
+        ), results);
+        verify(userRepository, never()).existsByEmail(any());
+        verify(eventPublisher).publishEvent(any(UserCreatedEvent.class));
+    }
+
+    @Test
+    void createUsers_AllEmailsMissFilter_SkipsExistenceQuery() {
+        UserCreateDto dto = new UserCreateDto("Ibra", "new@gmail.com", 25);
+        User user = User.builder().name("Ibra").email("new@gmail.com").age(25).build();
+        User savedUser = User.builder().id(7L).name("Ibra").email("new@gmail.com").age(25).build();
+
+        when(userValidator.findBatchItemViolation(dto)).thenReturn(Optional.empty());
+        when(emailExistenceFilter.mightExist("new@gmail.com")).thenReturn(false);
+        when(userConverter.toEntity(dto)).thenReturn(user);
+        when(userRepository.saveAll(List.of(user))).thenReturn(List.of(savedUser));
+
+        userService.createUsers(List.of(dto), 0);
+
+        verify(userRepository, never()).findExistingEmails(any());
+    }
+
     @Test
     void createUser_ValidDto_ReturnsResponseDto() {
         UserCreateDto createDto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
@@ -59,7 +129,7 @@ public class UserServiceImplTest {
         UserResponseDto responseDto = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
 
         when(userConverter.toEntity(createDto)).thenReturn(user);
-        when(userRepository.save(user)).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(user)).thenReturn(savedUser);
         when(userConverter.toResponseDto(savedUser)).thenReturn(responseDto);
 
         UserResponseDto result = userService.createUser(createDto);
@@ -71,6 +141,21 @@ public class UserServiceImplTest {
         verify(userValidator).validateCreateDto(createDto);
     }
 
+    @Test
+    void createUser_PublishesCreatedEvent() {
+        UserCreateDto dto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
+        User user = User.builder().build();
+        UserResponseDto responseDto = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
+
+        when(userConverter.toEntity(dto)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+        when(userConverter.toResponseDto(user)).thenReturn(responseDto);
+
+        userService.createUser(dto);
+
+        verify(eventPublisher).publishEvent(new UserCreatedEvent(responseDto));
+    }
+
     @Test
     void createUser_SetsCreatedAt() {
         UserCreateDto dto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
@@ -78,7 +163,7 @@ public class UserServiceImplTest {
         User savedUser = User.builder().id(1L).build();
 
         when(userConverter.toEntity(dto)).thenReturn(user);
-        when(userRepository.save(user)).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(user)).thenReturn(savedUser);
         when(userConverter.toResponseDto(savedUser)).thenAnswer(inv ->
                 new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now())
         );
@@ -107,12 +192,9 @@ public class UserServiceImplTest {
 
     @Test
     void getUserById_ExistingUser_ReturnsResponseDto() {
-        User user = User.builder().id(1L).build();
-
         UserResponseDto responseDto = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userConverter.toResponseDto(user)).thenReturn(responseDto);
+        when(userRepository.findResponseById(1L)).thenReturn(Optional.of(responseDto));
 
         UserResponseDto result = userService.getUserById(1L);
 
@@ -120,12 +202,13 @@ public class UserServiceImplTest {
         assertEquals("unknown.nvme@gmail.com", result.email());
         assertEquals(25, result.age());
         assertNotNull(result.createdAt());
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
     void getUserById_NonExistingUser_ThrowsException() {
         Long userId = 1L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.findResponseById(userId)).thenReturn(Optional.empty());
 
         assertThrows(
                 ResourceNotFoundException.class,
@@ -135,10 +218,75 @@ public class UserServiceImplTest {
         verify(userConverter, never()).toResponseDto(any());
     }
 
+    @Test
+    void getUserByEmail_ExistingUser_ReturnsResponseDto() {
+        UserResponseDto responseDto = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
+        when(userRepository.findResponseByEmail("unknown.nvme@gmail.com")).thenReturn(Optional.of(responseDto));
+
+        UserResponseDto result = userService.getUserByEmail("unknown.nvme@gmail.com");
+
+        assertEquals(1L, result.id());
+    }
+
+    @Test
+    void getUserByEmail_NonExistingUser_ThrowsException() {
+        when(userRepository.findResponseByEmail("missing@gmail.com")).thenReturn(Optional.empty());
+
+        assertThrows(
+                ResourceNotFoundException.class,
+                () -> userService.getUserByEmail("missing@gmail.com")
+        );
+    }
+
+    @Test
+    void searchUsers_DelegatesToRepositoryFromStartCursor() {
+        UserSearchCriteria criteria = new UserSearchCriteria(18, 30, null, null, null);
+        UserResponseDto dto = new UserResponseDto(3L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
+        when(userRepository.searchResponses(any(), eq(0L), eq(20)))
+                .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.ofSize(20), false));
+
+        Slice<UserResponseDto> result = userService.searchUsers(criteria, null, 20);
+
+        assertEquals(List.of(dto), result.getContent());
+        verify(userValidator).validatePageRequest(null, 20);
+        verify(userValidator).validateSearchCriteria(criteria);
+    }
+
+    @Test
+    void getUserById_WithFieldSubset_QueriesOnlyRequestedColumns() {
+        Set<UserField> fields = EnumSet.of(UserField.ID, UserField.NAME);
+        UserResponseDto partialDto = new UserResponseDto(1L, "Ibra", null, null, null, 2L);
+        when(userRepository.findResponse(any(), eq(fields))).thenReturn(Optional.of(partialDto));
+
+        UserResponseDto result = userService.getUserById(1L, fields);
+
+        assertEquals(partialDto, result);
+        verify(userRepository, never()).findResponseById(any());
+    }
+
+    @Test
+    void getAllUsers_WithAllFields_UsesFullProjection() {
+        when(userRepository.findResponsesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(20), false));
+
+        userService.getAllUsers(null, 20, UserField.ALL);
+
+        verify(userRepository, never()).searchResponses(any(), eq(0L), eq(20), any());
+    }
+
+    @Test
+    void getAllUsers_WithFieldSubset_ValidatesAndQueriesFromCursor() {
+        Set<UserField> fields = EnumSet.of(UserField.ID, UserField.NAME);
+        when(userRepository.searchResponses(any(), eq(5L), eq(10), eq(fields)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(10), false));
+
+        assertTrue(userService.getAllUsers(5L, 10, fields).isEmpty());
+        verify(userValidator).validatePageRequest(5L, 10);
+        verify(userRepository, never()).findResponsesAfter(any(), any());
+    }
+
     @Test
     void getAllUsers_ReturnsListOfResponseDto() {
-        User user1 = User.builder().id(1L).build();
-        User user2 = User.builder().id(2L).build();
         UserResponseDto dto1 = new UserResponseDto(
                 1L,
                 "Ibra",
@@ -154,23 +302,65 @@ public class UserServiceImplTest {
                 LocalDateTime.now()
         );
 
-        when(userRepository.findAll()).thenReturn(List.of(user1, user2));
-        when(userConverter.toResponseDto(user1)).thenReturn(dto1);
-        when(userConverter.toResponseDto(user2)).thenReturn(dto2);
+        when(userRepository.findResponsesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(dto1, dto2), PageRequest.ofSize(20), false));
 
-        List<UserResponseDto> result = userService.getAllUsers();
+        Slice<UserResponseDto> result = userService.getAllUsers(null, 20);
 
-        assertEquals(2, result.size());
-        assertEquals(1L, result.get(0).id());
+        assertEquals(2, result.getNumberOfElements());
+        assertEquals(1L, result.getContent().get(0).id());
+        assertFalse(result.hasNext());
     }
 
     @Test
     void getAllUsers_EmptyList_ReturnsEmptyList() {
-        when(userRepository.findAll()).thenReturn(List.of());
-        List<UserResponseDto> result = userService.getAllUsers();
+        when(userRepository.findResponsesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(20), false));
+        Slice<UserResponseDto> result = userService.getAllUsers(null, 20);
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void getAllUsers_WithCursor_QueriesRangeAfterCursor() {
+        UserResponseDto dto = new UserResponseDto(11L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+
+        when(userRepository.findResponsesAfter(eq(10L), pageableCaptor.capture()))
+                .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.ofSize(1), true));
+
+        Slice<UserResponseDto> result = userService.getAllUsers(10L, 1);
+
+        assertEquals(11L, result.getContent().get(0).id());
+        assertTrue(result.hasNext());
+        assertEquals(0, pageableCaptor.getValue().getPageNumber());
+        assertEquals(1, pageableCaptor.getValue().getPageSize());
+        verify(userValidator).validatePageRequest(10L, 1);
+    }
+
+    @Test
+    void getAllUsers_InvalidLimit_ThrowsException() {
+        doThrow(IllegalArgumentException.class)
+                .when(userValidator)
+                .validatePageRequest(null, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> userService.getAllUsers(null, 0));
+
+        verify(userRepository, never()).findResponsesAfter(any(), any());
+    }
+
+    @Test
+    void exportAllUsers_PassesEachUserToConsumer() {
+        UserResponseDto dto1 = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
+        UserResponseDto dto2 = new UserResponseDto(2L, "IbraVibra", "gadzhiev.ibragim.for.spam@yandex.ru", 20, LocalDateTime.now());
+        List<UserResponseDto> exported = new ArrayList<>();
+
+        when(userRepository.streamAllResponses()).thenReturn(Stream.of(dto1, dto2));
+
+        userService.exportAllUsers(exported::add);
+
+        assertEquals(List.of(dto1, dto2), exported);
+    }
+
     @Test
     void updateUser_ValidDto_ReturnsUpdateDto() {
         UserUpdateDto updateDto = new UserUpdateDto("Ibra", "unknown.nvme@gmail.com", 25);
@@ -416,4 +606,121 @@ public class UserServiceImplTest {
 
         verify(userRepository).delete(user);
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateUser_PublishesUpdatedEvent() {
+        User user = User.builder().id(1L).name("IbraVibra").build();
+        UserResponseDto responseDto = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userConverter.toResponseDto(user)).thenReturn(responseDto);
+
+        userService.updateUser(1L, new UserUpdateDto("Ibra", null, null));
+
+        verify(eventPublisher).publishEvent(new UserUpdatedEvent(responseDto, responseDto));
+    }
+
+    @Test
+    void deleteById_PublishesDeletedEvent() {
+        User user = User.builder().id(1L).build();
+        UserResponseDto responseDto = new UserResponseDto(1L, "Ibra", "unknown.nvme@gmail.com", 25, LocalDateTime.now());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userConverter.toResponseDto(user)).thenReturn(responseDto);
+
+        userService.deleteById(1L);
+
+        verify(eventPublisher).publishEvent(new UserDeletedEvent(responseDto));
+    }
+
+    @Test
+    void deleteById_NonExistingUser_DoesNotPublishEvent() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.deleteById(1L));
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deleteUsersByIds_DeletesFoundUsersWithSingleStatement() {
+        UserResponseDto first = new UserResponseDto(1L, "Ibra", "first@gmail.com", 25, LocalDateTime.now());
+        UserResponseDto third = new UserResponseDto(3L, "Vibra", "third@gmail.com", 30, LocalDateTime.now());
+        when(userRepository.findResponsesByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(first, third));
+        when(userRepository.deleteAllByIdIn(List.of(1L, 3L))).thenReturn(2);
+
+        List<UserResponseDto> deleted = userService.deleteUsersByIds(List.of(1L, 2L, 3L));
+
+        assertEquals(List.of(first, third), deleted);
+        verify(eventPublisher).publishEvent(new UserDeletedEvent(first));
+        verify(eventPublisher).publishEvent(new UserDeletedEvent(third));
+        verify(userRepository, never()).delete(any());
+    }
+
+    @Test
+    void deleteUsersByIds_NothingFound_SkipsDelete() {
+        when(userRepository.findResponsesByIdIn(List.of(5L))).thenReturn(List.of());
+
+        assertTrue(userService.deleteUsersByIds(List.of(5L)).isEmpty());
+
+        verify(userRepository, never()).deleteAllByIdIn(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void getUserVersion_ExistingUser_ReturnsVersionWithoutLoadingEntity() {
+        when(userRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+
+        assertEquals(4L, userService.getUserVersion(1L));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void getUserVersion_NonExistingUser_ThrowsException() {
+        when(userRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserVersion(1L));
+    }
+
+    @Test
+    void updateUser_ExpectedVersionMatches_Updates() {
+        User user = User.builder().id(1L).name("Ibra").version(3L).build();
+        UserUpdateDto dto = new UserUpdateDto("Vibra", null, null);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.updateUser(1L, dto, 3L);
+
+        verify(userConverter).updateEntity(user, dto);
+        verify(userRepository).flush();
+    }
+
+    @Test
+    void updateUser_ExpectedVersionDiffers_ThrowsPreconditionFailed() {
+        User user = User.builder().id(1L).name("Ibra").version(4L).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.updateUser(1L, new UserUpdateDto("Vibra", null, null), 3L));
+
+        verify(userConverter, never()).updateEntity(any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateUser_ConcurrentModificationWithExpectedVersion_ThrowsPreconditionFailed() {
+        User user = User.builder().id(1L).name("Ibra").version(3L).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        doThrow(new OptimisticLockingFailureException("Row was updated")).when(userRepository).flush();
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.updateUser(1L, new UserUpdateDto("Vibra", null, null), 3L));
+    }
+
+    @Test
+    void updateUser_ConcurrentModificationWithoutExpectedVersion_PropagatesConflict() {
+        User user = User.builder().id(1L).name("Ibra").version(3L).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        doThrow(new OptimisticLockingFailureException("Row was updated")).when(userRepository).flush();
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> userService.updateUser(1L, new UserUpdateDto("Vibra", null, null)));
+    }
+}
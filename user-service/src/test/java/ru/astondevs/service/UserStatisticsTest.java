@@ -0,0 +1,166 @@
+package ru.astondevs.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.astondevs.dto.UserResponseDto;
+import ru.astondevs.dto.UserStatsDto;
+import ru.astondevs.event.UserCreatedEvent;
+import ru.astondevs.event.UserDeletedEvent;
+import ru.astondevs.event.UserUpdatedEvent;
+import ru.astondevs.repository.UserAgeCount;
+import ru.astondevs.repository.UserRepository;
+import ru.astondevs.repository.UserSignupCount;
+import ru.astondevs.service.impl.UserStatisticsImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatisticsTest {
+    private static final LocalDateTime MAY_1 = LocalDateTime.of(2025, 5, 1, 10, 0);
+    private static final LocalDateTime MAY_2 = LocalDateTime.of(2025, 5, 2, 23, 59);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserStatisticsImpl statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new UserStatisticsImpl(userRepository, transactionManager);
+    }
+
+    @Test
+    void seed_FillsCountersFromAggregates() {
+        when(userRepository.countByAge()).thenReturn(List.of(
+                new UserAgeCount(25, 3), new UserAgeCount(29, 1), new UserAgeCount(120, 2), new UserAgeCount(null, 4)));
+        when(userRepository.countByCreationDay()).thenReturn(List.of(
+                new UserSignupCount(MAY_1.toLocalDate(), 6), new UserSignupCount(MAY_2.toLocalDate(), 4)));
+
+        statistics.seed();
+        UserStatsDto stats = statistics.snapshot();
+
+        assertThat(stats.totalUsers()).isEqualTo(10);
+        assertThat(stats.ageHistogram())
+                .containsEntry("20-29", 4L)
+                .containsEntry("110-120", 2L)
+                .containsEntry("unknown", 4L)
+                .containsEntry("0-9", 0L)
+                .hasSize(13);
+        assertThat(stats.signupsPerDay()).containsExactly(
+                entry(MAY_1.toLocalDate(), 6L),
+                entry(MAY_2.toLocalDate(), 4L));
+    }
+
+    @Test
+    void reseed_ReplacesCountersWithDatabaseAggregates() {
+        when(userRepository.countByAge())
+                .thenReturn(List.of(new UserAgeCount(25, 1)))
+                .thenReturn(List.of(new UserAgeCount(25, 1), new UserAgeCount(41, 2)));
+        when(userRepository.countByCreationDay())
+                .thenReturn(List.of(new UserSignupCount(MAY_1.toLocalDate(), 1)))
+                .thenReturn(List.of(new UserSignupCount(MAY_1.toLocalDate(), 1),
+                        new UserSignupCount(MAY_2.toLocalDate(), 2)));
+        statistics.seed();
+        statistics.onUserCreated(new UserCreatedEvent(user(2L, 41, MAY_2)));
+
+        statistics.reseed();
+        UserStatsDto stats = statistics.snapshot();
+
+        assertThat(stats.totalUsers()).isEqualTo(3);
+        assertThat(stats.ageHistogram()).containsEntry("20-29", 1L).containsEntry("40-49", 2L);
+        assertThat(stats.signupsPerDay()).containsExactly(
+                entry(MAY_1.toLocalDate(), 1L),
+                entry(MAY_2.toLocalDate(), 2L));
+    }
+
+    @Test
+    void reseed_KeepsCountersWhenDatabaseFails() {
+        when(userRepository.countByAge())
+                .thenReturn(List.of(new UserAgeCount(25, 1)))
+                .thenThrow(new DataAccessResourceFailureException("База недоступна"));
+        when(userRepository.countByCreationDay()).thenReturn(List.of());
+        statistics.seed();
+
+        statistics.reseed();
+
+        assertThat(statistics.snapshot().totalUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void events_UpdateCountersIncrementally() {
+        UserResponseDto ibra = user(1L, 25, MAY_1);
+        statistics.onUserCreated(new UserCreatedEvent(ibra));
+        statistics.onUserCreated(new UserCreatedEvent(user(2L, null, MAY_2)));
+        statistics.onUserUpdated(new UserUpdatedEvent(user(1L, 41, MAY_1), ibra));
+        statistics.onUserDeleted(new UserDeletedEvent(user(2L, null, MAY_2)));
+
+        UserStatsDto stats = statistics.snapshot();
+
+        assertThat(stats.totalUsers()).isEqualTo(1);
+        assertThat(stats.ageHistogram())
+                .containsEntry("20-29", 0L)
+                .containsEntry("40-49", 1L)
+                .containsEntry("unknown", 0L);
+        assertThat(stats.signupsPerDay()).containsOnlyKeys(MAY_1.toLocalDate());
+    }
+
+    @Test
+    void onUserUpdated_WithoutPreviousState_LeavesHistogramUnchanged() {
+        statistics.onUserCreated(new UserCreatedEvent(user(1L, 25, MAY_1)));
+
+        statistics.onUserUpdated(new UserUpdatedEvent(user(1L, 41, MAY_1)));
+
+        assertThat(statistics.snapshot().ageHistogram()).containsEntry("20-29", 1L).containsEntry("40-49", 0L);
+    }
+
+    @Test
+    void events_FromManyThreads_AreAllCounted() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * perThread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        statistics.onUserCreated(new UserCreatedEvent(user((long) offset + i, i % 100, MAY_1)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        UserStatsDto stats = statistics.snapshot();
+        assertThat(stats.totalUsers()).isEqualTo((long) threads * perThread);
+        assertThat(stats.ageHistogram().values().stream().mapToLong(Long::longValue).sum())
+                .isEqualTo((long) threads * perThread);
+        assertThat(stats.signupsPerDay()).containsEntry(LocalDate.of(2025, 5, 1), (long) threads * perThread);
+    }
+
+    private static UserResponseDto user(Long id, Integer age, LocalDateTime createdAt) {
+        return new UserResponseDto(id, "User" + id, "user" + id + "@gmail.com", age, createdAt, 0L);
+    }
+}
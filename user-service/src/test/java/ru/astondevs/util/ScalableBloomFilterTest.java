@@ -0,0 +1,58 @@
+package ru.astondevs.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void mightContain_AddedValues_NoFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@gmail.com"));
+
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("user" + i + "@gmail.com"));
+    }
+
+    @Test
+    void mightContain_UnknownValues_FalsePositiveRateNearTarget() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@gmail.com"));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other" + i + "@yandex.ru"))
+                .count();
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveProbability()).isBetween(0.005, 0.015);
+        assertThat(filter.fillRatio()).isBetween(0.4, 0.6);
+    }
+
+    @Test
+    void put_BeyondCapacity_AddsLayerAndKeepsFalsePositiveRateBounded() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@gmail.com"));
+
+        assertThat(filter.layerCount()).isGreaterThan(1);
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("user" + i + "@gmail.com"));
+        assertThat(filter.expectedFalsePositiveProbability()).isLessThan(0.02);
+    }
+
+    @Test
+    void put_SameValueTwice_CountedOnce() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        filter.put("unknown.nvme@gmail.com");
+        filter.put("unknown.nvme@gmail.com");
+
+        assertThat(filter.approximateElementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void constructor_InvalidProbability_ThrowsException() {
+        assertThatThrownBy(() -> new ScalableBloomFilter(100, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
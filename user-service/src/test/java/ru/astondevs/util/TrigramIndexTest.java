@@ -0,0 +1,79 @@
+package ru.astondevs.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrigramIndexTest {
+
+    @Test
+    void search_SubstringIgnoringCase_FindsAllContainingNames() {
+        TrigramIndex index = new TrigramIndex(0.5);
+        index.put(1, "Ibragim Gadzhiev", 0);
+        index.put(2, "Vibra", 0);
+        index.put(3, "Ivan", 0);
+
+        assertThat(index.search("BRA", 10)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void search_WithTypo_FindsName() {
+        TrigramIndex index = new TrigramIndex(0.5);
+        index.put(1, "Gadzhiev", 0);
+        index.put(2, "Petrov", 0);
+
+        assertThat(index.search("Gadziev", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void search_RanksExactMatchesFirstAndRespectsLimit() {
+        TrigramIndex index = new TrigramIndex(0.5);
+        index.put(1, "Ivanova Maria", 0);
+        index.put(2, "Ivan", 0);
+        index.put(3, "Ivanov", 0);
+        index.put(4, "Ivon", 0);
+
+        assertThat(index.search("ivan", 2)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void put_NewerVersionReplacesName_OlderVersionIgnored() {
+        TrigramIndex index = new TrigramIndex(0.5);
+        index.put(1, "Ibra", 1);
+        index.put(1, "Vibra", 2);
+        index.put(1, "Stale", 1);
+
+        assertThat(index.search("stale", 10)).isEmpty();
+        assertThat(index.search("vibra", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_DropsNameFromResults() {
+        TrigramIndex index = new TrigramIndex(0.5);
+        index.put(1, "Ibra", 0);
+        index.remove(1);
+
+        assertThat(index.search("ibra", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void search_ManyNames_ReturnsOnlyRelevantCandidates() {
+        TrigramIndex index = new TrigramIndex(0.5);
+        IntStream.range(0, 10_000).forEach(i -> index.put(i, "User " + i, 0));
+        index.put(10_000, "Ibragim", 0);
+
+        assertThat(index.search("ibragim", 10)).containsExactly(10_000L);
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void constructor_InvalidScore_ThrowsException() {
+        assertThatThrownBy(() -> new TrigramIndex(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
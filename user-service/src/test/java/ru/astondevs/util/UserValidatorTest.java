@@ -1,7 +1,13 @@
 package ru.astondevs.util;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
 import java.util.stream.Stream;
 
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -10,28 +16,50 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.astondevs.dto.UserCreateDto;
+import ru.astondevs.dto.UserSearchCriteria;
 import ru.astondevs.dto.UserUpdateDto;
 import ru.astondevs.exception.DuplicateEmailException;
 import ru.astondevs.repository.UserRepository;
+import ru.astondevs.service.EmailExistenceFilter;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class UserValidatorTest {
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private EmailExistenceFilter emailExistenceFilter;
+
     @InjectMocks
     private UserValidator userValidator;
 
     @Test
-    void validateCreateDto_WhenEmailExists_ThrowsException() {
+    void validateCreateDto_FilterMiss_SkipsExistenceQuery() {
         UserCreateDto dto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
+
+        assertDoesNotThrow(() -> userValidator.validateCreateDto(dto));
+        verify(userRepository, never()).existsByEmail(any());
+    }
+
+    @Test
+    void validateCreateDto_FilterHitAndEmailExists_ThrowsException() {
+        UserCreateDto dto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
+        when(emailExistenceFilter.mightExist(dto.email())).thenReturn(true);
         when(userRepository.existsByEmail(dto.email())).thenReturn(true);
 
         DuplicateEmailException exception = assertThrows(
@@ -42,13 +70,23 @@ public class UserValidatorTest {
     }
 
     @Test
-    void validateCreateDto_WithNewEmail_DoesNotThrow() {
+    void validateCreateDto_FalsePositive_DoesNotThrow() {
         UserCreateDto dto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
-        when(userRepository.existsByEmail("unknown.nvme@gmail.com")).thenReturn(false);
+        when(emailExistenceFilter.mightExist(dto.email())).thenReturn(true);
+        when(userRepository.existsByEmail(dto.email())).thenReturn(false);
 
         assertDoesNotThrow(() -> userValidator.validateCreateDto(dto));
     }
 
+    @Test
+    void validateUpdateDto_FilterHitAndEmailExists_ThrowsException() {
+        UserUpdateDto dto = new UserUpdateDto(null, "unknown.nvme@gmail.com", null);
+        when(emailExistenceFilter.mightExist(dto.email())).thenReturn(true);
+        when(userRepository.existsByEmail(dto.email())).thenReturn(true);
+
+        assertThrows(DuplicateEmailException.class, () -> userValidator.validateUpdateDto(dto));
+    }
+
     @Test
     void validateCreateDto_WithNullDto_ThrowsException() {
         assertThrows(NullPointerException.class, () -> userValidator.validateCreateDto(null));
@@ -58,17 +96,12 @@ public class UserValidatorTest {
     @ValueSource(ints = {0, 120})
     void validateCreateDto_ValidAgeBoundaries_DoesNotThrow(int age) {
         UserCreateDto dto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", age);
-        when(userRepository.existsByEmail("unknown.nvme@gmail.com")).thenReturn(false);
         assertDoesNotThrow(() -> userValidator.validateCreateDto(dto));
     }
 
     @ParameterizedTest
     @MethodSource("provideInvalidUpdateDto")
     void validateUpdateDto_InvalidCases_ThrowException(UserUpdateDto dto, Class<? extends Exception> exceptionClass, String message) {
-        if (dto.email() != null) {
-            when(userRepository.existsByEmail(dto.email())).thenReturn(true);
-        }
-
         Exception exception = assertThrows(exceptionClass, () -> userValidator.validateUpdateDto(dto));
         assertEquals(message, exception.getMessage());
     }
@@ -76,17 +109,12 @@ public class UserValidatorTest {
     @ParameterizedTest
     @MethodSource("provideValidUpdateDto")
     void validateUpdateDto_ValidCases_DoesNotThrow(UserUpdateDto dto) {
-        if (dto.email() != null) {
-            when(userRepository.existsByEmail(dto.email())).thenReturn(false);
-        }
-
         assertDoesNotThrow(() -> userValidator.validateUpdateDto(dto));
     }
 
     @Test
     void validateUpdateDto_NewEmail_DoesNotThrow() {
         UserUpdateDto dto = new UserUpdateDto(null, "unknown.nvme@gmail.com", null);
-        when(userRepository.existsByEmail("unknown.nvme@gmail.com")).thenReturn(false);
 
         assertDoesNotThrow(() -> userValidator.validateUpdateDto(dto));
     }
@@ -97,17 +125,114 @@ public class UserValidatorTest {
         assertDoesNotThrow(() -> userValidator.validateUpdateDto(dto));
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {0, -1, 101})
+    void validatePageRequest_InvalidLimit_ThrowsException(int limit) {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> userValidator.validatePageRequest(null, limit)
+        );
+        assertEquals("Параметр limit должен быть в пределах от 1 до 100", exception.getMessage());
+    }
+
+    @Test
+    void validatePageRequest_NegativeCursor_ThrowsException() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> userValidator.validatePageRequest(-1L, 20)
+        );
+        assertEquals("Параметр after не может быть отрицательным", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 20, 100})
+    void validatePageRequest_ValidLimit_DoesNotThrow(int limit) {
+        assertDoesNotThrow(() -> userValidator.validatePageRequest(5L, limit));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "  "})
+    void validateNameQuery_Blank_ThrowsException(String query) {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> userValidator.validateNameQuery(query, 10)
+        );
+        assertEquals("Параметр q не может быть пустым", exception.getMessage());
+    }
+
+    @Test
+    void validateSearchCriteria_InvertedAgeRange_ThrowsException() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> userValidator.validateSearchCriteria(new UserSearchCriteria(40, 30, null, null, null))
+        );
+        assertEquals("Параметр minAge не может быть больше maxAge", exception.getMessage());
+    }
+
+    @Test
+    void validateSearchCriteria_EmptyCreationWindow_ThrowsException() {
+        LocalDateTime moment = LocalDateTime.of(2025, 1, 1, 0, 0);
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> userValidator.validateSearchCriteria(new UserSearchCriteria(null, null, null, moment, moment))
+        );
+        assertEquals("Параметр createdFrom должен быть раньше createdTo", exception.getMessage());
+    }
+
+    @Test
+    void validateSearchCriteria_OpenBounds_DoesNotThrow() {
+        assertDoesNotThrow(() -> userValidator.validateSearchCriteria(
+                new UserSearchCriteria(30, null, "Ib", LocalDateTime.of(2025, 1, 1, 0, 0), null)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, UserValidator.MAX_BATCH_SIZE + 1})
+    void validateBatchSize_OutOfRange_ThrowsException(int size) {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> userValidator.validateBatchSize(size)
+        );
+        assertEquals("Пакет должен содержать от 1 до 50000 пользователей", exception.getMessage());
+    }
+
+    @Test
+    void validateIdBatch_WithNullId_ThrowsException() {
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> userValidator.validateIdBatch(Arrays.asList(1L, null))
+        );
+        assertEquals("Список ID не должен содержать пустых значений", exception.getMessage());
+    }
+
+    @Test
+    void findBatchItemViolation_ValidDto_ReturnsEmpty() {
+        UserCreateDto dto = new UserCreateDto("Ibra", "unknown.nvme@gmail.com", 25);
+
+        assertEquals(Optional.empty(), userValidator.findBatchItemViolation(dto));
+    }
+
+    @Test
+    void findBatchItemViolation_InvalidDto_DescribesEveryField() {
+        UserCreateDto dto = new UserCreateDto("I", "not-an-email", 121);
+
+        String violation = userValidator.findBatchItemViolation(dto).orElseThrow();
+
+        assertTrue(violation.startsWith("age: "));
+        assertTrue(violation.contains("email: "));
+        assertTrue(violation.contains("name: "));
+    }
+
+    @Test
+    void findBatchItemViolation_NullDto_ReturnsViolation() {
+        assertEquals(Optional.of("Данные пользователя не заданы"), userValidator.findBatchItemViolation(null));
+    }
+
     private static Stream<Arguments> provideInvalidUpdateDto() {
         return Stream.of(
                 Arguments.of(
                         new UserUpdateDto(null, null, null),
                         IllegalArgumentException.class,
                         "Нужно заполнить хотя бы одно поле"
-                ),
-                Arguments.of(
-                        new UserUpdateDto(null, "unknown.nvme@gmail.com", null),
-                        DuplicateEmailException.class,
-                        "Email уже существует"
                 )
         );
     }